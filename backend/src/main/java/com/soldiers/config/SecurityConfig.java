@@ -1,12 +1,20 @@
 package com.soldiers.config;
 
+import com.soldiers.security.JwtAuthenticationFilter;
+import com.soldiers.security.JwtService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -18,12 +26,24 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtService jwtService) throws Exception {
+        // Sem sessão HTTP: cada requisição se autentica pelo token, qualquer instância atende qualquer usuário
         http
             .cors().and()
             .csrf().disable()
+            .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
+            .exceptionHandling().authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)).and()
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
             .authorizeRequests()
-                .anyRequest().permitAll();
+                .antMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                // /auth/test fica público só como teste de conectividade (texto fixo, sem dados)
+                .antMatchers("/auth/login", "/auth/test", "/error").permitAll()
+                // Carga, reset e usuários de teste recriam o admin com senha conhecida: só administradores
+                .antMatchers("/auth/init-data", "/auth/reset-data", "/auth/create-test-users",
+                             "/auth/generate-password/**").hasRole("ADMIN")
+                // Página inicial pública
+                .antMatchers(HttpMethod.GET, "/news/**").permitAll()
+                .anyRequest().authenticated();
 
         return http.build();
     }
@@ -41,8 +61,9 @@ public class SecurityConfig {
         return source;
     }
 
+    // Cada +1 no strength dobra o custo; hashes antigos são refeitos no próximo login (UserService.login)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 } 
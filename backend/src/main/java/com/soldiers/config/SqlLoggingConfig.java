@@ -0,0 +1,49 @@
+package com.soldiers.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log de SQL por amostragem para produção: em vez de org.hibernate.SQL em DEBUG
+ * (todas as instruções), registra só uma fração delas no logger "com.soldiers.sql".
+ * A fração vem de app.sql-log.sample-rate (0 desliga, 1 registra todas).
+ */
+@Configuration
+public class SqlLoggingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sampledSqlLogging(@Value("${app.sql-log.sample-rate:0}") double sampleRate) {
+        return properties -> {
+            if (sampleRate > 0) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SampledSqlInspector(sampleRate));
+            }
+        };
+    }
+
+    static class SampledSqlInspector implements StatementInspector {
+
+        private static final Logger logger = LoggerFactory.getLogger("com.soldiers.sql");
+
+        private final double sampleRate;
+
+        SampledSqlInspector(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (logger.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                logger.info("{}", sql);
+            }
+            return sql;
+        }
+    }
+}
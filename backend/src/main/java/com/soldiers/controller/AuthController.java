@@ -7,17 +7,21 @@ import com.soldiers.dto.response.UserResponse;
 import com.soldiers.entity.User;
 import com.soldiers.service.UserService;
 import javax.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(origins = {"http://localhost:8084", "http://127.0.0.1:8084", "http://172.18.0.3:8084"})
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     private final UserService userService;
 
     public AuthController(UserService userService) {
@@ -34,6 +38,9 @@ public class AuthController {
         try {
             LoginResponse response = userService.login(request);
             return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            // Pool de hashing saturado: 429 para o cliente tentar de novo em instantes
+            return ResponseEntity.status(e.getStatus()).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -43,7 +50,10 @@ public class AuthController {
     public ResponseEntity<UserResponse> register(@Valid @RequestBody UserRequest request) {
         try {
             User user = userService.createUser(request);
-            return ResponseEntity.ok(new UserResponse(user));
+            return ResponseEntity.ok(userService.getUserResponseById(user.getId()));
+        } catch (ResponseStatusException e) {
+            // Pool de hashing saturado: 429 para o cliente tentar de novo em instantes
+            return ResponseEntity.status(e.getStatus()).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -52,13 +62,9 @@ public class AuthController {
     @GetMapping("/users")
     public ResponseEntity<List<UserResponse>> getAllUsers() {
         try {
-            List<User> users = userService.getAllUsers();
-            List<UserResponse> userResponses = users.stream()
-                    .map(UserResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(userResponses);
+            return ResponseEntity.ok(userService.getAllUserResponses());
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Erro ao listar usuários", e);
             return ResponseEntity.status(500).build();
         }
     }
@@ -66,8 +72,7 @@ public class AuthController {
     @GetMapping("/users/{id}")
     public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
         try {
-            User user = userService.getUserById(id);
-            return ResponseEntity.ok(new UserResponse(user));
+            return ResponseEntity.ok(userService.getUserResponseById(id));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -77,7 +82,9 @@ public class AuthController {
     public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @Valid @RequestBody UserRequest request) {
         try {
             User user = userService.updateUser(id, request);
-            return ResponseEntity.ok(new UserResponse(user));
+            return ResponseEntity.ok(userService.getUserResponseById(user.getId()));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatus()).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -1,23 +1,35 @@
 package com.soldiers.controller;
 
+import com.soldiers.dto.response.CursorPageResponse;
 import com.soldiers.entity.Budget;
 import com.soldiers.entity.Budget.BudgetType;
 import com.soldiers.dto.request.BudgetRequest;
 import com.soldiers.dto.response.BudgetResponse;
+import com.soldiers.dto.response.FinancialReportResponse;
+import com.soldiers.security.AuthenticatedUser;
+import com.soldiers.service.BudgetOutboxService;
 import com.soldiers.service.BudgetService;
+import com.soldiers.service.DataExportService;
 import com.soldiers.service.ExcelExportService;
+import com.soldiers.service.FinancialReportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/budgets")
@@ -29,8 +41,17 @@ public class BudgetController {
     @Autowired
     private BudgetService budgetService;
     
+    @Autowired
+    private BudgetOutboxService budgetOutboxService;
+    
+    @Autowired
+    private FinancialReportService financialReportService;
+    
     @Autowired
     private ExcelExportService excelExportService;
+    
+    @Autowired
+    private DataExportService dataExportService;
 
     @GetMapping
     public ResponseEntity<List<BudgetResponse>> getAllBudgets() {
@@ -44,6 +65,13 @@ public class BudgetController {
         return ResponseEntity.ok(budgets);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponse<BudgetResponse>> getBudgetsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(budgetService.getBudgetsPage(cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BudgetResponse> getBudgetById(@PathVariable Long id) {
         BudgetResponse budget = budgetService.getBudgetById(id);
@@ -51,8 +79,11 @@ public class BudgetController {
     }
 
     @PostMapping
-    public ResponseEntity<BudgetResponse> createBudget(@Valid @RequestBody BudgetRequest request) {
-        BudgetResponse budget = budgetService.createBudget(request, 1L); // Usuário padrão
+    public ResponseEntity<BudgetResponse> createBudget(@Valid @RequestBody BudgetRequest request, Authentication authentication) {
+        Long userId = authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser
+                ? ((AuthenticatedUser) authentication.getPrincipal()).getUserId()
+                : 1L; // Usuário padrão
+        BudgetResponse budget = budgetService.createBudget(request, userId);
         return ResponseEntity.ok(budget);
     }
 
@@ -86,6 +117,21 @@ public class BudgetController {
         return ResponseEntity.ok(expenses);
     }
     
+    // Entradas, saídas e vendas por dia, semana ou mês (ex.: ?granularity=MONTH&startDate=2024-01-01)
+    @GetMapping("/report")
+    public ResponseEntity<FinancialReportResponse> getReport(
+            @RequestParam(defaultValue = "MONTH") FinancialReportResponse.Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(financialReportService.getReport(granularity, startDate, endDate));
+    }
+    
+    // Fila de lançamentos automáticos ainda não gravados em budgets (atraso, falhas, lançados)
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(budgetOutboxService.getStats());
+    }
+    
     @GetMapping("/test")
     public ResponseEntity<String> test() {
         logger.info("Endpoint de teste chamado");
@@ -93,25 +139,32 @@ public class BudgetController {
     }
     
     @GetMapping("/export/excel")
-    public ResponseEntity<byte[]> exportToExcel() {
+    public void exportToExcel(HttpServletResponse response) throws IOException {
         logger.info("Iniciando requisição de exportação para Excel");
-        try {
-            logger.info("Chamando ExcelExportService.exportBudgetToExcel()");
-            byte[] excelContent = excelExportService.exportBudgetToExcel();
-            logger.info("Excel gerado com sucesso. Tamanho: {} bytes", excelContent.length);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", "orcamento_soldiers.xlsx");
-            
-            logger.info("Retornando resposta com arquivo Excel");
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(excelContent);
-                    
-        } catch (Exception e) {
-            logger.error("Erro durante exportação para Excel: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orcamento_soldiers.xlsx\"");
+
+        // A planilha é escrita direto na resposta, sem montar o arquivo inteiro em memória
+        excelExportService.exportBudgetToExcel(response.getOutputStream());
+    }
+
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportToCsv(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = StreamingExports.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> dataExportService.exportBudgetsCsv(out, startDate, endDate, gzip);
+        return StreamingExports.streamingResponse(body, "text/csv;charset=UTF-8", "orcamento_soldiers.csv", gzip);
+    }
+
+    @GetMapping("/export/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportToNdjson(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = StreamingExports.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> dataExportService.exportBudgetsNdjson(out, startDate, endDate, gzip);
+        return StreamingExports.streamingResponse(body, "application/x-ndjson", "orcamento_soldiers.ndjson", gzip);
     }
 }
@@ -1,11 +1,15 @@
 package com.soldiers.controller;
 
-import com.soldiers.entity.Product;
+import com.soldiers.entity.GameEvent;
+import com.soldiers.dto.response.ProductResponse;
 import com.soldiers.service.DashboardService;
 import com.soldiers.service.ProductService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -29,14 +33,20 @@ public class DashboardController {
     }
 
     @GetMapping("/revenue-by-game")
-    public ResponseEntity<Map<String, Object>> getRevenueByGame() {
-        Map<String, Object> revenueData = dashboardService.getRevenueByGame();
+    public ResponseEntity<Map<String, Object>> getRevenueByGame(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) GameEvent.GameStatus status) {
+        Map<String, Object> revenueData = dashboardService.getRevenueByGame(startDate, endDate, status);
         return ResponseEntity.ok(revenueData);
     }
 
     @GetMapping("/top-products")
-    public ResponseEntity<List<Map<String, Object>>> getTopProducts() {
-        List<Map<String, Object>> topProducts = dashboardService.getTopProducts();
+    public ResponseEntity<List<Map<String, Object>>> getTopProducts(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<Map<String, Object>> topProducts = dashboardService.getTopProducts(limit, startDate, endDate);
         return ResponseEntity.ok(topProducts);
     }
 
@@ -47,8 +57,7 @@ public class DashboardController {
     }
 
     @GetMapping("/stock-status")
-    public ResponseEntity<List<Product>> getStockStatus() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductResponse>> getStockStatus(WebRequest webRequest) {
+        return ProductController.conditional(productService.getAllProducts(), webRequest);
     }
 } 
@@ -1,6 +1,7 @@
 package com.soldiers.controller;
 
 import com.soldiers.dto.request.NewsRequest;
+import com.soldiers.dto.response.CursorPageResponse;
 import com.soldiers.entity.News;
 import com.soldiers.service.NewsService;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +33,13 @@ public class NewsController {
         return ResponseEntity.ok(news);
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponse<News>> getNewsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(newsService.getNewsPage(cursor, size));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<News> getNewsById(@PathVariable Long id) {
         News news = newsService.getNewsById(id);
@@ -1,6 +1,7 @@
 package com.soldiers.controller;
 
 import com.soldiers.dto.request.PlayerRequest;
+import com.soldiers.dto.response.CursorPageResponse;
 import com.soldiers.dto.response.PlayerResponse;
 import com.soldiers.service.PlayerService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,13 @@ public class PlayerController {
         return ResponseEntity.ok(players);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponse<PlayerResponse>> getPlayersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(playerService.getPlayersPage(cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PlayerResponse> getPlayerById(@PathVariable Long id) {
         PlayerResponse player = playerService.getPlayerById(id);
@@ -1,14 +1,19 @@
 package com.soldiers.controller;
 
 import com.soldiers.dto.request.ProductRequest;
+import com.soldiers.dto.response.ProductResponse;
 import com.soldiers.entity.Product;
+import com.soldiers.service.ProductCatalogService.CatalogView;
 import com.soldiers.service.ProductService;
 import javax.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/products")
@@ -28,23 +33,40 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductResponse>> getAllProducts(WebRequest webRequest) {
+        return conditional(productService.getAllProducts(), webRequest);
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<Product>> getAvailableProducts() {
-        List<Product> products = productService.getAvailableProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductResponse>> getAvailableProducts(WebRequest webRequest) {
+        return conditional(productService.getAvailableProducts(), webRequest);
     }
 
     @GetMapping("/low-stock")
-    public ResponseEntity<List<Product>> getLowStockProducts(@RequestParam(defaultValue = "10") Integer threshold) {
-        List<Product> products = productService.getLowStockProducts(threshold);
+    public ResponseEntity<List<ProductResponse>> getLowStockProducts(@RequestParam(defaultValue = "10") Integer threshold) {
+        List<ProductResponse> products = productService.getLowStockProducts(threshold);
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * GET condicional: If-None-Match igual ao ETag do catálogo responde 304 sem corpo.
+     * no-cache faz o navegador guardar a resposta e sempre revalidar.
+     */
+    static ResponseEntity<List<ProductResponse>> conditional(CatalogView catalog, WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalog.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(catalog.getProducts());
+    }
+
+    @GetMapping("/catalog-cache/stats")
+    public ResponseEntity<Map<String, Object>> getCatalogCacheStats() {
+        return ResponseEntity.ok(productService.getCatalogCacheStats());
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<Product>> searchProducts(@RequestParam String name) {
         List<Product> products = productService.searchProductsByName(name);
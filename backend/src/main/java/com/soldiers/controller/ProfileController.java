@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/profiles")
@@ -30,6 +31,11 @@ public class ProfileController {
         return ResponseEntity.ok(profiles);
     }
 
+    @GetMapping("/permission-cache/stats")
+    public ResponseEntity<Map<String, Object>> getPermissionCacheStats() {
+        return ResponseEntity.ok(profileService.getPermissionCacheStats());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProfileResponse> getProfileById(@PathVariable Long id) {
         return profileService.getProfileWithPermissions(id)
@@ -1,66 +1,115 @@
 package com.soldiers.controller;
 
+import com.soldiers.dto.request.SaleBatchRequest;
 import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.dto.response.CursorPageResponse;
+import com.soldiers.dto.response.SaleBatchResponse;
 import com.soldiers.dto.response.SaleResponse;
+import com.soldiers.entity.ProfilePermission.Action;
+import com.soldiers.entity.ProfilePermission.Resource;
 import com.soldiers.entity.Sale;
+import com.soldiers.security.AuthenticatedUser;
+import com.soldiers.service.DataExportService;
+import com.soldiers.service.SaleBatchService;
+import com.soldiers.service.SaleIdempotencyService;
 import com.soldiers.service.SaleService;
 import javax.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/sales")
 @CrossOrigin(origins = "*")
 public class SaleController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final SaleService saleService;
+    private final DataExportService dataExportService;
+    private final SaleBatchService saleBatchService;
+    private final SaleIdempotencyService saleIdempotencyService;
 
-    public SaleController(SaleService saleService) {
+    public SaleController(SaleService saleService, DataExportService dataExportService, SaleBatchService saleBatchService,
+                          SaleIdempotencyService saleIdempotencyService) {
         this.saleService = saleService;
+        this.dataExportService = dataExportService;
+        this.saleBatchService = saleBatchService;
+        this.saleIdempotencyService = saleIdempotencyService;
     }
 
     @PostMapping
-    public ResponseEntity<SaleResponse> createSale(@Valid @RequestBody SaleRequest request) {
-        Sale sale = saleService.createSale(request, request.getUserId());
-        return ResponseEntity.ok(new SaleResponse(sale));
+    public ResponseEntity<?> createSale(@Valid @RequestBody SaleRequest request,
+                                        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                        Authentication authentication) {
+        Long userId = ((AuthenticatedUser) authentication.getPrincipal()).getUserId();
+        if (idempotencyKey == null) {
+            Sale sale = saleService.createSale(request, userId);
+            return ResponseEntity.ok(saleService.getSaleById(sale.getId()));
+        }
+
+        // Reenvios com a mesma chave recebem a resposta original, sem criar outra venda
+        SaleIdempotencyService.StoredResponse response = saleIdempotencyService.createSale(idempotencyKey, request, userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(response.isReplayed()))
+                .body(response.getBody());
+    }
+
+    // Sincronização dos caixas offline: cada venda volta com seu próprio status
+    @PostMapping("/batch")
+    public ResponseEntity<SaleBatchResponse> createSales(@Valid @RequestBody SaleBatchRequest request, Authentication authentication) {
+        Long sellerId = ((AuthenticatedUser) authentication.getPrincipal()).getUserId();
+        return ResponseEntity.ok(saleBatchService.ingest(request, sellerId));
     }
 
     @GetMapping
     public ResponseEntity<List<SaleResponse>> getAllSales() {
-        List<Sale> sales = saleService.getAllSales();
-        List<SaleResponse> responses = sales.stream()
-                .map(SaleResponse::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(saleService.getAllSales());
     }
 
     @GetMapping("/game/{gameEventId}")
     public ResponseEntity<List<SaleResponse>> getSalesByGameEvent(@PathVariable Long gameEventId) {
-        List<Sale> sales = saleService.getSalesByGameEvent(gameEventId);
-        List<SaleResponse> responses = sales.stream()
-                .map(SaleResponse::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(saleService.getSalesByGameEvent(gameEventId));
     }
 
     @GetMapping("/seller/{sellerId}")
     public ResponseEntity<List<SaleResponse>> getSalesBySeller(@PathVariable Long sellerId) {
-        List<Sale> sales = saleService.getSalesBySeller(sellerId);
-        List<SaleResponse> responses = sales.stream()
-                .map(SaleResponse::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(saleService.getSalesBySeller(sellerId));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponse<SaleResponse>> getSalesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(saleService.getSalesPage(cursor, size));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<SaleResponse> getSaleById(@PathVariable Long id) {
-        Sale sale = saleService.getSaleById(id);
-        return ResponseEntity.ok(new SaleResponse(sale));
+        return ResponseEntity.ok(saleService.getSaleById(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSale(@PathVariable Long id, Authentication authentication) {
+        // Estornar venda mexe em estoque e orçamento: exige SALES:EDIT
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser)
+                || !((AuthenticatedUser) authentication.getPrincipal()).hasPermission(Resource.SALES, Action.EDIT)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sem permissão para excluir vendas");
+        }
+        saleService.deleteSale(id);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/revenue/game/{gameEventId}")
@@ -74,4 +123,24 @@ public class SaleController {
         Long count = saleService.getSalesCountByGameEvent(gameEventId);
         return ResponseEntity.ok(count);
     }
-} 
+
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportToCsv(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = StreamingExports.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> dataExportService.exportSalesCsv(out, startDate, endDate, gzip);
+        return StreamingExports.streamingResponse(body, "text/csv;charset=UTF-8", "vendas_soldiers.csv", gzip);
+    }
+
+    @GetMapping("/export/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportToNdjson(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = StreamingExports.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> dataExportService.exportSalesNdjson(out, startDate, endDate, gzip);
+        return StreamingExports.streamingResponse(body, "application/x-ndjson", "vendas_soldiers.ndjson", gzip);
+    }
+}
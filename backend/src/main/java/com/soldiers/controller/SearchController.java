@@ -0,0 +1,31 @@
+package com.soldiers.controller;
+
+import com.soldiers.dto.response.SearchResultResponse;
+import com.soldiers.service.SearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Ex.: /search/typeahead?q=joao&types=PLAYER,TEAM&limit=10
+     */
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<SearchResultResponse>> typeahead(
+            @RequestParam("q") String term,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.typeahead(term, types, limit));
+    }
+}
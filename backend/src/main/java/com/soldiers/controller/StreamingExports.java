@@ -0,0 +1,68 @@
+package com.soldiers.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+
+/**
+ * Respostas das exportações em streaming (CSV e NDJSON) de vendas e orçamento.
+ */
+final class StreamingExports {
+
+    private StreamingExports() {
+    }
+
+    /**
+     * True quando o Accept-Encoding aceita gzip: "gzip" (ou "x-gzip") com q maior que zero ou,
+     * sem menção explícita, "*" com q maior que zero. "gzip;q=0" recusa mesmo com "*".
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(params) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = accepted;
+            } else if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    // Valor q do Accept-Encoding; ausente vale 1, inválido vale 0
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String[] param = params[i].split("=", 2);
+            if (param.length == 2 && param[0].trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(param[1].trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    static ResponseEntity<StreamingResponseBody> streamingResponse(StreamingResponseBody body, String contentType,
+                                                                   String fileName, boolean gzip) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                // A codificação depende do Accept-Encoding: caches compartilhados precisam separar as variantes
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+}
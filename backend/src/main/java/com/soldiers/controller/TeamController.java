@@ -1,6 +1,7 @@
 package com.soldiers.controller;
 
 import com.soldiers.dto.request.TeamRequest;
+import com.soldiers.dto.response.CursorPageResponse;
 import com.soldiers.dto.response.TeamResponse;
 import com.soldiers.service.TeamService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,13 @@ public class TeamController {
         return ResponseEntity.ok(teams);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponse<TeamResponse>> getTeamsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(teamService.getTeamsPage(cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TeamResponse> getTeamById(@PathVariable Long id) {
         TeamResponse team = teamService.getTeamById(id);
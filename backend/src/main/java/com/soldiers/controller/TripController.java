@@ -1,5 +1,6 @@
 package com.soldiers.controller;
 
+import com.soldiers.dto.response.CursorPageResponse;
 import com.soldiers.entity.Trip.TripStatus;
 import com.soldiers.entity.TripBudget;
 import com.soldiers.service.TripService;
@@ -56,6 +57,13 @@ public class TripController {
         return ResponseEntity.ok(trips);
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponse<TripResponse>> getTripsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(tripService.getTripsPage(cursor, size));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<TripResponse> getTripById(@PathVariable Long id) {
         TripResponse trip = tripService.getTripById(id);
@@ -76,14 +84,14 @@ public class TripController {
             userId = 1L; // Usuário padrão quando não há autenticação
         }
         
-        logger.info("Criando viagem com userId: " + userId);
+        logger.info("Criando viagem com userId: {}", userId);
         TripResponse trip = tripService.createTrip(request, userId);
-        logger.info("Viagem criada com ID: " + trip.getId());
+        logger.info("Viagem criada com ID: {}", trip.getId());
         
         // Se houver gasto inicial, adiciona automaticamente na tabela trip_budgets
         if (request.getInitialCost() != null && request.getInitialCost().compareTo(BigDecimal.ZERO) > 0) {
             try {
-                logger.info("Criando gasto inicial de: " + request.getInitialCost());
+                logger.debug("Criando gasto inicial de: {}", request.getInitialCost());
                 
                 TripBudgetRequest budgetRequest = new TripBudgetRequest();
                 budgetRequest.setDescription("Gasto Inicial da Viagem");
@@ -92,23 +100,15 @@ public class TripController {
                 budgetRequest.setType(TripBudget.BudgetType.EXPENSE);
                 budgetRequest.setNotes("Gasto inicial registrado na criação da viagem");
                 
-                logger.info("TripBudgetRequest criado: " + budgetRequest.getDescription() + 
-                                 " - Valor: " + budgetRequest.getAmount() + 
-                                 " - TripId: " + budgetRequest.getTripId() + 
-                                 " - Tipo: " + budgetRequest.getType());
-                
-                logger.info("Chamando tripBudgetService.createBudget...");
                 TripBudgetResponse budgetResponse = tripBudgetService.createBudget(budgetRequest, userId);
-                logger.info("TripBudget criado com sucesso, ID: " + budgetResponse.getId());
+                logger.debug("TripBudget de gasto inicial criado, ID: {}", budgetResponse.getId());
                 
             } catch (Exception e) {
                 // Log do erro, mas não falha a criação da viagem
-                logger.error("Erro ao criar gasto inicial na tabela trip_budgets: " + e.getMessage());
-                logger.error("Stack trace completo:");
-                e.printStackTrace();
+                logger.error("Erro ao criar gasto inicial na tabela trip_budgets para viagem {}", trip.getId(), e);
             }
         } else {
-            logger.info("Nenhum gasto inicial para criar");
+            logger.debug("Nenhum gasto inicial para criar");
         }
         
         return ResponseEntity.ok(trip);
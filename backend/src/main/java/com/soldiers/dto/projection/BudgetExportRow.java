@@ -0,0 +1,23 @@
+package com.soldiers.dto.projection;
+
+import com.soldiers.entity.Budget.BudgetType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface BudgetExportRow {
+
+    Long getId();
+
+    String getDescription();
+
+    BigDecimal getAmount();
+
+    BudgetType getType();
+
+    LocalDateTime getDate();
+
+    String getUserName();
+
+    String getNotes();
+}
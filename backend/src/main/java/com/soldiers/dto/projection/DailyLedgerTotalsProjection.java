@@ -0,0 +1,13 @@
+package com.soldiers.dto.projection;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+public interface DailyLedgerTotalsProjection {
+
+    Date getDay();
+
+    BigDecimal getIncome();
+
+    BigDecimal getExpense();
+}
@@ -0,0 +1,17 @@
+package com.soldiers.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface GameRevenueProjection {
+
+    Long getGameEventId();
+
+    String getGameName();
+
+    LocalDate getDate();
+
+    BigDecimal getRevenue();
+
+    Long getSaleCount();
+}
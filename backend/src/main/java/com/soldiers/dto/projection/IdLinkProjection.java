@@ -0,0 +1,30 @@
+package com.soldiers.dto.projection;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Par de ids de uma tabela de associação (usuário-perfil, time-jogador, viagem-jogador...).
+ */
+public interface IdLinkProjection {
+
+    Long getParentId();
+
+    Long getChildId();
+
+    static Map<Long, List<Long>> groupByParent(List<IdLinkProjection> links) {
+        return links.stream()
+                .collect(Collectors.groupingBy(IdLinkProjection::getParentId, LinkedHashMap::new,
+                         Collectors.mapping(IdLinkProjection::getChildId, Collectors.toList())));
+    }
+
+    static Set<Long> childIds(List<IdLinkProjection> links) {
+        return links.stream()
+                .map(IdLinkProjection::getChildId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
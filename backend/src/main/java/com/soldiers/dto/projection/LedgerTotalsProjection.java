@@ -0,0 +1,10 @@
+package com.soldiers.dto.projection;
+
+import java.math.BigDecimal;
+
+public interface LedgerTotalsProjection {
+
+    BigDecimal getIncome();
+
+    BigDecimal getExpense();
+}
@@ -0,0 +1,12 @@
+package com.soldiers.dto.projection;
+
+/**
+ * Resultado da busca por nome: id, nome, similaridade (0 a 1) com o termo buscado
+ * e se o nome começa pelo termo.
+ */
+public interface NameMatchProjection {
+    Long getId();
+    String getName();
+    Double getScore();
+    Boolean getPrefix();
+}
@@ -0,0 +1,10 @@
+package com.soldiers.dto.projection;
+
+public interface OutboxBacklogProjection {
+
+    Long getPending();
+
+    Long getFailing();
+
+    Double getLagSeconds();
+}
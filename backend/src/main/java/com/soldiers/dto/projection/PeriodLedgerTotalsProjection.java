@@ -0,0 +1,15 @@
+package com.soldiers.dto.projection;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+public interface PeriodLedgerTotalsProjection {
+
+    Date getPeriodStart();
+
+    BigDecimal getIncome();
+
+    BigDecimal getExpense();
+
+    BigDecimal getTransfer();
+}
@@ -0,0 +1,13 @@
+package com.soldiers.dto.projection;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+public interface PeriodSalesTotalsProjection {
+
+    Date getPeriodStart();
+
+    Long getSaleCount();
+
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,14 @@
+package com.soldiers.dto.projection;
+
+public interface PermissionProjection {
+
+    Long getProfileId();
+
+    Long getId();
+
+    String getResource();
+
+    String getAction();
+
+    Boolean getActive();
+}
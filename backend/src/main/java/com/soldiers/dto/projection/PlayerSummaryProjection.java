@@ -0,0 +1,26 @@
+package com.soldiers.dto.projection;
+
+import com.soldiers.entity.Player;
+
+import java.time.LocalDateTime;
+
+public interface PlayerSummaryProjection {
+
+    Long getId();
+
+    String getName();
+
+    String getPosition();
+
+    String getNumber();
+
+    String getDescription();
+
+    Player.PlayerStatus getStatus();
+
+    LocalDateTime getCriadoEm();
+
+    LocalDateTime getAtualizadoEm();
+
+    Long getTeamCount();
+}
@@ -0,0 +1,14 @@
+package com.soldiers.dto.projection;
+
+import java.time.LocalDate;
+
+public interface ProductGameEventProjection {
+
+    Long getProductId();
+
+    Long getGameEventId();
+
+    String getGameName();
+
+    LocalDate getGameDate();
+}
@@ -0,0 +1,12 @@
+package com.soldiers.dto.projection;
+
+public interface ProfileSummaryProjection {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getActive();
+}
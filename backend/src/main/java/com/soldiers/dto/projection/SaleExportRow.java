@@ -0,0 +1,28 @@
+package com.soldiers.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Uma linha por item de venda, com os dados da venda repetidos.
+ */
+public interface SaleExportRow {
+
+    Long getSaleId();
+
+    LocalDateTime getCriadoEm();
+
+    String getGameName();
+
+    String getSellerName();
+
+    BigDecimal getTotalAmount();
+
+    Long getProductId();
+
+    String getProductName();
+
+    Integer getQuantity();
+
+    BigDecimal getPrice();
+}
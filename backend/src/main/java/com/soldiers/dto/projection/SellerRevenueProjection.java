@@ -0,0 +1,14 @@
+package com.soldiers.dto.projection;
+
+import java.math.BigDecimal;
+
+public interface SellerRevenueProjection {
+
+    Long getSellerId();
+
+    String getSellerName();
+
+    Long getSaleCount();
+
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,22 @@
+package com.soldiers.dto.projection;
+
+import com.soldiers.entity.Team;
+
+import java.time.LocalDateTime;
+
+public interface TeamSummaryProjection {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Team.TeamStatus getStatus();
+
+    LocalDateTime getCriadoEm();
+
+    LocalDateTime getAtualizadoEm();
+
+    Long getPlayerCount();
+}
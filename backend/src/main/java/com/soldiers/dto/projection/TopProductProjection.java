@@ -0,0 +1,14 @@
+package com.soldiers.dto.projection;
+
+import java.math.BigDecimal;
+
+public interface TopProductProjection {
+
+    Long getProductId();
+
+    String getProductName();
+
+    Long getUnitsSold();
+
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,21 @@
+package com.soldiers.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface TripExpenseProjection {
+
+    Long getTripId();
+
+    Long getId();
+
+    String getDescription();
+
+    BigDecimal getAmount();
+
+    LocalDateTime getDate();
+
+    String getUserName();
+
+    String getNotes();
+}
@@ -0,0 +1,27 @@
+package com.soldiers.dto.projection;
+
+import com.soldiers.entity.Trip;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface TripSummaryProjection {
+
+    Long getId();
+
+    String getDestination();
+
+    String getDescription();
+
+    LocalDateTime getDepartureDate();
+
+    LocalDateTime getReturnDate();
+
+    Trip.TripStatus getStatus();
+
+    BigDecimal getInitialCost();
+
+    String getUserName();
+
+    String getNotes();
+}
@@ -0,0 +1,20 @@
+package com.soldiers.dto.projection;
+
+import java.time.LocalDateTime;
+
+public interface UserSummaryProjection {
+
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    Boolean getActive();
+
+    LocalDateTime getCriadoEm();
+
+    LocalDateTime getAtualizadoEm();
+
+    LocalDateTime getDeletadoEm();
+}
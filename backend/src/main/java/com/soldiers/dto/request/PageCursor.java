@@ -0,0 +1,64 @@
+package com.soldiers.dto.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posição de uma paginação por chave (keyset): o par (data, id) do último registro entregue.
+ * Trafega como token opaco em base64 url-safe.
+ */
+public class PageCursor {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 200;
+
+    private final LocalDateTime key;
+    private final Long id;
+
+    public PageCursor(LocalDateTime key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public LocalDateTime getKey() {
+        return key;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        // As chaves de ordenação são NOT NULL (V9): um null aqui geraria um token que decode recusa
+        if (key == null || id == null) {
+            throw new IllegalStateException("Cursor de paginação sem chave de ordenação");
+        }
+        String raw = key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null para token vazio (primeira página)
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                  Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Cursor de paginação inválido", e);
+        }
+    }
+
+    public static int clampSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
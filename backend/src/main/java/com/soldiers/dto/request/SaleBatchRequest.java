@@ -0,0 +1,69 @@
+package com.soldiers.dto.request;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fila de vendas de um caixa enviada de uma vez (POST /sales/batch).
+ * Cada venda é validada individualmente no serviço, para que uma entrada inválida
+ * não derrube o lote inteiro.
+ */
+public class SaleBatchRequest {
+
+    public static final int MAX_SALES = 500;
+
+    @NotNull
+    @Size(min = 1, max = MAX_SALES)
+    private List<SaleEntry> sales;
+
+    // Construtores
+    public SaleBatchRequest() {}
+
+    public SaleBatchRequest(List<SaleEntry> sales) {
+        this.sales = sales;
+    }
+
+    // Getters e Setters
+    public List<SaleEntry> getSales() {
+        return sales;
+    }
+
+    public void setSales(List<SaleEntry> sales) {
+        this.sales = sales;
+    }
+
+    public static class SaleEntry extends SaleRequest {
+
+        // Gerada pelo caixa (ex.: UUID) e reenviada igual em cada tentativa de sincronização
+        @NotBlank
+        @Size(max = 64)
+        private String clientKey;
+
+        // Momento da venda no caixa (horário local, mesmo fuso do servidor); sem ele vale o horário da sincronização
+        private LocalDateTime soldAt;
+
+        // Construtores
+        public SaleEntry() {}
+
+        // Getters e Setters
+        public String getClientKey() {
+            return clientKey;
+        }
+
+        public void setClientKey(String clientKey) {
+            this.clientKey = clientKey;
+        }
+
+        public LocalDateTime getSoldAt() {
+            return soldAt;
+        }
+
+        public void setSoldAt(LocalDateTime soldAt) {
+            this.soldAt = soldAt;
+        }
+    }
+}
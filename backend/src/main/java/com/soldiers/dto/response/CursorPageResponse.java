@@ -0,0 +1,68 @@
+package com.soldiers.dto.response;
+
+import com.soldiers.dto.request.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CursorPageResponse<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public CursorPageResponse() {}
+
+    public CursorPageResponse(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Monta a página a partir de uma consulta que buscou size + 1 linhas:
+     * a linha extra só indica que existe próxima página.
+     */
+    public static <E, T> CursorPageResponse<T> of(List<E> rows, int size, Function<E, T> mapper,
+                                                  Function<E, LocalDateTime> keyExtractor,
+                                                  Function<E, Long> idExtractor) {
+        boolean hasMore = rows.size() > size;
+        List<E> pageRows = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            E last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new PageCursor(keyExtractor.apply(last), idExtractor.apply(last)).encode();
+        }
+
+        List<T> items = pageRows.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPageResponse<>(items, nextCursor, hasMore);
+    }
+
+    // Getters e Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
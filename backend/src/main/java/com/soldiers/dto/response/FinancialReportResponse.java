@@ -0,0 +1,166 @@
+package com.soldiers.dto.response;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Entradas, saídas e vendas agrupadas por dia, semana (segunda a domingo) ou mês.
+ */
+public class FinancialReportResponse {
+
+    public enum Granularity {
+        DAY("day"),
+        WEEK("week"),
+        MONTH("month");
+
+        // Unidade do date_trunc do PostgreSQL
+        private final String unit;
+
+        Granularity(String unit) {
+            this.unit = unit;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        // Mesmo início de período que o date_trunc (semana ISO, começando na segunda)
+        public LocalDate truncate(LocalDate date) {
+            switch (this) {
+                case WEEK:
+                    return date.with(DayOfWeek.MONDAY);
+                case MONTH:
+                    return date.withDayOfMonth(1);
+                default:
+                    return date;
+            }
+        }
+
+        public LocalDate plus(LocalDate periodStart, long periods) {
+            switch (this) {
+                case WEEK:
+                    return periodStart.plusWeeks(periods);
+                case MONTH:
+                    return periodStart.plusMonths(periods);
+                default:
+                    return periodStart.plusDays(periods);
+            }
+        }
+    }
+
+    private final Granularity granularity;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final List<Bucket> buckets;
+    private final BigDecimal totalIncome;
+    private final BigDecimal totalExpense;
+    private final BigDecimal totalNet;
+
+    public FinancialReportResponse(Granularity granularity, List<Bucket> buckets) {
+        this.granularity = granularity;
+        this.buckets = buckets;
+        this.startDate = buckets.get(0).getPeriodStart();
+        this.endDate = buckets.get(buckets.size() - 1).getPeriodEnd();
+        this.totalIncome = buckets.stream().map(Bucket::getIncome).reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.totalExpense = buckets.stream().map(Bucket::getExpense).reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.totalNet = totalIncome.subtract(totalExpense);
+    }
+
+    // Getters
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+
+    public BigDecimal getTotalIncome() {
+        return totalIncome;
+    }
+
+    public BigDecimal getTotalExpense() {
+        return totalExpense;
+    }
+
+    public BigDecimal getTotalNet() {
+        return totalNet;
+    }
+
+    /**
+     * Um período do relatório. Imutável: períodos fechados são reaproveitados do cache.
+     */
+    public static class Bucket {
+
+        private final LocalDate periodStart;
+        private final LocalDate periodEnd;
+        private final BigDecimal income;
+        private final BigDecimal expense;
+        private final BigDecimal transfer;
+        private final BigDecimal net;
+        private final long saleCount;
+        private final BigDecimal salesRevenue;
+        private final boolean closed;
+
+        public Bucket(LocalDate periodStart, LocalDate periodEnd, BigDecimal income, BigDecimal expense,
+                      BigDecimal transfer, long saleCount, BigDecimal salesRevenue, boolean closed) {
+            this.periodStart = periodStart;
+            this.periodEnd = periodEnd;
+            this.income = income;
+            this.expense = expense;
+            this.transfer = transfer;
+            this.net = income.subtract(expense);
+            this.saleCount = saleCount;
+            this.salesRevenue = salesRevenue;
+            this.closed = closed;
+        }
+
+        // Getters
+        public LocalDate getPeriodStart() {
+            return periodStart;
+        }
+
+        // Último dia do período (inclusivo)
+        public LocalDate getPeriodEnd() {
+            return periodEnd;
+        }
+
+        public BigDecimal getIncome() {
+            return income;
+        }
+
+        public BigDecimal getExpense() {
+            return expense;
+        }
+
+        public BigDecimal getTransfer() {
+            return transfer;
+        }
+
+        public BigDecimal getNet() {
+            return net;
+        }
+
+        public long getSaleCount() {
+            return saleCount;
+        }
+
+        public BigDecimal getSalesRevenue() {
+            return salesRevenue;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+}
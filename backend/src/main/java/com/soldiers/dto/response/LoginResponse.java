@@ -2,6 +2,7 @@ package com.soldiers.dto.response;
 
 import com.soldiers.entity.User;
 import com.soldiers.dto.response.UserResponse;
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -9,6 +10,8 @@ public class LoginResponse {
 
     private String status;
     private UserResponse user;
+    private String token;
+    private Instant expiresAt;
 
     // Construtores
     public LoginResponse() {}
@@ -18,6 +21,18 @@ public class LoginResponse {
         this.user = new UserResponse(user);
     }
 
+    public LoginResponse(String status, UserResponse user) {
+        this.status = status;
+        this.user = user;
+    }
+
+    public LoginResponse(String status, UserResponse user, String token, Instant expiresAt) {
+        this.status = status;
+        this.user = user;
+        this.token = token;
+        this.expiresAt = expiresAt;
+    }
+
     // Getters e Setters
     public String getStatus() {
         return status;
@@ -35,5 +50,19 @@ public class LoginResponse {
         this.user = user;
     }
 
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
 
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
 } 
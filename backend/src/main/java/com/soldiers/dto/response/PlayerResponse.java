@@ -1,5 +1,6 @@
 package com.soldiers.dto.response;
 
+import com.soldiers.dto.projection.PlayerSummaryProjection;
 import com.soldiers.entity.Player;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -62,6 +63,20 @@ public class PlayerResponse {
         }
     }
 
+    // Construtor usado pelo read model (PlayerService), com os times já resolvidos
+    public PlayerResponse(PlayerSummaryProjection player, List<TeamResponse> teams) {
+        this.id = player.getId();
+        this.name = player.getName();
+        this.position = player.getPosition();
+        this.number = player.getNumber();
+        this.description = player.getDescription();
+        this.status = player.getStatus().toString();
+        this.criadoEm = player.getCriadoEm();
+        this.atualizadoEm = player.getAtualizadoEm();
+        this.teamCount = player.getTeamCount().intValue();
+        this.teams = teams;
+    }
+
     // Getters e Setters
     public Long getId() {
         return id;
@@ -0,0 +1,73 @@
+package com.soldiers.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.soldiers.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Produto do catálogo. Imutável: a mesma instância é compartilhada pelo snapshot
+ * do ProductCatalogService entre todas as requisições.
+ */
+public final class ProductResponse {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final BigDecimal price;
+    private final Integer stock;
+    private final LocalDateTime criadoEm;
+    private final LocalDateTime atualizadoEm;
+
+    // Construtores
+    public ProductResponse(Product product) {
+        this.id = product.getId();
+        this.name = product.getName();
+        this.description = product.getDescription();
+        this.price = product.getPrice();
+        this.stock = product.getStock();
+        this.criadoEm = product.getCriadoEm();
+        this.atualizadoEm = product.getAtualizadoEm();
+    }
+
+    @JsonIgnore
+    public boolean isAvailable() {
+        return stock != null && stock > 0;
+    }
+
+    // Entra no ETag do catálogo: qualquer mudança visível ao cliente muda o hash
+    public int contentHash() {
+        return Objects.hash(id, name, description, price, stock, atualizadoEm);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+}
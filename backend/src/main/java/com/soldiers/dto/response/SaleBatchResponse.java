@@ -0,0 +1,122 @@
+package com.soldiers.dto.response;
+
+import java.util.List;
+
+public class SaleBatchResponse {
+
+    public enum Status {
+        CREATED,    // venda gravada neste envio
+        DUPLICATE,  // chave já sincronizada antes (ou repetida no mesmo lote); nada foi gravado de novo
+        REJECTED    // entrada inválida ou sem estoque; o caixa deve corrigir ou descartar
+    }
+
+    private int created;
+    private int duplicates;
+    private int rejected;
+    private List<Result> results;
+
+    // Construtores
+    public SaleBatchResponse() {}
+
+    public SaleBatchResponse(List<Result> results) {
+        this.results = results;
+        for (Result result : results) {
+            switch (result.getStatus()) {
+                case CREATED:
+                    created++;
+                    break;
+                case DUPLICATE:
+                    duplicates++;
+                    break;
+                default:
+                    rejected++;
+            }
+        }
+    }
+
+    // Getters e Setters
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+
+    /**
+     * Resultado de uma entrada do lote, na mesma posição em que foi enviada.
+     */
+    public static class Result {
+        private String clientKey;
+        private Status status;
+        private Long saleId;
+        private String message;
+
+        // Construtores
+        public Result() {}
+
+        public Result(String clientKey, Status status, Long saleId, String message) {
+            this.clientKey = clientKey;
+            this.status = status;
+            this.saleId = saleId;
+            this.message = message;
+        }
+
+        // Getters e Setters
+        public String getClientKey() {
+            return clientKey;
+        }
+
+        public void setClientKey(String clientKey) {
+            this.clientKey = clientKey;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+
+        public Long getSaleId() {
+            return saleId;
+        }
+
+        public void setSaleId(Long saleId) {
+            this.saleId = saleId;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
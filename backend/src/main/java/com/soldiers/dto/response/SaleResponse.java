@@ -26,8 +26,13 @@ public class SaleResponse {
     public SaleResponse() {}
 
     public SaleResponse(Sale sale) {
+        this(sale, new UserResponse(sale.getSeller()));
+    }
+
+    // Vendedor já montado pelo read model de usuários, sem percorrer perfis e permissões da entidade
+    public SaleResponse(Sale sale, UserResponse seller) {
         this.id = sale.getId();
-        this.seller = new UserResponse(sale.getSeller());
+        this.seller = seller;
         this.gameEvent = new GameEventResponse(sale.getGameEvent());
         this.totalAmount = sale.getTotalAmount();
         this.criadoEm = sale.getCriadoEm();
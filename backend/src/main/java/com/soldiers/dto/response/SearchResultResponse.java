@@ -0,0 +1,64 @@
+package com.soldiers.dto.response;
+
+import com.soldiers.dto.projection.NameMatchProjection;
+
+public class SearchResultResponse {
+
+    private String type;
+    private Long id;
+    private String name;
+    private double score;
+    private boolean prefix;
+
+    // Construtores
+    public SearchResultResponse() {}
+
+    public SearchResultResponse(String type, NameMatchProjection match) {
+        this.type = type;
+        this.id = match.getId();
+        this.name = match.getName();
+        this.score = match.getScore() != null ? match.getScore() : 0.0;
+        this.prefix = Boolean.TRUE.equals(match.getPrefix());
+    }
+
+    // Getters e Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public boolean isPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(boolean prefix) {
+        this.prefix = prefix;
+    }
+}
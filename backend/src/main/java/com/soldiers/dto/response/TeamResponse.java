@@ -1,5 +1,6 @@
 package com.soldiers.dto.response;
 
+import com.soldiers.dto.projection.TeamSummaryProjection;
 import com.soldiers.entity.Team;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -56,6 +57,18 @@ public class TeamResponse {
         }
     }
 
+    // Construtor usado pelo read model (TeamService), com os jogadores já resolvidos
+    public TeamResponse(TeamSummaryProjection team, List<PlayerResponse> players) {
+        this.id = team.getId();
+        this.name = team.getName();
+        this.description = team.getDescription();
+        this.status = team.getStatus().toString();
+        this.criadoEm = team.getCriadoEm();
+        this.atualizadoEm = team.getAtualizadoEm();
+        this.playerCount = team.getPlayerCount().intValue();
+        this.players = players;
+    }
+
     // Getters e Setters
     public Long getId() {
         return id;
@@ -1,5 +1,6 @@
 package com.soldiers.dto.response;
 
+import com.soldiers.dto.projection.TripExpenseProjection;
 import com.soldiers.entity.TripExpense;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -24,6 +25,15 @@ public class TripExpenseResponse {
         this.notes = expense.getNotes();
     }
     
+    public TripExpenseResponse(TripExpenseProjection expense) {
+        this.id = expense.getId();
+        this.description = expense.getDescription();
+        this.amount = expense.getAmount();
+        this.date = expense.getDate();
+        this.userName = expense.getUserName();
+        this.notes = expense.getNotes();
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
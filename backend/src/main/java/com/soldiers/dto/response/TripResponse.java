@@ -1,5 +1,6 @@
 package com.soldiers.dto.response;
 
+import com.soldiers.dto.projection.TripSummaryProjection;
 import com.soldiers.entity.Trip;
 import com.soldiers.entity.Trip.TripStatus;
 import java.math.BigDecimal;
@@ -64,6 +65,29 @@ public class TripResponse {
         }
     }
     
+    // Construtor usado pelo read model (TripService): gastos, jogadores e times já resolvidos
+    public TripResponse(TripSummaryProjection trip, List<TripExpenseResponse> expenses,
+                        List<PlayerResponse> players, List<TeamResponse> teams) {
+        this.id = trip.getId();
+        this.destination = trip.getDestination();
+        this.description = trip.getDescription();
+        this.departureDate = trip.getDepartureDate();
+        this.returnDate = trip.getReturnDate();
+        this.status = trip.getStatus();
+        this.initialCost = trip.getInitialCost();
+        this.userName = trip.getUserName();
+        this.notes = trip.getNotes();
+        this.expenses = expenses;
+        this.players = players;
+        this.teams = teams;
+        this.totalParticipants = players.size() + teams.stream()
+                .mapToInt(TeamResponse::getPlayerCount)
+                .sum();
+        this.totalCost = expenses.stream()
+                .map(TripExpenseResponse::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
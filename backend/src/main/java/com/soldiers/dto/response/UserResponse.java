@@ -1,6 +1,9 @@
 package com.soldiers.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.soldiers.dto.projection.PermissionProjection;
+import com.soldiers.dto.projection.ProfileSummaryProjection;
+import com.soldiers.dto.projection.UserSummaryProjection;
 import com.soldiers.entity.User;
 import com.soldiers.entity.Profile;
 import com.soldiers.entity.ProfilePermission;
@@ -35,17 +38,11 @@ public class UserResponse {
         this.atualizadoEm = user.getAtualizadoEm();
         this.deletadoEm = user.getDeletadoEm();
         
-        // Carregar perfis se disponíveis
-        System.out.println("UserResponse - User ID: " + user.getId());
-        System.out.println("UserResponse - User profiles: " + user.getProfiles());
-        
         // Para compatibilidade, manter o primeiro perfil como profile
         if (!user.getProfiles().isEmpty()) {
             Profile firstProfile = user.getProfiles().iterator().next();
-            System.out.println("UserResponse - Criando ProfileSummaryResponse para: " + firstProfile.getName());
             this.profile = new ProfileSummaryResponse(firstProfile);
         } else {
-            System.out.println("UserResponse - Profiles é vazio");
             this.profile = null;
         }
         
@@ -68,6 +65,37 @@ public class UserResponse {
         }
     }
 
+    // Monta a resposta a partir do read model (UserService), sem tocar em coleções lazy
+    public UserResponse(UserSummaryProjection user, List<ProfileSummaryResponse> profiles, long permissionMask) {
+        this.id = user.getId();
+        this.name = user.getName();
+        this.email = user.getEmail();
+        this.active = Boolean.TRUE.equals(user.getActive());
+        this.criadoEm = user.getCriadoEm();
+        this.atualizadoEm = user.getAtualizadoEm();
+        this.deletadoEm = user.getDeletadoEm();
+        setProfileSummaries(profiles, permissionMask);
+    }
+
+    // Perfis da entidade com permissões vindas do cache, sem carregar profile.permissions
+    public UserResponse(User user, List<ProfileSummaryResponse> profiles, long permissionMask) {
+        this.id = user.getId();
+        this.name = user.getName();
+        this.email = user.getEmail();
+        this.active = user.isActive();
+        this.criadoEm = user.getCriadoEm();
+        this.atualizadoEm = user.getAtualizadoEm();
+        this.deletadoEm = user.getDeletadoEm();
+        setProfileSummaries(profiles, permissionMask);
+    }
+
+    // permissions vem da máscara efetiva (união dos perfis), sem percorrer as listas de cada perfil
+    private void setProfileSummaries(List<ProfileSummaryResponse> profiles, long permissionMask) {
+        this.profile = profiles.isEmpty() ? null : profiles.get(0);
+        this.profiles = new HashSet<>(profiles);
+        this.permissions = ProfilePermission.toPermissionNames(permissionMask);
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -119,6 +147,22 @@ public class UserResponse {
             }
         }
 
+        public ProfileSummaryResponse(Profile profile, List<PermissionResponse> permissions) {
+            this.id = profile.getId();
+            this.name = profile.getName();
+            this.description = profile.getDescription();
+            this.active = profile.isActive();
+            this.permissions = permissions;
+        }
+
+        public ProfileSummaryResponse(ProfileSummaryProjection profile, List<PermissionResponse> permissions) {
+            this.id = profile.getId();
+            this.name = profile.getName();
+            this.description = profile.getDescription();
+            this.active = Boolean.TRUE.equals(profile.getActive());
+            this.permissions = permissions;
+        }
+
         // Getters and Setters
         public Long getId() { return id; }
         public void setId(Long id) { this.id = id; }
@@ -148,6 +192,13 @@ public class UserResponse {
             this.active = permission.isActive();
         }
 
+        public PermissionResponse(PermissionProjection permission) {
+            this.id = permission.getId();
+            this.resource = permission.getResource();
+            this.action = permission.getAction();
+            this.active = Boolean.TRUE.equals(permission.getActive());
+        }
+
         // Getters and Setters
         public Long getId() { return id; }
         public void setId(Long id) { this.id = id; }
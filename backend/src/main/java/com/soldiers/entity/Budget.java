@@ -5,7 +5,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "budgets")
+@Table(name = "budgets", indexes = {
+    @Index(name = "idx_budget_source", columnList = "source_type, source_id"),
+    @Index(name = "idx_budget_trip", columnList = "trip_id")
+})
 public class Budget {
     
     @Id
@@ -32,12 +35,29 @@ public class Budget {
     @Column(columnDefinition = "TEXT")
     private String notes;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_type", length = 30)
+    private SourceType sourceType;
+    
+    @Column(name = "source_id")
+    private Long sourceId;
+    
+    // Viagem à qual a entrada pertence (sem FK: a viagem é excluída depois das entradas)
+    @Column(name = "trip_id")
+    private Long tripId;
+    
     public enum BudgetType {
         INCOME,     // Entrada de dinheiro (vendas, doações, etc.)
         EXPENSE,    // Gastos (viagens, compras, etc.)
         TRANSFER    // Transferências internas
     }
     
+    public enum SourceType {
+        SALE,           // Gerado por uma venda (tb_sale)
+        TRIP_BUDGET,    // Gerado por uma movimentação de viagem (trip_budgets)
+        TRIP_EXPENSE    // Gerado por um gasto de viagem (trip_expenses)
+    }
+    
     // Constructors
     public Budget() {}
     
@@ -105,4 +125,33 @@ public class Budget {
     public void setNotes(String notes) {
         this.notes = notes;
     }
+    
+    public SourceType getSourceType() {
+        return sourceType;
+    }
+    
+    public void setSourceType(SourceType sourceType) {
+        this.sourceType = sourceType;
+    }
+    
+    public Long getSourceId() {
+        return sourceId;
+    }
+    
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+    
+    public Long getTripId() {
+        return tripId;
+    }
+    
+    public void setTripId(Long tripId) {
+        this.tripId = tripId;
+    }
+    
+    public void setSource(SourceType sourceType, Long sourceId) {
+        this.sourceType = sourceType;
+        this.sourceId = sourceId;
+    }
 }
@@ -0,0 +1,95 @@
+package com.soldiers.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Totais acumulados do orçamento até o fim de um dia.
+ * Mantido pelo BudgetSnapshotService; um trigger em budgets apaga os dias afetados
+ * por movimentações retroativas.
+ */
+@Entity
+@Table(name = "tb_budget_balance_snapshot")
+public class BudgetBalanceSnapshot implements Persistable<LocalDate> {
+
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "cumulative_income", nullable = false, precision = 14, scale = 2)
+    private BigDecimal cumulativeIncome;
+
+    @Column(name = "cumulative_expense", nullable = false, precision = 14, scale = 2)
+    private BigDecimal cumulativeExpense;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+
+    // Dias só são inseridos depois que o trigger apagou os antigos: saveAll não precisa de SELECT por linha
+    @Transient
+    private boolean isNew = true;
+
+    // Construtores
+    public BudgetBalanceSnapshot() {}
+
+    public BudgetBalanceSnapshot(LocalDate day, BigDecimal cumulativeIncome, BigDecimal cumulativeExpense) {
+        this.day = day;
+        this.cumulativeIncome = cumulativeIncome;
+        this.cumulativeExpense = cumulativeExpense;
+        this.atualizadoEm = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public LocalDate getId() {
+        return day;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters e Setters
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public BigDecimal getCumulativeIncome() {
+        return cumulativeIncome;
+    }
+
+    public void setCumulativeIncome(BigDecimal cumulativeIncome) {
+        this.cumulativeIncome = cumulativeIncome;
+    }
+
+    public BigDecimal getCumulativeExpense() {
+        return cumulativeExpense;
+    }
+
+    public void setCumulativeExpense(BigDecimal cumulativeExpense) {
+        this.cumulativeExpense = cumulativeExpense;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+}
@@ -37,7 +37,7 @@ public class Player {
     @Column(nullable = false)
     private PlayerStatus status = PlayerStatus.ACTIVE;
 
-    @Column(name = "criado_em")
+    @Column(name = "criado_em", nullable = false)
     @CreatedDate
     private LocalDateTime criadoEm;
 
@@ -3,6 +3,9 @@ package com.soldiers.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import javax.persistence.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Entity
 @Table(name = "tb_profile_permission")
 public class ProfilePermission {
@@ -34,6 +37,10 @@ public class ProfilePermission {
         this.action = action;
     }
 
+    public ProfilePermission(Profile profile, Resource resource, Action action) {
+        this(profile, resource.name(), action.name());
+    }
+
     // Getters e Setters
     public Long getId() {
         return id;
@@ -84,6 +91,73 @@ public class ProfilePermission {
         return "EDIT".equals(action);
     }
 
+    /**
+     * Bit do par (recurso, ação) na máscara de permissões de um perfil.
+     * A posição depende do ordinal dos enums: novos valores só podem ser acrescentados no final.
+     */
+    public static long mask(Resource resource, Action action) {
+        return 1L << (resource.ordinal() * Action.values().length + action.ordinal());
+    }
+
+    // Pares fora do modelo tipado (linhas antigas com texto livre) não concedem nada
+    public static long mask(String resource, String action) {
+        Resource typedResource = Resource.fromName(resource);
+        Action typedAction = Action.fromName(action);
+        return typedResource != null && typedAction != null ? mask(typedResource, typedAction) : 0L;
+    }
+
+    /**
+     * Máscara no formato "RECURSO:AÇÃO" usado pelo frontend.
+     */
+    public static List<String> toPermissionNames(long mask) {
+        List<String> names = new ArrayList<>();
+        for (Resource resource : Resource.values()) {
+            for (Action action : Action.values()) {
+                if ((mask & mask(resource, action)) != 0) {
+                    names.add(resource.name() + ":" + action.name());
+                }
+            }
+        }
+        return names;
+    }
+
+    // Ordem significativa para a máscara: acrescentar sempre no final
+    public enum Resource {
+        DASHBOARD,
+        USERS,
+        PRODUCTS,
+        SALES,
+        TRIPS,
+        NEWS,
+        BUDGET,
+        GAMES,
+        TEAM;
+
+        public static Resource fromName(String name) {
+            for (Resource resource : values()) {
+                if (resource.name().equals(name)) {
+                    return resource;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Ordem significativa para a máscara: acrescentar sempre no final
+    public enum Action {
+        VIEW,
+        EDIT;
+
+        public static Action fromName(String name) {
+            for (Action action : values()) {
+                if (action.name().equals(name)) {
+                    return action;
+                }
+            }
+            return null;
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
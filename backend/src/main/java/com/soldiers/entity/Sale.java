@@ -15,9 +15,27 @@ import java.util.List;
 
 @Entity
 @Table(name = "tb_sale")
+@NamedEntityGraph(name = Sale.GRAPH_DETAILS,
+    attributeNodes = {
+        @NamedAttributeNode("seller"),
+        @NamedAttributeNode("gameEvent"),
+        @NamedAttributeNode(value = "items", subgraph = "items")
+    },
+    subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
+@NamedEntityGraph(name = Sale.GRAPH_SUMMARY,
+    attributeNodes = {
+        @NamedAttributeNode("seller"),
+        @NamedAttributeNode("gameEvent")
+    })
 @EntityListeners(AuditingEntityListener.class)
 public class Sale {
 
+    // Plano de carga usado pelas listagens que viram SaleResponse (vendedor, jogo, itens e produtos)
+    public static final String GRAPH_DETAILS = "Sale.details";
+
+    // Sem coleções, para consultas paginadas: os itens vêm pelo batch fetch
+    public static final String GRAPH_SUMMARY = "Sale.summary";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -41,7 +59,7 @@ public class Sale {
     @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalAmount = BigDecimal.ZERO;
 
-    @Column(name = "criado_em")
+    @Column(name = "criado_em", nullable = false)
     @CreatedDate
     private LocalDateTime criadoEm;
 
@@ -52,6 +70,10 @@ public class Sale {
     @Column(name = "deletado_em")
     private LocalDateTime deletadoEm;
 
+    // Chave gerada pelo caixa nas vendas sincronizadas em lote (única quando presente)
+    @Column(name = "client_key", length = 64)
+    private String clientKey;
+
     // Construtores
     public Sale() {}
 
@@ -125,6 +147,14 @@ public class Sale {
         this.deletadoEm = deletadoEm;
     }
 
+    public String getClientKey() {
+        return clientKey;
+    }
+
+    public void setClientKey(String clientKey) {
+        this.clientKey = clientKey;
+    }
+
     // Métodos de negócio
     public void addItem(SaleItem item) {
         items.add(item);
@@ -0,0 +1,89 @@
+package com.soldiers.entity;
+
+import javax.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais de vendas consolidados por jogo, vendedor e dia.
+ * Mantido pelo SaleService na mesma transação da venda, para que o dashboard
+ * não precise varrer tb_sale.
+ */
+@Entity
+@Table(name = "tb_sale_aggregate",
+       uniqueConstraints = @UniqueConstraint(name = "uk_sale_aggregate_key",
+                                             columnNames = {"game_event_id", "seller_id", "sale_date"}))
+public class SaleAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "game_event_id", nullable = false)
+    private Long gameEventId;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(name = "sale_count", nullable = false)
+    private Long saleCount = 0L;
+
+    @Column(name = "total_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    // Construtores
+    public SaleAggregate() {}
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGameEventId() {
+        return gameEventId;
+    }
+
+    public void setGameEventId(Long gameEventId) {
+        this.gameEventId = gameEventId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public void setSaleDate(LocalDate saleDate) {
+        this.saleDate = saleDate;
+    }
+
+    public Long getSaleCount() {
+        return saleCount;
+    }
+
+    public void setSaleCount(Long saleCount) {
+        this.saleCount = saleCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
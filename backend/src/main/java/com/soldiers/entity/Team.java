@@ -38,7 +38,7 @@ public class Team {
     )
     private List<Player> players = new ArrayList<>();
 
-    @Column(name = "criado_em")
+    @Column(name = "criado_em", nullable = false)
     @CreatedDate
     private LocalDateTime criadoEm;
 
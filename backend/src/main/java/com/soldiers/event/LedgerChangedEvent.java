@@ -0,0 +1,21 @@
+package com.soldiers.event;
+
+import java.time.LocalDate;
+
+/**
+ * Publicado quando movimentações já lançadas (budgets ou totais de vendas) mudam
+ * em um dia que pode estar em um período fechado dos relatórios.
+ * fromDay null significa que o dia afetado não é conhecido: vale para todos os períodos.
+ */
+public class LedgerChangedEvent {
+
+    private final LocalDate fromDay;
+
+    public LedgerChangedEvent(LocalDate fromDay) {
+        this.fromDay = fromDay;
+    }
+
+    public LocalDate getFromDay() {
+        return fromDay;
+    }
+}
@@ -0,0 +1,26 @@
+package com.soldiers.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+/**
+ * Publicado quando produtos são criados, alterados, excluídos ou têm o estoque alterado.
+ * Os ouvintes usam @TransactionalEventListener para reagir apenas após o commit.
+ */
+public class ProductChangedEvent {
+
+    private final Collection<Long> productIds;
+
+    public ProductChangedEvent(Long productId) {
+        this(Collections.singleton(productId));
+    }
+
+    public ProductChangedEvent(Collection<Long> productIds) {
+        this.productIds = Collections.unmodifiableSet(new LinkedHashSet<>(productIds));
+    }
+
+    public Collection<Long> getProductIds() {
+        return productIds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.soldiers.event;
+
+/**
+ * Publicado quando um perfil ou suas permissões mudam (criação, edição, exclusão, desativação).
+ * O cache de permissões só é invalidado após o commit, via @TransactionalEventListener.
+ */
+public class ProfileChangedEvent {
+
+    private final Long profileId;
+
+    public ProfileChangedEvent(Long profileId) {
+        this.profileId = profileId;
+    }
+
+    public Long getProfileId() {
+        return profileId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.soldiers.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+/**
+ * Publicado quando vendas são criadas ou excluídas; um lote sincronizado gera um único evento.
+ * Os ouvintes usam @TransactionalEventListener para reagir apenas após o commit.
+ */
+public class SaleChangedEvent {
+
+    private final Collection<Long> saleIds;
+
+    public SaleChangedEvent(Long saleId) {
+        this(Collections.singleton(saleId));
+    }
+
+    public SaleChangedEvent(Collection<Long> saleIds) {
+        this.saleIds = Collections.unmodifiableSet(new LinkedHashSet<>(saleIds));
+    }
+
+    public Collection<Long> getSaleIds() {
+        return saleIds;
+    }
+}
@@ -0,0 +1,59 @@
+package com.soldiers.repository;
+
+import com.soldiers.dto.projection.DailyLedgerTotalsProjection;
+import com.soldiers.dto.projection.LedgerTotalsProjection;
+import com.soldiers.entity.BudgetBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetBalanceSnapshotRepository extends JpaRepository<BudgetBalanceSnapshot, LocalDate> {
+
+    // Snapshot mais recente somado às movimentações com data a partir do dia seguinte a ele
+    String TOTALS_SELECT =
+            "SELECT COALESCE((SELECT cumulative_income FROM s), 0) + " +
+            "COALESCE(SUM(b.amount) FILTER (WHERE b.type = 'INCOME'), 0) AS \"income\", " +
+            "COALESCE((SELECT cumulative_expense FROM s), 0) + " +
+            "COALESCE(SUM(b.amount) FILTER (WHERE b.type = 'EXPENSE'), 0) AS \"expense\" " +
+            "FROM budgets b " +
+            "WHERE b.date >= COALESCE((SELECT CAST(day + 1 AS timestamp) FROM s), CAST('-infinity' AS timestamp)) ";
+
+    String SNAPSHOT_BEFORE =
+            "WITH s AS (SELECT day, cumulative_income, cumulative_expense FROM tb_budget_balance_snapshot " +
+            "WHERE day < CAST(:until AS date) ORDER BY day DESC LIMIT 1) ";
+
+    @Query(value = "WITH s AS (SELECT day, cumulative_income, cumulative_expense FROM tb_budget_balance_snapshot " +
+                   "ORDER BY day DESC LIMIT 1) " + TOTALS_SELECT,
+           nativeQuery = true)
+    LedgerTotalsProjection getCurrentTotals();
+
+    // Totais de todas as movimentações com data <= until
+    @Query(value = SNAPSHOT_BEFORE + TOTALS_SELECT + "AND b.date <= :until", nativeQuery = true)
+    LedgerTotalsProjection getTotalsThrough(@Param("until") LocalDateTime until);
+
+    // Totais de todas as movimentações com data < until
+    @Query(value = SNAPSHOT_BEFORE + TOTALS_SELECT + "AND b.date < :until", nativeQuery = true)
+    LedgerTotalsProjection getTotalsBefore(@Param("until") LocalDateTime until);
+
+    @Query(value = "SELECT CAST(b.date AS date) AS \"day\", " +
+                   "COALESCE(SUM(b.amount) FILTER (WHERE b.type = 'INCOME'), 0) AS \"income\", " +
+                   "COALESCE(SUM(b.amount) FILTER (WHERE b.type = 'EXPENSE'), 0) AS \"expense\" " +
+                   "FROM budgets b WHERE b.date >= :from AND b.date < :until " +
+                   "GROUP BY CAST(b.date AS date) ORDER BY 1",
+           nativeQuery = true)
+    List<DailyLedgerTotalsProjection> findDailyTotals(@Param("from") LocalDateTime from,
+                                                      @Param("until") LocalDateTime until);
+
+    Optional<BudgetBalanceSnapshot> findTopByOrderByDayDesc();
+
+    // Exclusivo contra o lock compartilhado do trigger f_budget_invalidate_snapshots (V7)
+    @Query(value = "SELECT pg_try_advisory_xact_lock(7240001)", nativeQuery = true)
+    boolean tryLockRebuild();
+}
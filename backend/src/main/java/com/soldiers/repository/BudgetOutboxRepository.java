@@ -0,0 +1,82 @@
+package com.soldiers.repository;
+
+import com.soldiers.dto.projection.OutboxBacklogProjection;
+import com.soldiers.entity.BudgetOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BudgetOutboxRepository extends JpaRepository<BudgetOutboxEntry, Long>, BudgetOutboxRepositoryCustom {
+
+    // SKIP LOCKED: mais de uma instância pode drenar a fila sem pegar as mesmas linhas
+    @Query(value = "SELECT id FROM tb_budget_outbox WHERE next_attempt_at <= :now " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM tb_budget_outbox WHERE next_attempt_at <= :now ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM tb_budget_outbox WHERE id IN (:ids) FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lança as entradas em budgets com um único INSERT ... SELECT. Origens que já têm
+     * entrada em budgets (idx_budget_source) são ignoradas, então reprocessar não duplica.
+     */
+    // Dia mais antigo entre as entradas lançadas: a partir dele os períodos fechados dos relatórios mudam
+    @Query(value = "SELECT MIN(date) FROM tb_budget_outbox WHERE id IN (:ids)", nativeQuery = true)
+    LocalDateTime findEarliestDate(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO budgets (description, amount, type, date, user_id, notes, source_type, source_id, trip_id) " +
+                   "SELECT LEFT(o.description, 255), o.amount, o.type, o.date, o.user_id, o.notes, " +
+                   "o.source_type, o.source_id, o.trip_id " +
+                   "FROM tb_budget_outbox o WHERE o.id IN (:ids) " +
+                   "AND NOT EXISTS (SELECT 1 FROM budgets b WHERE b.source_type = o.source_type AND b.source_id = o.source_id) " +
+                   "ORDER BY o.id",
+           nativeQuery = true)
+    int postToLedger(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM tb_budget_outbox WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Espera exponencial por tentativa, limitada a maxDelayMs
+    @Modifying
+    @Query(value = "UPDATE tb_budget_outbox SET attempts = attempts + 1, last_error = LEFT(:error, 500), " +
+                   "next_attempt_at = CAST(:now AS timestamp) + " +
+                   "LEAST(:baseDelayMs * POWER(2, attempts), :maxDelayMs) * INTERVAL '1 millisecond' " +
+                   "WHERE id IN (:ids)",
+           nativeQuery = true)
+    int markFailed(@Param("ids") Collection<Long> ids,
+                   @Param("error") String error,
+                   @Param("now") LocalDateTime now,
+                   @Param("baseDelayMs") long baseDelayMs,
+                   @Param("maxDelayMs") long maxDelayMs);
+
+    @Modifying
+    @Query(value = "DELETE FROM tb_budget_outbox WHERE source_type = :sourceType AND source_id = :sourceId",
+           nativeQuery = true)
+    int deleteBySource(@Param("sourceType") String sourceType, @Param("sourceId") Long sourceId);
+
+    @Modifying
+    @Query(value = "DELETE FROM tb_budget_outbox WHERE trip_id = :tripId", nativeQuery = true)
+    int deleteByTripId(@Param("tripId") Long tripId);
+
+    // Atraso = idade da entrada pendente mais antiga, medido com o relógio da aplicação (criado_em)
+    @Query(value = "SELECT COUNT(*) AS \"pending\", " +
+                   "COUNT(*) FILTER (WHERE attempts > 0) AS \"failing\", " +
+                   "COALESCE(EXTRACT(EPOCH FROM (CAST(:now AS timestamp) - MIN(criado_em))), 0) AS \"lagSeconds\" " +
+                   "FROM tb_budget_outbox",
+           nativeQuery = true)
+    OutboxBacklogProjection getBacklog(@Param("now") LocalDateTime now);
+}
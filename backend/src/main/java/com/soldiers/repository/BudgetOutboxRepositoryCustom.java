@@ -0,0 +1,15 @@
+package com.soldiers.repository;
+
+import com.soldiers.entity.Budget;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BudgetOutboxRepositoryCustom {
+
+    /**
+     * Enfileira as movimentações em um único lote JDBC. Uma origem (source_type/source_id)
+     * já pendente tem os dados substituídos e volta a ser tentada imediatamente.
+     */
+    void enqueueAll(List<Budget> budgets, LocalDateTime now);
+}
@@ -0,0 +1,51 @@
+package com.soldiers.repository;
+
+import com.soldiers.entity.Budget;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BudgetOutboxRepositoryImpl implements BudgetOutboxRepositoryCustom {
+
+    private static final String ENQUEUE_SQL =
+            "INSERT INTO tb_budget_outbox (source_type, source_id, type, amount, description, notes, user_id, trip_id, " +
+            "date, attempts, next_attempt_at, criado_em) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?) " +
+            "ON CONFLICT (source_type, source_id) DO UPDATE SET " +
+            "type = EXCLUDED.type, amount = EXCLUDED.amount, description = EXCLUDED.description, notes = EXCLUDED.notes, " +
+            "user_id = EXCLUDED.user_id, trip_id = EXCLUDED.trip_id, date = EXCLUDED.date, attempts = 0, " +
+            "next_attempt_at = EXCLUDED.next_attempt_at, last_error = NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BudgetOutboxRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void enqueueAll(List<Budget> budgets, LocalDateTime now) {
+        if (budgets.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> args = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            args.add(new Object[]{
+                    budget.getSourceType().name(),
+                    budget.getSourceId(),
+                    budget.getType().name(),
+                    budget.getAmount(),
+                    budget.getDescription(),
+                    budget.getNotes(),
+                    budget.getUser() != null ? budget.getUser().getId() : null,
+                    budget.getTripId(),
+                    Timestamp.valueOf(budget.getDate()),
+                    timestamp,
+                    timestamp
+            });
+        }
+        jdbcTemplate.batchUpdate(ENQUEUE_SQL, args);
+    }
+}
@@ -1,38 +1,91 @@
 package com.soldiers.repository;
 
+import com.soldiers.dto.projection.BudgetExportRow;
+import com.soldiers.dto.projection.PeriodLedgerTotalsProjection;
 import com.soldiers.entity.Budget;
 import com.soldiers.entity.Budget.BudgetType;
+import com.soldiers.entity.Budget.SourceType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
     
     List<Budget> findByTypeOrderByDateDesc(BudgetType type);
     
-    List<Budget> findByDateBetweenOrderByDateDesc(LocalDateTime startDate, LocalDateTime endDate);
+    // Leitura só para frente com cursor no servidor; exige transação aberta e o Stream deve ser fechado
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Budget b LEFT JOIN FETCH b.user ORDER BY b.id")
+    Stream<Budget> streamAll();
     
-    @Query("SELECT SUM(b.amount) FROM Budget b WHERE b.type = :type")
-    BigDecimal sumByType(@Param("type") BudgetType type);
+    // CAST nos filtros opcionais: o driver envia datas sem tipo e o PostgreSQL não infere o de "? IS NULL"
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b.id AS id, b.description AS description, b.amount AS amount, b.type AS type, " +
+           "b.date AS date, u.name AS userName, b.notes AS notes " +
+           "FROM Budget b LEFT JOIN b.user u " +
+           "WHERE (CAST(:startDate AS timestamp) IS NULL OR b.date >= :startDate) " +
+           "AND (CAST(:endDate AS timestamp) IS NULL OR b.date < :endDate) " +
+           "ORDER BY b.date, b.id")
+    Stream<BudgetExportRow> streamForExport(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+    
+    List<Budget> findByDateBetweenOrderByDateDesc(LocalDateTime startDate, LocalDateTime endDate);
     
     @Query("SELECT SUM(b.amount) FROM Budget b WHERE b.type = :type AND b.date BETWEEN :startDate AND :endDate")
     BigDecimal sumByTypeAndDateBetween(@Param("type") BudgetType type, 
                                       @Param("startDate") LocalDateTime startDate, 
                                       @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT SUM(CASE WHEN b.type = 'INCOME' THEN b.amount ELSE 0 END) - " +
-           "SUM(CASE WHEN b.type = 'EXPENSE' THEN b.amount ELSE 0 END) FROM Budget b")
-    BigDecimal getCurrentBalance();
+    @Query("SELECT MIN(b.date) FROM Budget b")
+    LocalDateTime findEarliestDate();
+    
+    // Totais por período (day, week, month); lido só do índice idx_budget_date_totals
+    @Query(value = "SELECT CAST(date_trunc(CAST(:unit AS text), b.date) AS date) AS \"periodStart\", " +
+                   "COALESCE(SUM(b.amount) FILTER (WHERE b.type = 'INCOME'), 0) AS \"income\", " +
+                   "COALESCE(SUM(b.amount) FILTER (WHERE b.type = 'EXPENSE'), 0) AS \"expense\", " +
+                   "COALESCE(SUM(b.amount) FILTER (WHERE b.type = 'TRANSFER'), 0) AS \"transfer\" " +
+                   "FROM budgets b WHERE b.date >= :from AND b.date < :until " +
+                   "GROUP BY 1 ORDER BY 1",
+           nativeQuery = true)
+    List<PeriodLedgerTotalsProjection> findPeriodTotals(@Param("unit") String unit,
+                                                        @Param("from") LocalDateTime from,
+                                                        @Param("until") LocalDateTime until);
     
-    @Query("SELECT SUM(CASE WHEN b.type = 'INCOME' THEN b.amount ELSE 0 END) - " +
-           "SUM(CASE WHEN b.type = 'EXPENSE' THEN b.amount ELSE 0 END) FROM Budget b " +
-           "WHERE b.date BETWEEN :startDate AND :endDate")
-    BigDecimal getBalanceBetweenDates(@Param("startDate") LocalDateTime startDate, 
-                                     @Param("endDate") LocalDateTime endDate);
+    Optional<Budget> findFirstBySourceTypeAndSourceId(SourceType sourceType, Long sourceId);
+    
+    @Modifying
+    @Query("DELETE FROM Budget b WHERE b.sourceType = :sourceType AND b.sourceId = :sourceId")
+    int deleteBySource(@Param("sourceType") SourceType sourceType, @Param("sourceId") Long sourceId);
+    
+    @Modifying
+    @Query("DELETE FROM Budget b WHERE b.tripId = :tripId")
+    int deleteByTripId(@Param("tripId") Long tripId);
+    
+    // Paginação por chave (date, id): o custo de qualquer página é o mesmo da primeira
+    @Query("SELECT b FROM Budget b ORDER BY b.date DESC, b.id DESC")
+    List<Budget> findFirstPage(Pageable pageable);
+
+    @Query("SELECT b FROM Budget b WHERE " +
+           "(b.date < :key OR (b.date = :key AND b.id < :id)) " +
+           "ORDER BY b.date DESC, b.id DESC")
+    List<Budget> findPageAfter(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
 }
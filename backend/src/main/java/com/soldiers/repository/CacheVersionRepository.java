@@ -0,0 +1,26 @@
+package com.soldiers.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Acesso às sequências de versão dos caches (V10__cache_versions).
+ * O nome da sequência vem sempre de CacheVersionService.Region, nunca de entrada externa.
+ */
+@Repository
+public class CacheVersionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CacheVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long increment(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+    }
+
+    public long current(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.soldiers.repository;
+
+import com.soldiers.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Reserva a chave. Se outra transação acabou de reservá-la, o INSERT espera por ela
+     * no índice único e retorna 0 depois do commit; chaves vencidas são reaproveitadas.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_idempotency_key (idempotency_key, user_id, request_hash, criado_em, expira_em) " +
+                   "VALUES (:key, :userId, :requestHash, :now, :expiresAt) " +
+                   "ON CONFLICT (idempotency_key) DO UPDATE SET " +
+                   "user_id = EXCLUDED.user_id, request_hash = EXCLUDED.request_hash, sale_id = NULL, " +
+                   "response_body = NULL, criado_em = EXCLUDED.criado_em, expira_em = EXCLUDED.expira_em " +
+                   "WHERE tb_idempotency_key.expira_em <= EXCLUDED.criado_em",
+           nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("userId") Long userId,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query(value = "UPDATE tb_idempotency_key SET sale_id = :saleId, response_body = :responseBody " +
+                   "WHERE idempotency_key = :key",
+           nativeQuery = true)
+    int complete(@Param("key") String key,
+                 @Param("saleId") Long saleId,
+                 @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM tb_idempotency_key WHERE idempotency_key IN (" +
+                   "SELECT idempotency_key FROM tb_idempotency_key WHERE expira_em <= :now LIMIT :limit)",
+           nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
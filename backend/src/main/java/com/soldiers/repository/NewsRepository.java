@@ -1,10 +1,13 @@
 package com.soldiers.repository;
 
 import com.soldiers.entity.News;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,4 +18,13 @@ public interface NewsRepository extends JpaRepository<News, Long> {
     
     @Query("SELECT n FROM News n WHERE n.deletadoEm IS NULL ORDER BY n.criadoEm DESC")
     List<News> findLatestNews();
-} 
\ No newline at end of file
+
+    // Paginação por chave (criadoEm, id): o custo de qualquer página é o mesmo da primeira
+    @Query("SELECT n FROM News n WHERE n.deletadoEm IS NULL ORDER BY n.criadoEm DESC, n.id DESC")
+    List<News> findFirstPage(Pageable pageable);
+
+    @Query("SELECT n FROM News n WHERE n.deletadoEm IS NULL AND " +
+           "(n.criadoEm < :key OR (n.criadoEm = :key AND n.id < :id)) " +
+           "ORDER BY n.criadoEm DESC, n.id DESC")
+    List<News> findPageAfter(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+}
@@ -1,10 +1,17 @@
 package com.soldiers.repository;
 
+import com.soldiers.dto.projection.IdLinkProjection;
+import com.soldiers.dto.projection.NameMatchProjection;
+import com.soldiers.dto.projection.PlayerSummaryProjection;
 import com.soldiers.entity.Player;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,12 +23,72 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
     @Query("SELECT p FROM Player p WHERE p.status = :status AND p.deletadoEm IS NULL")
     List<Player> findByStatus(Player.PlayerStatus status);
 
-    @Query("SELECT p FROM Player p WHERE p.name LIKE %:name% AND p.deletadoEm IS NULL")
-    List<Player> findByNameContaining(String name);
+    @Query("SELECT p FROM Player p WHERE LOWER(FUNCTION('f_unaccent', p.name)) LIKE LOWER(CONCAT('%', FUNCTION('f_unaccent', :name), '%')) AND p.deletadoEm IS NULL")
+    List<Player> findByNameContaining(@Param("name") String name);
 
     @Query("SELECT p FROM Player p WHERE p.position = :position AND p.deletadoEm IS NULL")
     List<Player> findByPosition(String position);
 
     @Query("SELECT p FROM Player p LEFT JOIN FETCH p.teams WHERE p.id = :id")
     java.util.Optional<Player> findByIdWithTeams(Long id);
+
+    // Read model de PlayerResponse: colunas e contagem de times em uma consulta, times via findTeamLinks
+    @Query("SELECT p.id AS id, p.name AS name, p.position AS position, p.number AS number, " +
+           "p.description AS description, p.status AS status, p.criadoEm AS criadoEm, " +
+           "p.atualizadoEm AS atualizadoEm, COUNT(t) AS teamCount FROM Player p LEFT JOIN p.teams t " +
+           "WHERE p.deletadoEm IS NULL " +
+           "GROUP BY p.id, p.name, p.position, p.number, p.description, p.status, p.criadoEm, p.atualizadoEm")
+    List<PlayerSummaryProjection> findActiveSummaries();
+
+    @Query("SELECT p.id AS id, p.name AS name, p.position AS position, p.number AS number, " +
+           "p.description AS description, p.status AS status, p.criadoEm AS criadoEm, " +
+           "p.atualizadoEm AS atualizadoEm, COUNT(t) AS teamCount FROM Player p LEFT JOIN p.teams t " +
+           "WHERE p.status = :status AND p.deletadoEm IS NULL " +
+           "GROUP BY p.id, p.name, p.position, p.number, p.description, p.status, p.criadoEm, p.atualizadoEm")
+    List<PlayerSummaryProjection> findSummariesByStatus(@Param("status") Player.PlayerStatus status);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.position AS position, p.number AS number, " +
+           "p.description AS description, p.status AS status, p.criadoEm AS criadoEm, " +
+           "p.atualizadoEm AS atualizadoEm, COUNT(t) AS teamCount FROM Player p LEFT JOIN p.teams t " +
+           "WHERE LOWER(FUNCTION('f_unaccent', p.name)) LIKE LOWER(CONCAT('%', FUNCTION('f_unaccent', :name), '%')) AND p.deletadoEm IS NULL " +
+           "GROUP BY p.id, p.name, p.position, p.number, p.description, p.status, p.criadoEm, p.atualizadoEm")
+    List<PlayerSummaryProjection> findSummariesByNameContaining(@Param("name") String name);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.position AS position, p.number AS number, " +
+           "p.description AS description, p.status AS status, p.criadoEm AS criadoEm, " +
+           "p.atualizadoEm AS atualizadoEm, COUNT(t) AS teamCount FROM Player p LEFT JOIN p.teams t " +
+           "WHERE p.position = :position AND p.deletadoEm IS NULL " +
+           "GROUP BY p.id, p.name, p.position, p.number, p.description, p.status, p.criadoEm, p.atualizadoEm")
+    List<PlayerSummaryProjection> findSummariesByPosition(@Param("position") String position);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.position AS position, p.number AS number, " +
+           "p.description AS description, p.status AS status, p.criadoEm AS criadoEm, " +
+           "p.atualizadoEm AS atualizadoEm, COUNT(t) AS teamCount FROM Player p LEFT JOIN p.teams t " +
+           "WHERE p.id IN :ids " +
+           "GROUP BY p.id, p.name, p.position, p.number, p.description, p.status, p.criadoEm, p.atualizadoEm")
+    List<PlayerSummaryProjection> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS parentId, t.id AS childId FROM Player p JOIN p.teams t WHERE p.id IN :ids ORDER BY t.id")
+    List<IdLinkProjection> findTeamLinks(@Param("ids") Collection<Long> ids);
+
+    // Paginação por chave (criadoEm, id): o custo de qualquer página é o mesmo da primeira
+    @Query("SELECT p FROM Player p WHERE p.deletadoEm IS NULL ORDER BY p.criadoEm DESC, p.id DESC")
+    List<Player> findFirstPage(Pageable pageable);
+
+    @Query("SELECT p FROM Player p WHERE p.deletadoEm IS NULL AND " +
+           "(p.criadoEm < :key OR (p.criadoEm = :key AND p.id < :id)) " +
+           "ORDER BY p.criadoEm DESC, p.id DESC")
+    List<Player> findPageAfter(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    // Typeahead ranqueado: prefixo primeiro, depois similaridade de trigramas (idx_player_name_trgm)
+    @Query(value = "SELECT p.id AS id, p.name AS name, " +
+                   "CAST(similarity(lower(f_unaccent(p.name)), lower(f_unaccent(:term))) AS double precision) AS score, " +
+                   "(lower(f_unaccent(p.name)) LIKE lower(f_unaccent(:term)) || '%') AS prefix " +
+                   "FROM tb_player p WHERE p.deletado_em IS NULL AND " +
+                   "(lower(f_unaccent(p.name)) LIKE '%' || lower(f_unaccent(:term)) || '%' " +
+                   "OR lower(f_unaccent(p.name)) % lower(f_unaccent(:term))) " +
+                   "ORDER BY prefix DESC, score DESC, p.name " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<NameMatchProjection> searchByName(@Param("term") String term, @Param("limit") int limit);
 }
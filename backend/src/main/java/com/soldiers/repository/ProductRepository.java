@@ -1,16 +1,19 @@
 package com.soldiers.repository;
 
+import com.soldiers.dto.projection.NameMatchProjection;
 import com.soldiers.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     @Query("SELECT p FROM Product p WHERE p.deletadoEm IS NULL")
     List<Product> findAllActive();
@@ -21,8 +24,28 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.stock <= :threshold AND p.deletadoEm IS NULL")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
 
-    @Query("SELECT p FROM Product p WHERE p.name LIKE %:name% AND p.deletadoEm IS NULL")
+    @Query("SELECT p FROM Product p WHERE LOWER(FUNCTION('f_unaccent', p.name)) LIKE LOWER(CONCAT('%', FUNCTION('f_unaccent', :name), '%')) AND p.deletadoEm IS NULL")
     List<Product> findByNameContaining(@Param("name") String name);
 
     Optional<Product> findByIdAndDeletadoEmIsNull(Long id);
+
+    // Typeahead ranqueado: prefixo primeiro, depois similaridade de trigramas (idx_product_name_trgm)
+    @Query(value = "SELECT p.id AS id, p.name AS name, " +
+                   "CAST(similarity(lower(f_unaccent(p.name)), lower(f_unaccent(:term))) AS double precision) AS score, " +
+                   "(lower(f_unaccent(p.name)) LIKE lower(f_unaccent(:term)) || '%') AS prefix " +
+                   "FROM tb_product p WHERE p.deletado_em IS NULL AND " +
+                   "(lower(f_unaccent(p.name)) LIKE '%' || lower(f_unaccent(:term)) || '%' " +
+                   "OR lower(f_unaccent(p.name)) % lower(f_unaccent(:term))) " +
+                   "ORDER BY prefix DESC, score DESC, p.name " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<NameMatchProjection> searchByName(@Param("term") String term, @Param("limit") int limit);
+
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids AND p.deletadoEm IS NULL")
+    List<Product> findAllActiveByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity " +
+           "WHERE p.id = :id AND p.stock + :quantity >= 0 AND p.deletadoEm IS NULL")
+    int adjustStock(@Param("id") Long id, @Param("quantity") Integer quantity);
 } 
@@ -0,0 +1,35 @@
+package com.soldiers.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Executa as baixas de estoque condicionais em um único lote JDBC.
+     *
+     * @param quantities quantidade a baixar por ID de produto
+     * @return IDs dos produtos cuja baixa não foi aplicada por falta de estoque
+     */
+    List<Long> decreaseStockInBatch(Map<Long, Integer> quantities);
+
+    /**
+     * Bloqueia (FOR UPDATE) os produtos ativos informados e devolve o estoque atual de cada um.
+     * Produtos excluídos ou inexistentes não aparecem no resultado.
+     */
+    Map<Long, Integer> lockStock(Collection<Long> productIds);
+
+    /**
+     * Aplica todas as baixas em um único UPDATE (unnest dos pares id/quantidade).
+     * Deve ser chamado depois de {@link #lockStock(Collection)}, na mesma transação,
+     * com quantidades já conferidas contra o estoque bloqueado.
+     */
+    void applyStockDecrements(Map<Long, Integer> quantities);
+
+    /**
+     * Devolve ao estoque as quantidades informadas em um único UPDATE (estorno de venda).
+     * Vale também para produtos já excluídos, que voltam com o estoque correto se forem restaurados.
+     */
+    void applyStockIncrements(Map<Long, Integer> quantities);
+}
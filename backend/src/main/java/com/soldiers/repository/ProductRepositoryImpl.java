@@ -0,0 +1,92 @@
+package com.soldiers.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String DECREASE_STOCK_SQL =
+            "UPDATE tb_product SET stock = stock - ? WHERE id = ? AND stock >= ? AND deletado_em IS NULL";
+
+    private static final String LOCK_STOCK_SQL =
+            "SELECT id, stock FROM tb_product WHERE id = ANY(?) AND deletado_em IS NULL ORDER BY id FOR UPDATE";
+
+    private static final String APPLY_DECREMENTS_SQL =
+            "UPDATE tb_product p SET stock = p.stock - d.quantity " +
+            "FROM unnest(?, ?) AS d(id, quantity) WHERE p.id = d.id";
+
+    private static final String APPLY_INCREMENTS_SQL =
+            "UPDATE tb_product p SET stock = p.stock + d.quantity " +
+            "FROM unnest(?, ?) AS d(id, quantity) WHERE p.id = d.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> decreaseStockInBatch(Map<Long, Integer> quantities) {
+        // Linhas travadas em ordem de id, a mesma de lockStock: vendas com os mesmos produtos em ordem
+        // diferente (e o POST /sales/batch) esperam umas pelas outras em vez de entrar em deadlock
+        List<Long> productIds = new ArrayList<>(new TreeSet<>(quantities.keySet()));
+        List<Object[]> args = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            Integer quantity = quantities.get(productId);
+            args.add(new Object[]{quantity, productId, quantity});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(DECREASE_STOCK_SQL, args);
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(productIds.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    @Override
+    public Map<Long, Integer> lockStock(Collection<Long> productIds) {
+        Map<Long, Integer> stock = new LinkedHashMap<>();
+        if (productIds.isEmpty()) {
+            return stock;
+        }
+        // ORDER BY id: bloqueios sempre na mesma ordem, sem deadlock entre lotes concorrentes
+        jdbcTemplate.query(LOCK_STOCK_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", productIds.toArray())),
+                rs -> {
+                    stock.put(rs.getLong(1), rs.getInt(2));
+                });
+        return stock;
+    }
+
+    @Override
+    public void applyStockDecrements(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(APPLY_DECREMENTS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", quantities.keySet().toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", quantities.values().toArray()));
+        });
+    }
+
+    @Override
+    public void applyStockIncrements(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(APPLY_INCREMENTS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", quantities.keySet().toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", quantities.values().toArray()));
+        });
+    }
+}
@@ -1,11 +1,13 @@
 package com.soldiers.repository;
 
+import com.soldiers.dto.projection.PermissionProjection;
 import com.soldiers.entity.ProfilePermission;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,4 +22,8 @@ public interface ProfilePermissionRepository extends JpaRepository<ProfilePermis
     
     @Query("SELECT pp FROM ProfilePermission pp WHERE pp.profile.id = :profileId AND pp.resource = :resource AND pp.action = :action AND pp.active = true")
     ProfilePermission findByProfileIdAndResourceAndAction(@Param("profileId") Long profileId, @Param("resource") String resource, @Param("action") String action);
+
+    @Query("SELECT pp.profile.id AS profileId, pp.id AS id, pp.resource AS resource, pp.action AS action, pp.active AS active " +
+           "FROM ProfilePermission pp WHERE pp.profile.id IN :profileIds AND pp.active = true ORDER BY pp.id")
+    List<PermissionProjection> findActiveByProfileIds(@Param("profileIds") Collection<Long> profileIds);
 }
@@ -1,5 +1,6 @@
 package com.soldiers.repository;
 
+import com.soldiers.dto.projection.ProfileSummaryProjection;
 import com.soldiers.entity.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -7,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +28,10 @@ public interface ProfileRepository extends JpaRepository<Profile, Long> {
     @Query("SELECT DISTINCT p FROM Profile p LEFT JOIN FETCH p.permissions WHERE p.active = true")
     List<Profile> findAllActiveWithPermissions();
 
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.active AS active " +
+           "FROM Profile p WHERE p.id IN :ids")
+    List<ProfileSummaryProjection> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
     @Modifying
     @Query(value = "DELETE FROM tb_profile WHERE id = :id", nativeQuery = true)
     void deleteProfileById(@Param("id") Long id);
@@ -0,0 +1,51 @@
+package com.soldiers.repository;
+
+import com.soldiers.dto.projection.PeriodSalesTotalsProjection;
+import com.soldiers.dto.projection.SalesTotalsProjection;
+import com.soldiers.dto.projection.SellerRevenueProjection;
+import com.soldiers.entity.SaleAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SaleAggregateRepository extends JpaRepository<SaleAggregate, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO tb_sale_aggregate (game_event_id, seller_id, sale_date, sale_count, total_amount) " +
+                   "VALUES (:gameEventId, :sellerId, :saleDate, :saleCount, :amount) " +
+                   "ON CONFLICT (game_event_id, seller_id, sale_date) DO UPDATE SET " +
+                   "sale_count = tb_sale_aggregate.sale_count + EXCLUDED.sale_count, " +
+                   "total_amount = tb_sale_aggregate.total_amount + EXCLUDED.total_amount",
+           nativeQuery = true)
+    void upsert(@Param("gameEventId") Long gameEventId,
+                @Param("sellerId") Long sellerId,
+                @Param("saleDate") LocalDate saleDate,
+                @Param("saleCount") Long saleCount,
+                @Param("amount") BigDecimal amount);
+
+    @Query("SELECT COALESCE(SUM(a.saleCount), 0) AS saleCount, COALESCE(SUM(a.totalAmount), 0) AS revenue " +
+           "FROM SaleAggregate a")
+    SalesTotalsProjection getTotals();
+
+    @Query("SELECT u.id AS sellerId, u.name AS sellerName, SUM(a.saleCount) AS saleCount, SUM(a.totalAmount) AS revenue " +
+           "FROM SaleAggregate a JOIN User u ON u.id = a.sellerId " +
+           "GROUP BY u.id, u.name")
+    List<SellerRevenueProjection> getRevenueBySeller();
+
+    // Vendas por período (day, week, month) a partir dos totais diários
+    @Query(value = "SELECT CAST(date_trunc(CAST(:unit AS text), a.sale_date) AS date) AS \"periodStart\", " +
+                   "SUM(a.sale_count) AS \"saleCount\", SUM(a.total_amount) AS \"revenue\" " +
+                   "FROM tb_sale_aggregate a WHERE a.sale_date >= :from AND a.sale_date < :until " +
+                   "GROUP BY 1 ORDER BY 1",
+           nativeQuery = true)
+    List<PeriodSalesTotalsProjection> findPeriodTotals(@Param("unit") String unit,
+                                                       @Param("from") LocalDate from,
+                                                       @Param("until") LocalDate until);
+}
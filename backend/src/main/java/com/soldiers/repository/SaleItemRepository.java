@@ -0,0 +1,41 @@
+package com.soldiers.repository;
+
+import com.soldiers.dto.projection.ProductGameEventProjection;
+import com.soldiers.dto.projection.TopProductProjection;
+import com.soldiers.entity.SaleItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
+
+    // CAST nos filtros opcionais: o driver envia datas sem tipo e o PostgreSQL não infere o de "? IS NULL"
+    @Query("SELECT p.id AS productId, p.name AS productName, " +
+           "SUM(si.quantity) AS unitsSold, SUM(si.price * si.quantity) AS revenue " +
+           "FROM SaleItem si JOIN si.product p JOIN si.sale s " +
+           "WHERE s.deletadoEm IS NULL " +
+           "AND (CAST(:startDate AS timestamp) IS NULL OR s.criadoEm >= :startDate) " +
+           "AND (CAST(:endDate AS timestamp) IS NULL OR s.criadoEm < :endDate) " +
+           "GROUP BY p.id, p.name " +
+           "ORDER BY SUM(si.quantity) DESC, SUM(si.price * si.quantity) DESC")
+    List<TopProductProjection> findTopProducts(@Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate,
+                                               Pageable pageable);
+
+    @Query("SELECT DISTINCT si.product.id AS productId, g.id AS gameEventId, g.name AS gameName, g.date AS gameDate " +
+           "FROM SaleItem si JOIN si.sale s JOIN s.gameEvent g " +
+           "WHERE si.product.id IN :productIds AND s.deletadoEm IS NULL " +
+           "AND (CAST(:startDate AS timestamp) IS NULL OR s.criadoEm >= :startDate) " +
+           "AND (CAST(:endDate AS timestamp) IS NULL OR s.criadoEm < :endDate) " +
+           "ORDER BY g.date DESC")
+    List<ProductGameEventProjection> findGameEventsByProducts(@Param("productIds") Collection<Long> productIds,
+                                                              @Param("startDate") LocalDateTime startDate,
+                                                              @Param("endDate") LocalDateTime endDate);
+}
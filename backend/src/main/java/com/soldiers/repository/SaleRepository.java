@@ -1,33 +1,96 @@
 package com.soldiers.repository;
 
+import com.soldiers.dto.projection.GameRevenueProjection;
+import com.soldiers.dto.projection.SaleExportRow;
+import com.soldiers.entity.GameEvent;
 import com.soldiers.entity.Sale;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SaleRepository extends JpaRepository<Sale, Long> {
+public interface SaleRepository extends JpaRepository<Sale, Long>, SaleRepositoryCustom {
 
-    @Query("SELECT s FROM Sale s WHERE s.gameEvent.id = :gameEventId AND s.deletadoEm IS NULL")
+    @EntityGraph(Sale.GRAPH_DETAILS)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("SELECT DISTINCT s FROM Sale s WHERE s.gameEvent.id = :gameEventId AND s.deletadoEm IS NULL")
     List<Sale> findByGameEventId(@Param("gameEventId") Long gameEventId);
 
-    @Query("SELECT s FROM Sale s WHERE s.seller.id = :sellerId AND s.deletadoEm IS NULL")
+    @EntityGraph(Sale.GRAPH_DETAILS)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("SELECT DISTINCT s FROM Sale s WHERE s.seller.id = :sellerId AND s.deletadoEm IS NULL")
     List<Sale> findBySellerId(@Param("sellerId") Long sellerId);
 
     @Query("SELECT s FROM Sale s WHERE s.gameEvent.date = :date AND s.deletadoEm IS NULL")
     List<Sale> findByDate(@Param("date") LocalDate date);
 
+    @EntityGraph(Sale.GRAPH_DETAILS)
+    @Query("SELECT s FROM Sale s WHERE s.id = :id")
+    Optional<Sale> findWithDetailsById(@Param("id") Long id);
+
     @Query("SELECT SUM(s.totalAmount) FROM Sale s WHERE s.gameEvent.id = :gameEventId AND s.deletadoEm IS NULL")
     BigDecimal getTotalRevenueByGameEvent(@Param("gameEventId") Long gameEventId);
 
     @Query("SELECT COUNT(s) FROM Sale s WHERE s.gameEvent.id = :gameEventId AND s.deletadoEm IS NULL")
     Long getSalesCountByGameEvent(@Param("gameEventId") Long gameEventId);
 
-    @Query("SELECT s FROM Sale s WHERE s.deletadoEm IS NULL ORDER BY s.criadoEm DESC")
+    @EntityGraph(Sale.GRAPH_DETAILS)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("SELECT DISTINCT s FROM Sale s WHERE s.deletadoEm IS NULL ORDER BY s.criadoEm DESC")
     List<Sale> findAllActiveOrderByDate();
-} 
+
+    // CAST nos filtros opcionais: o driver envia datas sem tipo e o PostgreSQL não infere o de "? IS NULL"
+    @Query("SELECT g.id AS gameEventId, g.name AS gameName, g.date AS date, " +
+           "COALESCE(SUM(s.totalAmount), 0) AS revenue, COUNT(s.id) AS saleCount " +
+           "FROM GameEvent g LEFT JOIN Sale s ON s.gameEvent.id = g.id AND s.deletadoEm IS NULL " +
+           "WHERE g.deletadoEm IS NULL " +
+           "AND (CAST(:startDate AS date) IS NULL OR g.date >= :startDate) " +
+           "AND (CAST(:endDate AS date) IS NULL OR g.date <= :endDate) " +
+           "AND (:status IS NULL OR g.status = :status) " +
+           "GROUP BY g.id, g.name, g.date " +
+           "ORDER BY g.date DESC")
+    List<GameRevenueProjection> getRevenueByGame(@Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate,
+                                                 @Param("status") GameEvent.GameStatus status);
+
+    // Leitura só para frente com cursor no servidor; exige transação aberta e o Stream deve ser fechado.
+    // Datas opcionais com CAST, como em getRevenueByGame
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT s.id AS saleId, s.criadoEm AS criadoEm, g.name AS gameName, u.name AS sellerName, " +
+           "s.totalAmount AS totalAmount, p.id AS productId, p.name AS productName, " +
+           "si.quantity AS quantity, si.price AS price " +
+           "FROM SaleItem si JOIN si.sale s JOIN s.gameEvent g JOIN s.seller u JOIN si.product p " +
+           "WHERE s.deletadoEm IS NULL " +
+           "AND (CAST(:startDate AS timestamp) IS NULL OR s.criadoEm >= :startDate) " +
+           "AND (CAST(:endDate AS timestamp) IS NULL OR s.criadoEm < :endDate) " +
+           "ORDER BY s.id, si.id")
+    Stream<SaleExportRow> streamForExport(@Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate);
+
+    // Paginação por chave (criadoEm, id): o custo de qualquer página é o mesmo da primeira
+    @EntityGraph(Sale.GRAPH_SUMMARY)
+    @Query("SELECT s FROM Sale s WHERE s.deletadoEm IS NULL ORDER BY s.criadoEm DESC, s.id DESC")
+    List<Sale> findFirstPage(Pageable pageable);
+
+    @EntityGraph(Sale.GRAPH_SUMMARY)
+    @Query("SELECT s FROM Sale s WHERE s.deletadoEm IS NULL AND " +
+           "(s.criadoEm < :key OR (s.criadoEm = :key AND s.id < :id)) " +
+           "ORDER BY s.criadoEm DESC, s.id DESC")
+    List<Sale> findPageAfter(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+}
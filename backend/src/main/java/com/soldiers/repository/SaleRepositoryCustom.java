@@ -0,0 +1,21 @@
+package com.soldiers.repository;
+
+import com.soldiers.entity.Sale;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface SaleRepositoryCustom {
+
+    /**
+     * IDs das vendas já gravadas com as chaves informadas, em uma única consulta.
+     */
+    Map<String, Long> findIdsByClientKeys(Collection<String> clientKeys);
+
+    /**
+     * Grava vendas novas e seus itens em lotes JDBC (uma ida ao banco por tabela).
+     * Os IDs são reservados na sequência antes do insert e atribuídos às instâncias.
+     */
+    void insertAll(List<Sale> sales);
+}
@@ -0,0 +1,86 @@
+package com.soldiers.repository;
+
+import com.soldiers.entity.Sale;
+import com.soldiers.entity.SaleItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SaleRepositoryImpl implements SaleRepositoryCustom {
+
+    private static final String FIND_BY_CLIENT_KEYS_SQL =
+            "SELECT client_key, id FROM tb_sale WHERE client_key = ANY(?)";
+
+    // tb_sale.id e tb_sale_item.id são IDENTITY (bigserial), o que desliga o batch do Hibernate;
+    // os IDs vêm direto das sequências
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('tb_sale', 'id')) FROM generate_series(1, ?)";
+
+    private static final String RESERVE_ITEM_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('tb_sale_item', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_SALE_SQL =
+            "INSERT INTO tb_sale (id, user_id, game_event_id, total_amount, criado_em, atualizado_em, client_key) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO tb_sale_item (id, sale_id, product_id, quantity, price) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SaleRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<String, Long> findIdsByClientKeys(Collection<String> clientKeys) {
+        Map<String, Long> ids = new HashMap<>();
+        if (clientKeys.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query(FIND_BY_CLIENT_KEYS_SQL,
+                ps -> {
+                    Array keys = ps.getConnection().createArrayOf("varchar", clientKeys.toArray());
+                    ps.setArray(1, keys);
+                },
+                rs -> {
+                    ids.put(rs.getString(1), rs.getLong(2));
+                });
+        return ids;
+    }
+
+    @Override
+    public void insertAll(List<Sale> sales) {
+        if (sales.isEmpty()) {
+            return;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, sales.size());
+        int itemCount = sales.stream().mapToInt(sale -> sale.getItems().size()).sum();
+        List<Long> itemIds = itemCount == 0
+                ? new ArrayList<>()
+                : jdbcTemplate.queryForList(RESERVE_ITEM_IDS_SQL, Long.class, itemCount);
+
+        List<Object[]> saleArgs = new ArrayList<>(sales.size());
+        List<Object[]> itemArgs = new ArrayList<>(itemCount);
+        for (int i = 0; i < sales.size(); i++) {
+            Sale sale = sales.get(i);
+            sale.setId(ids.get(i));
+            Timestamp createdAt = Timestamp.valueOf(sale.getCriadoEm());
+            saleArgs.add(new Object[]{sale.getId(), sale.getSeller().getId(), sale.getGameEvent().getId(),
+                    sale.getTotalAmount(), createdAt, createdAt, sale.getClientKey()});
+            for (SaleItem item : sale.getItems()) {
+                item.setId(itemIds.get(itemArgs.size()));
+                itemArgs.add(new Object[]{item.getId(), sale.getId(), item.getProduct().getId(), item.getQuantity(), item.getPrice()});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SALE_SQL, saleArgs);
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, itemArgs);
+    }
+}
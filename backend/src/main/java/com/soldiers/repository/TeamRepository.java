@@ -1,10 +1,17 @@
 package com.soldiers.repository;
 
+import com.soldiers.dto.projection.IdLinkProjection;
+import com.soldiers.dto.projection.NameMatchProjection;
+import com.soldiers.dto.projection.TeamSummaryProjection;
 import com.soldiers.entity.Team;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,9 +23,62 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     @Query("SELECT t FROM Team t WHERE t.status = :status AND t.deletadoEm IS NULL")
     List<Team> findByStatus(Team.TeamStatus status);
 
-    @Query("SELECT t FROM Team t WHERE t.name LIKE %:name% AND t.deletadoEm IS NULL")
-    List<Team> findByNameContaining(String name);
+    @Query("SELECT t FROM Team t WHERE LOWER(FUNCTION('f_unaccent', t.name)) LIKE LOWER(CONCAT('%', FUNCTION('f_unaccent', :name), '%')) AND t.deletadoEm IS NULL")
+    List<Team> findByNameContaining(@Param("name") String name);
 
     @Query("SELECT t FROM Team t LEFT JOIN FETCH t.players WHERE t.id = :id")
     java.util.Optional<Team> findByIdWithPlayers(Long id);
+
+    // Read model de TeamResponse: colunas e contagem de jogadores em uma consulta, jogadores via findPlayerLinks
+    @Query("SELECT t.id AS id, t.name AS name, t.description AS description, t.status AS status, " +
+           "t.criadoEm AS criadoEm, t.atualizadoEm AS atualizadoEm, COUNT(p) AS playerCount " +
+           "FROM Team t LEFT JOIN t.players p " +
+           "WHERE t.deletadoEm IS NULL " +
+           "GROUP BY t.id, t.name, t.description, t.status, t.criadoEm, t.atualizadoEm")
+    List<TeamSummaryProjection> findActiveSummaries();
+
+    @Query("SELECT t.id AS id, t.name AS name, t.description AS description, t.status AS status, " +
+           "t.criadoEm AS criadoEm, t.atualizadoEm AS atualizadoEm, COUNT(p) AS playerCount " +
+           "FROM Team t LEFT JOIN t.players p " +
+           "WHERE t.status = :status AND t.deletadoEm IS NULL " +
+           "GROUP BY t.id, t.name, t.description, t.status, t.criadoEm, t.atualizadoEm")
+    List<TeamSummaryProjection> findSummariesByStatus(@Param("status") Team.TeamStatus status);
+
+    @Query("SELECT t.id AS id, t.name AS name, t.description AS description, t.status AS status, " +
+           "t.criadoEm AS criadoEm, t.atualizadoEm AS atualizadoEm, COUNT(p) AS playerCount " +
+           "FROM Team t LEFT JOIN t.players p " +
+           "WHERE LOWER(FUNCTION('f_unaccent', t.name)) LIKE LOWER(CONCAT('%', FUNCTION('f_unaccent', :name), '%')) AND t.deletadoEm IS NULL " +
+           "GROUP BY t.id, t.name, t.description, t.status, t.criadoEm, t.atualizadoEm")
+    List<TeamSummaryProjection> findSummariesByNameContaining(@Param("name") String name);
+
+    @Query("SELECT t.id AS id, t.name AS name, t.description AS description, t.status AS status, " +
+           "t.criadoEm AS criadoEm, t.atualizadoEm AS atualizadoEm, COUNT(p) AS playerCount " +
+           "FROM Team t LEFT JOIN t.players p " +
+           "WHERE t.id IN :ids " +
+           "GROUP BY t.id, t.name, t.description, t.status, t.criadoEm, t.atualizadoEm")
+    List<TeamSummaryProjection> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id AS parentId, p.id AS childId FROM Team t JOIN t.players p WHERE t.id IN :ids ORDER BY p.id")
+    List<IdLinkProjection> findPlayerLinks(@Param("ids") Collection<Long> ids);
+
+    // Paginação por chave (criadoEm, id): o custo de qualquer página é o mesmo da primeira
+    @Query("SELECT t FROM Team t WHERE t.deletadoEm IS NULL ORDER BY t.criadoEm DESC, t.id DESC")
+    List<Team> findFirstPage(Pageable pageable);
+
+    @Query("SELECT t FROM Team t WHERE t.deletadoEm IS NULL AND " +
+           "(t.criadoEm < :key OR (t.criadoEm = :key AND t.id < :id)) " +
+           "ORDER BY t.criadoEm DESC, t.id DESC")
+    List<Team> findPageAfter(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    // Typeahead ranqueado: prefixo primeiro, depois similaridade de trigramas (idx_team_name_trgm)
+    @Query(value = "SELECT t.id AS id, t.name AS name, " +
+                   "CAST(similarity(lower(f_unaccent(t.name)), lower(f_unaccent(:term))) AS double precision) AS score, " +
+                   "(lower(f_unaccent(t.name)) LIKE lower(f_unaccent(:term)) || '%') AS prefix " +
+                   "FROM tb_team t WHERE t.deletado_em IS NULL AND " +
+                   "(lower(f_unaccent(t.name)) LIKE '%' || lower(f_unaccent(:term)) || '%' " +
+                   "OR lower(f_unaccent(t.name)) % lower(f_unaccent(:term))) " +
+                   "ORDER BY prefix DESC, score DESC, t.name " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<NameMatchProjection> searchByName(@Param("term") String term, @Param("limit") int limit);
 }
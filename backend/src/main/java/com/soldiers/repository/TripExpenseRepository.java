@@ -1,5 +1,6 @@
 package com.soldiers.repository;
 
+import com.soldiers.dto.projection.TripExpenseProjection;
 import com.soldiers.entity.TripExpense;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -7,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,4 +18,9 @@ public interface TripExpenseRepository extends JpaRepository<TripExpense, Long>
     
     @Query("SELECT SUM(te.amount) FROM TripExpense te WHERE te.trip.id = :tripId")
     BigDecimal sumByTripId(@Param("tripId") Long tripId);
+
+    @Query("SELECT te.trip.id AS tripId, te.id AS id, te.description AS description, te.amount AS amount, " +
+           "te.date AS date, u.name AS userName, te.notes AS notes " +
+           "FROM TripExpense te LEFT JOIN te.user u WHERE te.trip.id IN :tripIds ORDER BY te.id")
+    List<TripExpenseProjection> findProjectionsByTripIds(@Param("tripIds") Collection<Long> tripIds);
 }
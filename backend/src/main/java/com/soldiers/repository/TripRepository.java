@@ -1,14 +1,19 @@
 package com.soldiers.repository;
 
+import com.soldiers.dto.projection.IdLinkProjection;
+import com.soldiers.dto.projection.TripSummaryProjection;
 import com.soldiers.entity.Trip;
 import com.soldiers.entity.Trip.TripStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TripRepository extends JpaRepository<Trip, Long> {
@@ -22,4 +27,50 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
     
     @Query("SELECT t FROM Trip t WHERE t.departureDate < :currentDate ORDER BY t.departureDate DESC")
     List<Trip> findPastTrips(@Param("currentDate") LocalDateTime currentDate);
+
+    // Read model de TripResponse: cabeçalho da viagem em colunas; gastos, jogadores e times por lote de ids
+    @Query("SELECT t.id AS id, t.destination AS destination, t.description AS description, " +
+           "t.departureDate AS departureDate, t.returnDate AS returnDate, t.status AS status, " +
+           "t.initialCost AS initialCost, u.name AS userName, t.notes AS notes " +
+           "FROM Trip t LEFT JOIN t.user u")
+    List<TripSummaryProjection> findSummaries();
+
+    @Query("SELECT t.id AS id, t.destination AS destination, t.description AS description, " +
+           "t.departureDate AS departureDate, t.returnDate AS returnDate, t.status AS status, " +
+           "t.initialCost AS initialCost, u.name AS userName, t.notes AS notes " +
+           "FROM Trip t LEFT JOIN t.user u WHERE t.status = :status ORDER BY t.departureDate DESC")
+    List<TripSummaryProjection> findSummariesByStatus(@Param("status") TripStatus status);
+
+    @Query("SELECT t.id AS id, t.destination AS destination, t.description AS description, " +
+           "t.departureDate AS departureDate, t.returnDate AS returnDate, t.status AS status, " +
+           "t.initialCost AS initialCost, u.name AS userName, t.notes AS notes " +
+           "FROM Trip t LEFT JOIN t.user u WHERE t.departureDate >= :currentDate ORDER BY t.departureDate ASC")
+    List<TripSummaryProjection> findUpcomingSummaries(@Param("currentDate") LocalDateTime currentDate);
+
+    @Query("SELECT t.id AS id, t.destination AS destination, t.description AS description, " +
+           "t.departureDate AS departureDate, t.returnDate AS returnDate, t.status AS status, " +
+           "t.initialCost AS initialCost, u.name AS userName, t.notes AS notes " +
+           "FROM Trip t LEFT JOIN t.user u WHERE t.departureDate < :currentDate ORDER BY t.departureDate DESC")
+    List<TripSummaryProjection> findPastSummaries(@Param("currentDate") LocalDateTime currentDate);
+
+    @Query("SELECT t.id AS id, t.destination AS destination, t.description AS description, " +
+           "t.departureDate AS departureDate, t.returnDate AS returnDate, t.status AS status, " +
+           "t.initialCost AS initialCost, u.name AS userName, t.notes AS notes " +
+           "FROM Trip t LEFT JOIN t.user u WHERE t.id = :id")
+    Optional<TripSummaryProjection> findSummaryById(@Param("id") Long id);
+
+    @Query("SELECT t.id AS parentId, p.id AS childId FROM Trip t JOIN t.players p WHERE t.id IN :ids ORDER BY p.id")
+    List<IdLinkProjection> findPlayerLinks(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id AS parentId, tm.id AS childId FROM Trip t JOIN t.teams tm WHERE t.id IN :ids ORDER BY tm.id")
+    List<IdLinkProjection> findTeamLinks(@Param("ids") Collection<Long> ids);
+
+    // Paginação por chave (departureDate, id): o custo de qualquer página é o mesmo da primeira
+    @Query("SELECT t FROM Trip t ORDER BY t.departureDate DESC, t.id DESC")
+    List<Trip> findFirstPage(Pageable pageable);
+
+    @Query("SELECT t FROM Trip t WHERE " +
+           "(t.departureDate < :key OR (t.departureDate = :key AND t.id < :id)) " +
+           "ORDER BY t.departureDate DESC, t.id DESC")
+    List<Trip> findPageAfter(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
 }
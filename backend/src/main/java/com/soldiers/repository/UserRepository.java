@@ -1,12 +1,16 @@
 package com.soldiers.repository;
 
+import com.soldiers.dto.projection.IdLinkProjection;
+import com.soldiers.dto.projection.UserSummaryProjection;
 import com.soldiers.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +24,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.profiles WHERE u.email = :email AND u.deletadoEm IS NULL")
     Optional<User> findByEmailWithProfile(@Param("email") String email);
 
+    // Usado no rehash de login: grava só o hash, sem merge do usuário e dos perfis
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.profiles p LEFT JOIN FETCH p.permissions WHERE u.email = :email AND u.deletadoEm IS NULL")
     Optional<User> findByEmailWithProfilesAndPermissions(@Param("email") String email);
 
@@ -45,6 +55,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.active = true AND u.deletadoEm IS NULL")
     List<User> findAllActiveUsers();
 
+    // Read model de UserResponse: só colunas, nada para carregar depois que a transação fecha
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email, u.active AS active, " +
+           "u.criadoEm AS criadoEm, u.atualizadoEm AS atualizadoEm, u.deletadoEm AS deletadoEm " +
+           "FROM User u WHERE u.deletadoEm IS NULL ORDER BY u.id")
+    List<UserSummaryProjection> findActiveSummaries();
+
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email, u.active AS active, " +
+           "u.criadoEm AS criadoEm, u.atualizadoEm AS atualizadoEm, u.deletadoEm AS deletadoEm " +
+           "FROM User u WHERE u.id IN :ids")
+    List<UserSummaryProjection> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id AS parentId, p.id AS childId FROM User u JOIN u.profiles p WHERE u.id IN :ids ORDER BY p.id")
+    List<IdLinkProjection> findProfileLinks(@Param("ids") Collection<Long> ids);
+
     boolean existsByEmail(String email);
     
     boolean existsByEmailAndDeletadoEmIsNull(String email);
@@ -0,0 +1,53 @@
+package com.soldiers.security;
+
+import com.soldiers.entity.ProfilePermission;
+import com.soldiers.entity.ProfilePermission.Action;
+import com.soldiers.entity.ProfilePermission.Resource;
+
+import java.security.Principal;
+
+/**
+ * Usuário autenticado reconstruído a partir do token, sem consulta ao banco.
+ * getName() devolve o id do usuário, que é o que os controllers usam via Authentication.getName().
+ */
+public class AuthenticatedUser implements Principal {
+
+    private final Long userId;
+    private final String email;
+    private final long permissionMask;
+    private final boolean admin;
+
+    // Construtores
+    public AuthenticatedUser(Long userId, String email, long permissionMask, boolean admin) {
+        this.userId = userId;
+        this.email = email;
+        this.permissionMask = permissionMask;
+        this.admin = admin;
+    }
+
+    public boolean hasPermission(Resource resource, Action action) {
+        return admin || (permissionMask & ProfilePermission.mask(resource, action)) != 0L;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public long getPermissionMask() {
+        return permissionMask;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+}
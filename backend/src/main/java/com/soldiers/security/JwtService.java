@@ -0,0 +1,89 @@
+package com.soldiers.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Emite e valida os tokens de sessão (HS256). Tudo que a autorização precisa
+ * (id, email, máscara de permissões) vai nas claims, então validar é só verificar a assinatura.
+ */
+@Service
+public class JwtService {
+
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_PERMISSIONS = "perm";
+    private static final String CLAIM_ADMIN = "admin";
+
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKey key;
+    private final Duration expiration;
+
+    public JwtService(@Value("${app.jwt.secret:}") String secret,
+                      @Value("${app.jwt.expiration-minutes:720}") long expirationMinutes) {
+        // Sem valor padrão: cada ambiente define o seu JWT_SECRET, e a aplicação não sobe sem ele
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("app.jwt.secret não definido: configure a variável JWT_SECRET");
+        }
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("JWT_SECRET curto demais: HS256 exige pelo menos " + MIN_SECRET_BYTES
+                    + " bytes (256 bits), recebidos " + secretBytes.length);
+        }
+        this.key = Keys.hmacShaKeyFor(secretBytes);
+        this.expiration = Duration.ofMinutes(expirationMinutes);
+    }
+
+    public String generateToken(Long userId, String email, long permissionMask, boolean admin) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setSubject(String.valueOf(userId))
+                .claim(CLAIM_EMAIL, email)
+                .claim(CLAIM_PERMISSIONS, permissionMask)
+                .claim(CLAIM_ADMIN, admin)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(expiration)))
+                .signWith(key)
+                .compact();
+    }
+
+    public Instant getExpiration(String token) {
+        return parseClaims(token).getExpiration().toInstant();
+    }
+
+    /**
+     * Valida assinatura e expiração; lança JwtException se o token não for aceito.
+     */
+    public AuthenticatedUser parse(String token) {
+        Claims claims = parseClaims(token);
+        Number mask = claims.get(CLAIM_PERMISSIONS, Number.class);
+        Boolean admin = claims.get(CLAIM_ADMIN, Boolean.class);
+        try {
+            return new AuthenticatedUser(
+                    Long.valueOf(claims.getSubject()),
+                    claims.get(CLAIM_EMAIL, String.class),
+                    mask != null ? mask.longValue() : 0L,
+                    Boolean.TRUE.equals(admin));
+        } catch (NumberFormatException e) {
+            throw new JwtException("Token sem usuário válido");
+        }
+    }
+
+    private Claims parseClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,111 @@
+package com.soldiers.service;
+
+import com.soldiers.dto.projection.OutboxBacklogProjection;
+import com.soldiers.event.LedgerChangedEvent;
+import com.soldiers.repository.BudgetOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lançamento em budgets das entradas enfileiradas em tb_budget_outbox.
+ * Cada método é uma transação curta chamada pelo BudgetOutboxWorker; as entradas
+ * só saem da fila no mesmo commit que as grava em budgets, então nenhuma se perde.
+ * Cada lançamento publica LedgerChangedEvent com o dia mais antigo do lote, para que
+ * os relatórios descartem os períodos fechados que a entrada atrasada alterou.
+ */
+@Service
+public class BudgetOutboxService {
+
+    private final BudgetOutboxRepository budgetOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    private final AtomicLong posted = new AtomicLong();
+    private final AtomicLong duplicatesSkipped = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile LocalDateTime lastPostedAt;
+
+    public BudgetOutboxService(BudgetOutboxRepository budgetOutboxRepository, ApplicationEventPublisher eventPublisher,
+                               @Value("${app.budget-outbox.retry-base-delay-ms:1000}") long baseDelayMs,
+                               @Value("${app.budget-outbox.retry-max-delay-ms:600000}") long maxDelayMs) {
+        this.budgetOutboxRepository = budgetOutboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /**
+     * Lança o próximo lote vencido: um SELECT ... FOR UPDATE SKIP LOCKED, um INSERT ... SELECT
+     * e um DELETE, independentemente do tamanho do lote.
+     *
+     * @return quantas entradas saíram da fila
+     */
+    @Transactional
+    public int postDueBatch(LocalDateTime now, int limit) {
+        List<Long> ids = budgetOutboxRepository.lockDueIds(now, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        post(ids);
+        return ids.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findDueIds(LocalDateTime now, int limit) {
+        return budgetOutboxRepository.findDueIds(now, limit);
+    }
+
+    // Usado para isolar a entrada com problema quando o lote inteiro falha
+    @Transactional
+    public boolean postEntry(Long id) {
+        List<Long> ids = budgetOutboxRepository.lockIds(List.of(id));
+        if (ids.isEmpty()) {
+            return false;
+        }
+        post(ids);
+        return true;
+    }
+
+    @Transactional
+    public void markFailed(Collection<Long> ids, String error, LocalDateTime now) {
+        budgetOutboxRepository.markFailed(ids, error != null ? error : "Erro desconhecido", now, baseDelayMs, maxDelayMs);
+        failures.addAndGet(ids.size());
+    }
+
+    private void post(List<Long> ids) {
+        LocalDateTime earliest = budgetOutboxRepository.findEarliestDate(ids);
+        int inserted = budgetOutboxRepository.postToLedger(ids);
+        budgetOutboxRepository.deleteByIds(ids);
+        if (inserted > 0 && earliest != null) {
+            // Entregue após o commit (@TransactionalEventListener), junto com as linhas em budgets
+            eventPublisher.publishEvent(new LedgerChangedEvent(earliest.toLocalDate()));
+        }
+        posted.addAndGet(inserted);
+        duplicatesSkipped.addAndGet(ids.size() - inserted);
+        lastPostedAt = LocalDateTime.now();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats() {
+        OutboxBacklogProjection backlog = budgetOutboxRepository.getBacklog(LocalDateTime.now());
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", backlog.getPending());
+        stats.put("failing", backlog.getFailing());
+        stats.put("lagSeconds", backlog.getLagSeconds());
+        stats.put("posted", posted.get());
+        stats.put("duplicatesSkipped", duplicatesSkipped.get());
+        stats.put("failures", failures.get());
+        stats.put("lastPostedAt", lastPostedAt);
+        return stats;
+    }
+}
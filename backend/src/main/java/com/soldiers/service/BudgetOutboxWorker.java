@@ -0,0 +1,57 @@
+package com.soldiers.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drena tb_budget_outbox para budgets fora da transação das vendas e viagens.
+ * Lotes cheios são lançados em sequência até a fila vencida esvaziar; se um lote falhar,
+ * as entradas são tentadas uma a uma e só as que falharem voltam com espera exponencial.
+ */
+@Component
+public class BudgetOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetOutboxWorker.class);
+
+    private final BudgetOutboxService budgetOutboxService;
+    private final int batchSize;
+
+    public BudgetOutboxWorker(BudgetOutboxService budgetOutboxService,
+                              @Value("${app.budget-outbox.batch-size:200}") int batchSize) {
+        this.budgetOutboxService = budgetOutboxService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.budget-outbox.poll-interval-ms:1000}")
+    public void drain() {
+        int processed;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                processed = budgetOutboxService.postDueBatch(now, batchSize);
+            } catch (RuntimeException e) {
+                logger.warn("Falha ao lançar lote da outbox do orçamento; tentando entrada por entrada", e);
+                postIndividually(now);
+                return;
+            }
+        } while (processed == batchSize);
+    }
+
+    private void postIndividually(LocalDateTime now) {
+        List<Long> ids = budgetOutboxService.findDueIds(now, batchSize);
+        for (Long id : ids) {
+            try {
+                budgetOutboxService.postEntry(id);
+            } catch (RuntimeException e) {
+                logger.error("Erro ao lançar entrada {} da outbox do orçamento", id, e);
+                budgetOutboxService.markFailed(List.of(id), e.getMessage(), now);
+            }
+        }
+    }
+}
@@ -1,35 +1,59 @@
 package com.soldiers.service;
 
+import com.soldiers.dto.projection.LedgerTotalsProjection;
+import com.soldiers.dto.request.PageCursor;
+import com.soldiers.dto.response.CursorPageResponse;
 import com.soldiers.entity.Budget;
 import com.soldiers.entity.Budget.BudgetType;
+import com.soldiers.entity.Budget.SourceType;
 import com.soldiers.entity.User;
+import com.soldiers.event.LedgerChangedEvent;
+import com.soldiers.repository.BudgetBalanceSnapshotRepository;
+import com.soldiers.repository.BudgetOutboxRepository;
 import com.soldiers.repository.BudgetRepository;
 import com.soldiers.repository.UserRepository;
 import com.soldiers.dto.request.BudgetRequest;
 import com.soldiers.dto.response.BudgetResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 public class BudgetService {
     
+    private static final Logger logger = LoggerFactory.getLogger(BudgetService.class);
+    
     @Autowired
     private BudgetRepository budgetRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private BudgetOutboxRepository budgetOutboxRepository;
+    
+    @Autowired
+    private BudgetBalanceSnapshotRepository budgetBalanceSnapshotRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     /**
      * Verifica se um orçamento está relacionado a uma viagem
      */
     private boolean isTripRelated(Budget budget) {
         if (budget == null) return false;
+        if (budget.getSourceType() == SourceType.TRIP_BUDGET) return true;
         
         String notes = budget.getNotes();
         String description = budget.getDescription();
@@ -61,6 +85,18 @@ public class BudgetService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    public CursorPageResponse<BudgetResponse> getBudgetsPage(String cursor, Integer size) {
+        int pageSize = PageCursor.clampSize(size);
+        PageCursor position = PageCursor.decode(cursor);
+        // Busca uma linha a mais apenas para saber se há próxima página
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Budget> rows = position == null
+                ? budgetRepository.findFirstPage(limit)
+                : budgetRepository.findPageAfter(position.getKey(), position.getId(), limit);
+        return CursorPageResponse.of(rows, pageSize, BudgetResponse::new, Budget::getDate, Budget::getId);
+    }
+    
     @Transactional(readOnly = true)
     public BudgetResponse getBudgetById(Long id) {
         Budget budget = budgetRepository.findById(id)
@@ -112,6 +148,7 @@ public class BudgetService {
         budget.setNotes(request.getNotes());
         
         Budget updatedBudget = budgetRepository.save(budget);
+        eventPublisher.publishEvent(new LedgerChangedEvent(updatedBudget.getDate().toLocalDate()));
         return new BudgetResponse(updatedBudget);
     }
     
@@ -126,6 +163,7 @@ public class BudgetService {
         }
         
         budgetRepository.delete(budget);
+        eventPublisher.publishEvent(new LedgerChangedEvent(budget.getDate().toLocalDate()));
     }
     
     /**
@@ -140,39 +178,80 @@ public class BudgetService {
         // Verifica se realmente é relacionado a viagem
         if (isTripRelated(budget)) {
             budgetRepository.delete(budget);
-            System.out.println("Forçada exclusão de entrada do orçamento geral ID: " + id + " relacionada a viagem");
+            eventPublisher.publishEvent(new LedgerChangedEvent(budget.getDate().toLocalDate()));
+            logger.info("Forçada exclusão de entrada do orçamento geral ID: {} relacionada a viagem", id);
         } else {
             throw new RuntimeException("Tentativa de forçar exclusão de orçamento não relacionado a viagem");
         }
     }
     
+    /**
+     * Remove as entradas geradas por uma origem (venda, movimentação ou gasto de viagem)
+     * usando o índice de source_type/source_id.
+     */
     @Transactional
-    public BudgetResponse createBudgetFromSale(Budget budget) {
-        Budget savedBudget = budgetRepository.save(budget);
-        return new BudgetResponse(savedBudget);
+    public int deleteBySource(SourceType sourceType, Long sourceId) {
+        // Outbox primeiro: se o worker estiver lançando esta origem, espera o commit dele
+        // e o DELETE em budgets seguinte já enxerga a linha lançada
+        budgetOutboxRepository.deleteBySource(sourceType.name(), sourceId);
+        return publishIfRemoved(budgetRepository.deleteBySource(sourceType, sourceId));
+    }
+    
+    /**
+     * Remove de uma vez todas as entradas vinculadas a uma viagem (índice em trip_id).
+     * Usado pelo TripService quando uma viagem é excluída.
+     */
+    @Transactional
+    public int deleteByTrip(Long tripId) {
+        budgetOutboxRepository.deleteByTripId(tripId);
+        return publishIfRemoved(budgetRepository.deleteByTripId(tripId));
+    }
+    
+    // Exclusões em massa não trazem as datas: os relatórios descartam todos os períodos
+    private int publishIfRemoved(int removed) {
+        if (removed > 0) {
+            eventPublisher.publishEvent(new LedgerChangedEvent(null));
+        }
+        return removed;
+    }
+    
+    /**
+     * Enfileira a entrada automática de uma venda ou viagem na transação de quem chama;
+     * o BudgetOutboxWorker a lança em budgets logo depois do commit.
+     */
+    @Transactional
+    public void enqueueEntry(Budget budget) {
+        enqueueEntries(Collections.singletonList(budget));
+    }
+    
+    @Transactional
+    public void enqueueEntries(List<Budget> budgets) {
+        budgetOutboxRepository.enqueueAll(budgets, LocalDateTime.now());
     }
     
+    // Saldos = snapshot acumulado mais recente + movimentações posteriores a ele (BudgetSnapshotService)
     @Transactional(readOnly = true)
     public BigDecimal getCurrentBalance() {
-        BigDecimal balance = budgetRepository.getCurrentBalance();
-        return balance != null ? balance : BigDecimal.ZERO;
+        LedgerTotalsProjection totals = budgetBalanceSnapshotRepository.getCurrentTotals();
+        return totals.getIncome().subtract(totals.getExpense());
     }
     
     @Transactional(readOnly = true)
     public BigDecimal getBalanceBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
-        BigDecimal balance = budgetRepository.getBalanceBetweenDates(startDate, endDate);
-        return balance != null ? balance : BigDecimal.ZERO;
+        // Mesmo intervalo fechado do BETWEEN anterior: acumulado até endDate menos o anterior a startDate
+        LedgerTotalsProjection untilEnd = budgetBalanceSnapshotRepository.getTotalsThrough(endDate);
+        LedgerTotalsProjection beforeStart = budgetBalanceSnapshotRepository.getTotalsBefore(startDate);
+        return untilEnd.getIncome().subtract(beforeStart.getIncome())
+                .subtract(untilEnd.getExpense().subtract(beforeStart.getExpense()));
     }
     
     @Transactional(readOnly = true)
     public BigDecimal getTotalIncome() {
-        BigDecimal income = budgetRepository.sumByType(BudgetType.INCOME);
-        return income != null ? income : BigDecimal.ZERO;
+        return budgetBalanceSnapshotRepository.getCurrentTotals().getIncome();
     }
     
     @Transactional(readOnly = true)
     public BigDecimal getTotalExpenses() {
-        BigDecimal expenses = budgetRepository.sumByType(BudgetType.EXPENSE);
-        return expenses != null ? expenses : BigDecimal.ZERO;
+        return budgetBalanceSnapshotRepository.getCurrentTotals().getExpense();
     }
 }
@@ -0,0 +1,81 @@
+package com.soldiers.service;
+
+import com.soldiers.dto.projection.DailyLedgerTotalsProjection;
+import com.soldiers.entity.BudgetBalanceSnapshot;
+import com.soldiers.repository.BudgetBalanceSnapshotRepository;
+import com.soldiers.repository.BudgetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mantém tb_budget_balance_snapshot em dia até ontem, para que os saldos do BudgetService
+ * somem só as movimentações posteriores ao último snapshot em vez da tabela budgets inteira.
+ * A reconstrução é incremental: parte do snapshot mais recente que o trigger de budgets
+ * deixou válido e agrupa por dia apenas as movimentações depois dele.
+ */
+@Service
+public class BudgetSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetSnapshotService.class);
+
+    private final BudgetBalanceSnapshotRepository snapshotRepository;
+    private final BudgetRepository budgetRepository;
+
+    public BudgetSnapshotService(BudgetBalanceSnapshotRepository snapshotRepository, BudgetRepository budgetRepository) {
+        this.snapshotRepository = snapshotRepository;
+        this.budgetRepository = budgetRepository;
+    }
+
+    @Scheduled(initialDelayString = "${app.budget-snapshot.initial-delay-ms:30000}",
+               fixedDelayString = "${app.budget-snapshot.refresh-interval-ms:300000}")
+    @Transactional
+    public void refreshSnapshots() {
+        // Com movimentações em andamento o lock falha; a próxima execução tenta de novo
+        if (!snapshotRepository.tryLockRebuild()) {
+            logger.debug("Snapshots do orçamento não atualizados: movimentações em andamento");
+            return;
+        }
+
+        LocalDate target = LocalDate.now().minusDays(1);
+        Optional<BudgetBalanceSnapshot> latest = snapshotRepository.findTopByOrderByDayDesc();
+        if (latest.isPresent() && !latest.get().getDay().isBefore(target)) {
+            return;
+        }
+
+        LocalDate from;
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        if (latest.isPresent()) {
+            from = latest.get().getDay().plusDays(1);
+            income = latest.get().getCumulativeIncome();
+            expense = latest.get().getCumulativeExpense();
+        } else {
+            LocalDateTime earliest = budgetRepository.findEarliestDate();
+            from = earliest == null || earliest.toLocalDate().isAfter(target) ? target : earliest.toLocalDate();
+        }
+
+        List<BudgetBalanceSnapshot> snapshots = new ArrayList<>();
+        for (DailyLedgerTotalsProjection day : snapshotRepository.findDailyTotals(from.atStartOfDay(),
+                                                                                 target.plusDays(1).atStartOfDay())) {
+            income = income.add(day.getIncome());
+            expense = expense.add(day.getExpense());
+            snapshots.add(new BudgetBalanceSnapshot(day.getDay().toLocalDate(), income, expense));
+        }
+        // Ontem sempre ganha um snapshot, mesmo sem movimentação, para a soma seguinte começar hoje
+        if (snapshots.isEmpty() || !snapshots.get(snapshots.size() - 1).getDay().equals(target)) {
+            snapshots.add(new BudgetBalanceSnapshot(target, income, expense));
+        }
+        snapshotRepository.saveAll(snapshots);
+        logger.info("Snapshots do orçamento atualizados de {} a {} ({} dias)", from, target, snapshots.size());
+    }
+}
@@ -0,0 +1,126 @@
+package com.soldiers.service;
+
+import com.soldiers.event.LedgerChangedEvent;
+import com.soldiers.event.ProductChangedEvent;
+import com.soldiers.event.ProfileChangedEvent;
+import com.soldiers.event.SaleChangedEvent;
+import com.soldiers.repository.CacheVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão compartilhada dos caches em memória entre as instâncias do backend.
+ * Após o commit de uma alteração, a instância incrementa a sequência da área (V10__cache_versions);
+ * os caches perguntam {@link #hasChanged(Region)} a cada leitura e, no máximo uma vez por
+ * intervalo, a versão é lida do banco. Versão diferente da última vista significa alteração
+ * feita por outra instância: o cache local é descartado. Atraso máximo: o intervalo de revalidação.
+ */
+@Service
+public class CacheVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheVersionService.class);
+
+    public enum Region {
+        PRODUCTS("seq_cache_version_products"),
+        PROFILES("seq_cache_version_profiles"),
+        SALES("seq_cache_version_sales"),
+        LEDGER("seq_cache_version_ledger");
+
+        private final String sequence;
+
+        Region(String sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    private final CacheVersionRepository cacheVersionRepository;
+    private final long revalidateIntervalNanos;
+    private final Map<Region, Tracker> trackers = new EnumMap<>(Region.class);
+
+    public CacheVersionService(CacheVersionRepository cacheVersionRepository,
+                               @Value("${app.cache.revalidate-interval-ms:5000}") long revalidateIntervalMs) {
+        this.cacheVersionRepository = cacheVersionRepository;
+        this.revalidateIntervalNanos = Duration.ofMillis(revalidateIntervalMs).toNanos();
+        for (Region region : Region.values()) {
+            trackers.put(region, new Tracker(System.nanoTime()));
+        }
+    }
+
+    /**
+     * True quando outra instância alterou a área desde a última verificação.
+     * Fora do intervalo de revalidação não vai ao banco; só uma thread por vez faz a leitura.
+     */
+    public boolean hasChanged(Region region) {
+        Tracker tracker = trackers.get(region);
+        long now = System.nanoTime();
+        long due = tracker.nextCheck.get();
+        if (now - due < 0 || !tracker.nextCheck.compareAndSet(due, now + revalidateIntervalNanos)) {
+            return false;
+        }
+        long version = cacheVersionRepository.current(region.sequence);
+        long previous = tracker.lastSeen.getAndSet(version);
+        if (previous != version) {
+            logger.debug("Cache {} alterado por outra instância (versão {} -> {})", region, previous, version);
+            return true;
+        }
+        return false;
+    }
+
+    /*
+     * Incrementos após o commit. Rodam ainda na conexão da transação que terminou, sem pedir
+     * outra ao pool; nextval não é transacional, então vale mesmo sem novo commit.
+     */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductChangedEvent event) {
+        increment(Region.PRODUCTS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(ProfileChangedEvent event) {
+        increment(Region.PROFILES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        increment(Region.SALES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        increment(Region.LEDGER);
+    }
+
+    private void increment(Region region) {
+        long version;
+        try {
+            version = cacheVersionRepository.increment(region.sequence);
+        } catch (RuntimeException e) {
+            // A alteração já foi confirmada: não devolve erro ao cliente, as outras instâncias
+            // só verão a mudança no próximo incremento desta área
+            logger.warn("Falha ao incrementar a versão do cache {}: {}", region, e.getMessage());
+            return;
+        }
+        // Alteração local (o cache desta instância já foi atualizado pelo próprio evento):
+        // se ninguém incrementou no meio, a próxima verificação não precisa descartar o cache
+        trackers.get(region).lastSeen.compareAndSet(version - 1, version);
+    }
+
+    private static final class Tracker {
+
+        private final AtomicLong lastSeen = new AtomicLong(-1L);
+        private final AtomicLong nextCheck;
+
+        private Tracker(long nextCheck) {
+            this.nextCheck = new AtomicLong(nextCheck);
+        }
+    }
+}
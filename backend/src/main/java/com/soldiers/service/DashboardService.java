@@ -1,50 +1,76 @@
 package com.soldiers.service;
 
+import com.soldiers.dto.projection.GameRevenueProjection;
+import com.soldiers.dto.projection.ProductGameEventProjection;
+import com.soldiers.dto.projection.SalesTotalsProjection;
+import com.soldiers.dto.projection.SellerRevenueProjection;
+import com.soldiers.dto.projection.TopProductProjection;
 import com.soldiers.entity.GameEvent;
-import com.soldiers.entity.Sale;
-import com.soldiers.entity.SaleItem;
+import com.soldiers.event.SaleChangedEvent;
 import com.soldiers.repository.GameEventRepository;
+import com.soldiers.repository.SaleAggregateRepository;
+import com.soldiers.repository.SaleItemRepository;
 import com.soldiers.repository.SaleRepository;
+import com.soldiers.service.CacheVersionService.Region;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class DashboardService {
 
+    private static final int MAX_TOP_PRODUCTS = 100;
+    private static final int TOP_PRODUCTS_CACHE_SIZE = 64;
+
     private final SaleRepository saleRepository;
     private final GameEventRepository gameEventRepository;
     private final ProductService productService;
+    private final SaleAggregateRepository saleAggregateRepository;
+    private final SaleItemRepository saleItemRepository;
+    private final CacheVersionService cacheVersionService;
+
+    // Cache LRU dos rankings de produtos, limpo a cada venda confirmada (nesta ou em outra instância)
+    private final Map<String, List<Map<String, Object>>> topProductsCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, List<Map<String, Object>>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<Map<String, Object>>> eldest) {
+                    return size() > TOP_PRODUCTS_CACHE_SIZE;
+                }
+            });
+
+    // Incrementada a cada limpeza: rankings calculados antes dela não entram no cache
+    private long topProductsGeneration;
 
     public DashboardService(SaleRepository saleRepository, GameEventRepository gameEventRepository,
-                          ProductService productService) {
+                          ProductService productService, SaleAggregateRepository saleAggregateRepository,
+                          SaleItemRepository saleItemRepository, CacheVersionService cacheVersionService) {
         this.saleRepository = saleRepository;
         this.gameEventRepository = gameEventRepository;
         this.productService = productService;
+        this.saleAggregateRepository = saleAggregateRepository;
+        this.saleItemRepository = saleItemRepository;
+        this.cacheVersionService = cacheVersionService;
     }
 
     public Map<String, Object> getDashboardOverview() {
         Map<String, Object> overview = new HashMap<>();
         
-        // Total de vendas
-        List<Sale> allSales = saleRepository.findAllActiveOrderByDate();
-        overview.put("totalSales", allSales.size());
-        
-        // Total de receita
-        BigDecimal totalRevenue = allSales.stream()
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        overview.put("totalRevenue", totalRevenue);
+        // Total de vendas e receita (lidos dos agregados, sem varrer tb_sale)
+        SalesTotalsProjection totals = saleAggregateRepository.getTotals();
+        overview.put("totalSales", totals.getSaleCount());
+        overview.put("totalRevenue", totals.getRevenue());
         
         // Total de produtos
-        List<com.soldiers.entity.Product> products = productService.getAllProducts();
-        overview.put("totalProducts", products.size());
+        overview.put("totalProducts", productService.getAllProducts().getProducts().size());
         
         // Produtos com estoque baixo
-        List<com.soldiers.entity.Product> lowStockProducts = productService.getLowStockProducts(10);
-        overview.put("lowStockProducts", lowStockProducts.size());
+        overview.put("lowStockProducts", productService.getLowStockProducts(10).size());
         
         // Próximos jogos
         List<GameEvent> upcomingEvents = gameEventRepository.findUpcomingEvents(java.time.LocalDate.now());
@@ -53,19 +79,18 @@ public class DashboardService {
         return overview;
     }
 
-    public Map<String, Object> getRevenueByGame() {
+    public Map<String, Object> getRevenueByGame(LocalDate startDate, LocalDate endDate, GameEvent.GameStatus status) {
         Map<String, Object> revenueData = new HashMap<>();
-        List<GameEvent> gameEvents = gameEventRepository.findAllActive();
         
+        // Uma única consulta agrupada em vez de uma consulta por jogo
         List<Map<String, Object>> gameRevenue = new ArrayList<>();
-        for (GameEvent gameEvent : gameEvents) {
-            BigDecimal revenue = saleRepository.getTotalRevenueByGameEvent(gameEvent.getId());
-            if (revenue == null) revenue = BigDecimal.ZERO;
-            
+        for (GameRevenueProjection game : saleRepository.getRevenueByGame(startDate, endDate, status)) {
             Map<String, Object> gameData = new HashMap<>();
-            gameData.put("gameName", gameEvent.getName());
-            gameData.put("revenue", revenue);
-            gameData.put("date", gameEvent.getDate());
+            gameData.put("gameEventId", game.getGameEventId());
+            gameData.put("gameName", game.getGameName());
+            gameData.put("revenue", game.getRevenue());
+            gameData.put("saleCount", game.getSaleCount());
+            gameData.put("date", game.getDate());
             gameRevenue.add(gameData);
         }
         
@@ -73,18 +98,86 @@ public class DashboardService {
         return revenueData;
     }
 
-    public List<Map<String, Object>> getTopProducts() {
-        // Por enquanto, retornar uma lista vazia para evitar problemas de serialização
-        return new ArrayList<>();
+    public List<Map<String, Object>> getTopProducts(int limit, LocalDate startDate, LocalDate endDate) {
+        int size = Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS));
+        String cacheKey = size + "|" + startDate + "|" + endDate;
+
+        if (cacheVersionService.hasChanged(Region.SALES)) {
+            clearTopProducts();
+        }
+        List<Map<String, Object>> cached;
+        long loadGeneration;
+        synchronized (topProductsCache) {
+            cached = topProductsCache.get(cacheKey);
+            loadGeneration = topProductsGeneration;
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        LocalDateTime start = startDate != null ? startDate.atStartOfDay() : null;
+        LocalDateTime end = endDate != null ? endDate.plusDays(1).atStartOfDay() : null;
+
+        List<TopProductProjection> topProducts = saleItemRepository.findTopProducts(start, end, PageRequest.of(0, size));
+        if (topProducts.isEmpty()) {
+            cacheTopProducts(cacheKey, Collections.emptyList(), loadGeneration);
+            return Collections.emptyList();
+        }
+
+        // Jogos em que cada produto foi vendido, buscados de uma vez para todo o ranking
+        List<Long> productIds = topProducts.stream()
+                .map(TopProductProjection::getProductId)
+                .collect(Collectors.toList());
+        Map<Long, List<Map<String, Object>>> gameEventsByProduct = new HashMap<>();
+        for (ProductGameEventProjection row : saleItemRepository.findGameEventsByProducts(productIds, start, end)) {
+            Map<String, Object> gameEvent = new HashMap<>();
+            gameEvent.put("id", row.getGameEventId());
+            gameEvent.put("name", row.getGameName());
+            gameEvent.put("date", row.getGameDate());
+            gameEventsByProduct.computeIfAbsent(row.getProductId(), id -> new ArrayList<>()).add(gameEvent);
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (TopProductProjection product : topProducts) {
+            Map<String, Object> productData = new HashMap<>();
+            productData.put("productId", product.getProductId());
+            productData.put("productName", product.getProductName());
+            productData.put("unitsSold", product.getUnitsSold());
+            productData.put("revenue", product.getRevenue());
+            productData.put("gameEvents", gameEventsByProduct.getOrDefault(product.getProductId(), Collections.emptyList()));
+            result.add(productData);
+        }
+
+        List<Map<String, Object>> snapshot = Collections.unmodifiableList(result);
+        cacheTopProducts(cacheKey, snapshot, loadGeneration);
+        return snapshot;
+    }
+
+    private void cacheTopProducts(String cacheKey, List<Map<String, Object>> ranking, long loadGeneration) {
+        synchronized (topProductsCache) {
+            if (topProductsGeneration == loadGeneration) {
+                topProductsCache.put(cacheKey, ranking);
+            }
+        }
+    }
+
+    private void clearTopProducts() {
+        synchronized (topProductsCache) {
+            topProductsGeneration++;
+            topProductsCache.clear();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onSaleChanged(SaleChangedEvent event) {
+        clearTopProducts();
     }
 
     public Map<String, Object> getSalesBySeller() {
-        List<Sale> allSales = saleRepository.findAllActiveOrderByDate();
         Map<String, BigDecimal> sellerRevenue = new HashMap<>();
         
-        for (Sale sale : allSales) {
-            String sellerName = sale.getSeller().getName();
-            sellerRevenue.merge(sellerName, sale.getTotalAmount(), BigDecimal::add);
+        for (SellerRevenueProjection seller : saleAggregateRepository.getRevenueBySeller()) {
+            sellerRevenue.merge(seller.getSellerName(), seller.getRevenue(), BigDecimal::add);
         }
         
         Map<String, Object> salesData = new HashMap<>();
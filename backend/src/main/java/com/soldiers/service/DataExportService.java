@@ -0,0 +1,204 @@
+package com.soldiers.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soldiers.dto.projection.BudgetExportRow;
+import com.soldiers.dto.projection.SaleExportRow;
+import com.soldiers.repository.BudgetRepository;
+import com.soldiers.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportações de orçamento e vendas em CSV e JSON lines.
+ * Os registros são lidos por cursor e escritos direto no stream da resposta,
+ * com memória constante independentemente do tamanho das tabelas.
+ */
+@Service
+public class DataExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataExportService.class);
+
+    private final BudgetRepository budgetRepository;
+    private final SaleRepository saleRepository;
+    private final ObjectMapper objectMapper;
+
+    public DataExportService(BudgetRepository budgetRepository, SaleRepository saleRepository,
+                             ObjectMapper objectMapper) {
+        this.budgetRepository = budgetRepository;
+        this.saleRepository = saleRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportBudgetsCsv(OutputStream outputStream, LocalDate startDate, LocalDate endDate, boolean gzip) throws IOException {
+        try (Stream<BudgetExportRow> rows = budgetRepository.streamForExport(startOf(startDate), endOf(endDate))) {
+            Writer writer = open(outputStream, gzip);
+            writer.write("id,description,amount,type,date,userName,notes\n");
+            writer.flush();
+
+            long count = 0;
+            Iterator<BudgetExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                BudgetExportRow row = iterator.next();
+                writeCsvLine(writer, row.getId(), row.getDescription(), row.getAmount(), row.getType(),
+                             row.getDate(), row.getUserName(), row.getNotes());
+                count++;
+            }
+            writer.close();
+            logger.info("Exportação CSV de orçamento concluída: {} registros", count);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportBudgetsNdjson(OutputStream outputStream, LocalDate startDate, LocalDate endDate, boolean gzip) throws IOException {
+        try (Stream<BudgetExportRow> rows = budgetRepository.streamForExport(startOf(startDate), endOf(endDate))) {
+            Writer writer = open(outputStream, gzip);
+
+            long count = 0;
+            Iterator<BudgetExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                BudgetExportRow row = iterator.next();
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("id", row.getId());
+                line.put("description", row.getDescription());
+                line.put("amount", row.getAmount());
+                line.put("type", row.getType());
+                line.put("date", row.getDate());
+                line.put("userName", row.getUserName());
+                line.put("notes", row.getNotes());
+                writeJsonLine(writer, line);
+                count++;
+            }
+            writer.close();
+            logger.info("Exportação NDJSON de orçamento concluída: {} registros", count);
+        }
+    }
+
+    /**
+     * CSV de vendas com uma linha por item vendido.
+     */
+    @Transactional(readOnly = true)
+    public void exportSalesCsv(OutputStream outputStream, LocalDate startDate, LocalDate endDate, boolean gzip) throws IOException {
+        try (Stream<SaleExportRow> rows = saleRepository.streamForExport(startOf(startDate), endOf(endDate))) {
+            Writer writer = open(outputStream, gzip);
+            writer.write("saleId,criadoEm,gameName,sellerName,totalAmount,productId,productName,quantity,price\n");
+            writer.flush();
+
+            long count = 0;
+            Iterator<SaleExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                SaleExportRow row = iterator.next();
+                writeCsvLine(writer, row.getSaleId(), row.getCriadoEm(), row.getGameName(), row.getSellerName(),
+                             row.getTotalAmount(), row.getProductId(), row.getProductName(),
+                             row.getQuantity(), row.getPrice());
+                count++;
+            }
+            writer.close();
+            logger.info("Exportação CSV de vendas concluída: {} itens", count);
+        }
+    }
+
+    /**
+     * JSON lines de vendas com um objeto por venda e seus itens agrupados.
+     * As linhas chegam ordenadas por venda, então basta agrupar as consecutivas.
+     */
+    @Transactional(readOnly = true)
+    public void exportSalesNdjson(OutputStream outputStream, LocalDate startDate, LocalDate endDate, boolean gzip) throws IOException {
+        try (Stream<SaleExportRow> rows = saleRepository.streamForExport(startOf(startDate), endOf(endDate))) {
+            Writer writer = open(outputStream, gzip);
+
+            long count = 0;
+            Map<String, Object> current = null;
+            List<Map<String, Object>> items = null;
+            Iterator<SaleExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                SaleExportRow row = iterator.next();
+                if (current == null || !row.getSaleId().equals(current.get("id"))) {
+                    if (current != null) {
+                        writeJsonLine(writer, current);
+                        count++;
+                    }
+                    current = new LinkedHashMap<>();
+                    items = new ArrayList<>();
+                    current.put("id", row.getSaleId());
+                    current.put("criadoEm", row.getCriadoEm());
+                    current.put("gameName", row.getGameName());
+                    current.put("sellerName", row.getSellerName());
+                    current.put("totalAmount", row.getTotalAmount());
+                    current.put("items", items);
+                }
+
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("productId", row.getProductId());
+                item.put("productName", row.getProductName());
+                item.put("quantity", row.getQuantity());
+                item.put("price", row.getPrice());
+                items.add(item);
+            }
+            if (current != null) {
+                writeJsonLine(writer, current);
+                count++;
+            }
+            writer.close();
+            logger.info("Exportação NDJSON de vendas concluída: {} vendas", count);
+        }
+    }
+
+    private Writer open(OutputStream outputStream, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream, true) : outputStream;
+        return new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+    }
+
+    private void writeJsonLine(Writer writer, Map<String, Object> line) throws IOException {
+        writer.write(objectMapper.writeValueAsString(line));
+        writer.write('\n');
+    }
+
+    private void writeCsvLine(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csv(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private LocalDateTime startOf(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+
+    // Fim exclusivo: início do dia seguinte
+    private LocalDateTime endOf(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
+    }
+}
@@ -1,109 +1,149 @@
 package com.soldiers.service;
 
 import com.soldiers.dto.response.BudgetResponse;
+import com.soldiers.entity.Budget;
 import com.soldiers.entity.Budget.BudgetType;
+import com.soldiers.repository.BudgetRepository;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @Service
 public class ExcelExportService {
 
     private static final Logger logger = LoggerFactory.getLogger(ExcelExportService.class);
 
+    // Linhas mantidas em memória pelo SXSSF; as anteriores são descarregadas em arquivo temporário
+    private static final int ROW_ACCESS_WINDOW = 100;
+
+    // Última linha de uma aba XLSX (1.048.576 linhas, contando o cabeçalho)
+    private static final int MAX_ROW_INDEX = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+
+    private static final String SHEET_NAME = "Orçamento";
+
     @Autowired
-    private BudgetService budgetService;
+    private BudgetRepository budgetRepository;
 
-    public byte[] exportBudgetToExcel() throws IOException {
-        try {
-            logger.info("Iniciando exportação para Excel...");
-            
-            List<BudgetResponse> budgets = budgetService.getAllBudgets();
-            logger.info("Dados carregados: {} registros", budgets.size());
-            
-            try (Workbook workbook = new XSSFWorkbook()) {
-                logger.info("Criando planilha...");
-                Sheet sheet = workbook.createSheet("Orçamento");
-                
-                // Criar estilo para cabeçalho
-                CellStyle headerStyle = workbook.createCellStyle();
-                Font headerFont = workbook.createFont();
-                headerFont.setBold(true);
-                headerFont.setColor(IndexedColors.WHITE.getIndex());
-                headerStyle.setFont(headerFont);
-                headerStyle.setFillForegroundColor(IndexedColors.BLUE.getIndex());
-                headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-                headerStyle.setAlignment(HorizontalAlignment.CENTER);
-                
-                // Criar cabeçalho
-                Row headerRow = sheet.createRow(0);
-                String[] headers = {"ID", "Descrição", "Valor", "Tipo", "Data", "Usuário", "Vendedor", "Observações"};
-                
-                for (int i = 0; i < headers.length; i++) {
-                    Cell cell = headerRow.createCell(i);
-                    cell.setCellValue(headers[i]);
-                    cell.setCellStyle(headerStyle);
-                }
-                
-                logger.info("Cabeçalho criado, preenchendo dados...");
-                
-                // Preencher dados
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-                
-                for (int i = 0; i < budgets.size(); i++) {
-                    BudgetResponse budget = budgets.get(i);
-                    Row row = sheet.createRow(i + 1);
-                    
-                    row.createCell(0).setCellValue(budget.getId());
-                    row.createCell(1).setCellValue(budget.getDescription());
-                    row.createCell(2).setCellValue(budget.getAmount().doubleValue());
-                    row.createCell(3).setCellValue(getTypeText(budget.getType()));
-                    row.createCell(4).setCellValue(budget.getDate().format(formatter));
-                    row.createCell(5).setCellValue(budget.getUserName());
-                    
-                    // Extrair nome do vendedor se for uma venda
-                    String sellerName = extractSellerName(budget);
-                    row.createCell(6).setCellValue(sellerName);
-                    
-                    row.createCell(7).setCellValue(budget.getNotes() != null ? budget.getNotes() : "");
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Gera a planilha do orçamento diretamente no stream de saída.
+     * Os registros são lidos por cursor e as linhas escritas em janela fixa,
+     * então o consumo de memória não depende do tamanho do orçamento.
+     */
+    @Transactional(readOnly = true)
+    public void exportBudgetToExcel(OutputStream outputStream) throws IOException {
+        exportBudgetToExcel(outputStream, MAX_ROW_INDEX);
+    }
+
+    // Limite de linhas por aba recebido como parâmetro para os testes cobrirem a troca de aba
+    void exportBudgetToExcel(OutputStream outputStream, int lastRowIndex) throws IOException {
+        logger.info("Iniciando exportação para Excel...");
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<Budget> budgets = budgetRepository.streamAll()) {
+            // Criar estilo para cabeçalho
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerFont.setColor(IndexedColors.WHITE.getIndex());
+            headerStyle.setFont(headerFont);
+            headerStyle.setFillForegroundColor(IndexedColors.BLUE.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            headerStyle.setAlignment(HorizontalAlignment.CENTER);
+
+            int sheetCount = 1;
+            Sheet sheet = createBudgetSheet(workbook, SHEET_NAME, headerStyle);
+
+            // Preencher dados
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+            int rowIndex = 1;
+            long exported = 0;
+            Iterator<Budget> iterator = budgets.iterator();
+            while (iterator.hasNext()) {
+                Budget entity = iterator.next();
+                BudgetResponse budget = new BudgetResponse(entity);
+                // Libera a entidade do contexto de persistência para não acumular em memória
+                entityManager.detach(entity);
+
+                // Planilha cheia (limite do XLSX): continua em uma nova aba com o mesmo cabeçalho
+                if (rowIndex > lastRowIndex) {
+                    sheetCount++;
+                    sheet = createBudgetSheet(workbook, SHEET_NAME + " (" + sheetCount + ")", headerStyle);
+                    rowIndex = 1;
                 }
-                
-                logger.info("Dados preenchidos, ajustando colunas...");
-                
-                // Definir largura fixa para as colunas (evita problemas de AWT no Docker)
-                sheet.setColumnWidth(0, 10 * 256); // ID
-                sheet.setColumnWidth(1, 40 * 256); // Descrição
-                sheet.setColumnWidth(2, 15 * 256); // Valor
-                sheet.setColumnWidth(3, 15 * 256); // Tipo
-                sheet.setColumnWidth(4, 20 * 256); // Data
-                sheet.setColumnWidth(5, 25 * 256); // Usuário
-                sheet.setColumnWidth(6, 20 * 256); // Vendedor
-                sheet.setColumnWidth(7, 30 * 256); // Observações
-                
-                logger.info("Convertendo para byte array...");
-                
-                // Converter para byte array
-                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-                workbook.write(outputStream);
-                byte[] result = outputStream.toByteArray();
-                
-                logger.info("Exportação concluída com sucesso. Tamanho: {} bytes", result.length);
-                return result;
+
+                Row row = sheet.createRow(rowIndex++);
+                exported++;
+
+                row.createCell(0).setCellValue(budget.getId());
+                row.createCell(1).setCellValue(budget.getDescription());
+                row.createCell(2).setCellValue(budget.getAmount().doubleValue());
+                row.createCell(3).setCellValue(getTypeText(budget.getType()));
+                row.createCell(4).setCellValue(budget.getDate().format(formatter));
+                row.createCell(5).setCellValue(budget.getUserName());
+
+                // Extrair nome do vendedor se for uma venda
+                String sellerName = extractSellerName(budget);
+                row.createCell(6).setCellValue(sellerName);
+
+                row.createCell(7).setCellValue(budget.getNotes() != null ? budget.getNotes() : "");
             }
+
+            workbook.write(outputStream);
+            outputStream.flush();
+            logger.info("Exportação concluída com sucesso. Registros: {}, abas: {}", exported, sheetCount);
         } catch (Exception e) {
             logger.error("Erro durante exportação para Excel: {}", e.getMessage(), e);
             throw e;
+        } finally {
+            // Remove os arquivos temporários gerados pelo SXSSF
+            workbook.dispose();
+            workbook.close();
         }
     }
     
+    private Sheet createBudgetSheet(SXSSFWorkbook workbook, String name, CellStyle headerStyle) {
+        Sheet sheet = workbook.createSheet(name);
+
+        // Criar cabeçalho
+        Row headerRow = sheet.createRow(0);
+        String[] headers = {"ID", "Descrição", "Valor", "Tipo", "Data", "Usuário", "Vendedor", "Observações"};
+
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+
+        // Definir largura fixa para as colunas (evita problemas de AWT no Docker)
+        sheet.setColumnWidth(0, 10 * 256); // ID
+        sheet.setColumnWidth(1, 40 * 256); // Descrição
+        sheet.setColumnWidth(2, 15 * 256); // Valor
+        sheet.setColumnWidth(3, 15 * 256); // Tipo
+        sheet.setColumnWidth(4, 20 * 256); // Data
+        sheet.setColumnWidth(5, 25 * 256); // Usuário
+        sheet.setColumnWidth(6, 20 * 256); // Vendedor
+        sheet.setColumnWidth(7, 30 * 256); // Observações
+        return sheet;
+    }
+
     private String getTypeText(BudgetType type) {
         switch (type) {
             case INCOME:
@@ -0,0 +1,184 @@
+package com.soldiers.service;
+
+import com.soldiers.dto.projection.PeriodLedgerTotalsProjection;
+import com.soldiers.dto.projection.PeriodSalesTotalsProjection;
+import com.soldiers.dto.response.FinancialReportResponse;
+import com.soldiers.dto.response.FinancialReportResponse.Bucket;
+import com.soldiers.dto.response.FinancialReportResponse.Granularity;
+import com.soldiers.event.LedgerChangedEvent;
+import com.soldiers.repository.BudgetRepository;
+import com.soldiers.repository.SaleAggregateRepository;
+import com.soldiers.service.CacheVersionService.Region;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Relatório financeiro por período, agrupado no PostgreSQL com date_trunc.
+ * Períodos fechados ficam em um cache LRU; só os que faltam no cache (normalmente
+ * apenas o período corrente) são consultados, em uma única faixa de datas.
+ * Alterações retroativas (LedgerChangedEvent) descartam os períodos afetados; as feitas
+ * em outra instância descartam o cache inteiro na revalidação do CacheVersionService.
+ */
+@Service
+public class FinancialReportService {
+
+    private static final int DEFAULT_PERIODS = 12;
+    private static final int MAX_PERIODS = 400;
+    private static final int CACHE_SIZE = 2048;
+
+    private final BudgetRepository budgetRepository;
+    private final SaleAggregateRepository saleAggregateRepository;
+    private final CacheVersionService cacheVersionService;
+
+    // Margem após o fim do período para entradas ainda na outbox do orçamento
+    private final Duration closeGrace;
+
+    private final Map<String, Bucket> closedBuckets = Collections.synchronizedMap(
+            new LinkedHashMap<String, Bucket>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    // Incrementada a cada invalidação: consultas iniciadas antes dela não entram no cache.
+    // Lida e alterada sempre com a trava de closedBuckets, junto com o próprio mapa
+    private long generation;
+
+    public FinancialReportService(BudgetRepository budgetRepository, SaleAggregateRepository saleAggregateRepository,
+                                  CacheVersionService cacheVersionService,
+                                  @Value("${app.report.close-grace-minutes:60}") long closeGraceMinutes) {
+        this.budgetRepository = budgetRepository;
+        this.saleAggregateRepository = saleAggregateRepository;
+        this.cacheVersionService = cacheVersionService;
+        this.closeGrace = Duration.ofMinutes(closeGraceMinutes);
+    }
+
+    @Transactional(readOnly = true)
+    public FinancialReportResponse getReport(Granularity granularity, LocalDate startDate, LocalDate endDate) {
+        LocalDate last = granularity.truncate(endDate != null ? endDate : LocalDate.now());
+        LocalDate first = startDate != null
+                ? granularity.truncate(startDate)
+                : granularity.plus(last, 1 - DEFAULT_PERIODS);
+        if (first.isAfter(last)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Data inicial posterior à data final");
+        }
+
+        List<LocalDate> periods = new ArrayList<>();
+        for (LocalDate period = first; !period.isAfter(last); period = granularity.plus(period, 1)) {
+            if (periods.size() == MAX_PERIODS) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Período muito longo: máximo de " + MAX_PERIODS + " intervalos por relatório");
+            }
+            periods.add(period);
+        }
+
+        if (cacheVersionService.hasChanged(Region.LEDGER)) {
+            invalidate(null);
+        }
+
+        LocalDateTime closedBefore = LocalDateTime.now().minus(closeGrace);
+        Map<LocalDate, Bucket> buckets = new HashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        long loadGeneration;
+        synchronized (closedBuckets) {
+            loadGeneration = generation;
+            for (LocalDate period : periods) {
+                Bucket cached = isClosed(granularity, period, closedBefore) ? closedBuckets.get(key(granularity, period)) : null;
+                if (cached != null) {
+                    buckets.put(period, cached);
+                } else {
+                    firstMissing = firstMissing == null ? period : firstMissing;
+                    lastMissing = period;
+                }
+            }
+        }
+
+        if (firstMissing != null) {
+            List<Bucket> loaded = load(granularity, firstMissing, lastMissing, closedBefore);
+            synchronized (closedBuckets) {
+                for (Bucket bucket : loaded) {
+                    buckets.putIfAbsent(bucket.getPeriodStart(), bucket);
+                    if (bucket.isClosed() && generation == loadGeneration) {
+                        closedBuckets.put(key(granularity, bucket.getPeriodStart()), bucket);
+                    }
+                }
+            }
+        }
+
+        List<Bucket> ordered = new ArrayList<>(periods.size());
+        for (LocalDate period : periods) {
+            ordered.add(buckets.get(period));
+        }
+        return new FinancialReportResponse(granularity, ordered);
+    }
+
+    // Uma consulta por tabela para toda a faixa [first, last], com períodos sem movimento zerados
+    private List<Bucket> load(Granularity granularity, LocalDate first, LocalDate last, LocalDateTime closedBefore) {
+        LocalDate until = granularity.plus(last, 1);
+        Map<LocalDate, PeriodLedgerTotalsProjection> ledger = new HashMap<>();
+        for (PeriodLedgerTotalsProjection row : budgetRepository.findPeriodTotals(granularity.getUnit(),
+                first.atStartOfDay(), until.atStartOfDay())) {
+            ledger.put(row.getPeriodStart().toLocalDate(), row);
+        }
+        Map<LocalDate, PeriodSalesTotalsProjection> sales = new HashMap<>();
+        for (PeriodSalesTotalsProjection row : saleAggregateRepository.findPeriodTotals(granularity.getUnit(), first, until)) {
+            sales.put(row.getPeriodStart().toLocalDate(), row);
+        }
+
+        List<Bucket> result = new ArrayList<>();
+        for (LocalDate period = first; !period.isAfter(last); period = granularity.plus(period, 1)) {
+            PeriodLedgerTotalsProjection totals = ledger.get(period);
+            PeriodSalesTotalsProjection saleTotals = sales.get(period);
+            result.add(new Bucket(period, granularity.plus(period, 1).minusDays(1),
+                    totals != null ? totals.getIncome() : BigDecimal.ZERO,
+                    totals != null ? totals.getExpense() : BigDecimal.ZERO,
+                    totals != null ? totals.getTransfer() : BigDecimal.ZERO,
+                    saleTotals != null && saleTotals.getSaleCount() != null ? saleTotals.getSaleCount() : 0L,
+                    saleTotals != null && saleTotals.getRevenue() != null ? saleTotals.getRevenue() : BigDecimal.ZERO,
+                    isClosed(granularity, period, closedBefore)));
+        }
+        return result;
+    }
+
+    private boolean isClosed(Granularity granularity, LocalDate period, LocalDateTime closedBefore) {
+        return !granularity.plus(period, 1).atStartOfDay().isAfter(closedBefore);
+    }
+
+    private String key(Granularity granularity, LocalDate period) {
+        return granularity + "|" + period;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        invalidate(event.getFromDay());
+    }
+
+    // Descarta os períodos que terminam depois do dia alterado (todos, se o dia não é conhecido)
+    private void invalidate(LocalDate fromDay) {
+        synchronized (closedBuckets) {
+            generation++;
+            if (fromDay == null) {
+                closedBuckets.clear();
+            } else {
+                closedBuckets.values().removeIf(bucket -> !bucket.getPeriodEnd().isBefore(fromDay));
+            }
+        }
+    }
+}
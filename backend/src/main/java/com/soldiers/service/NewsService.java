@@ -1,12 +1,17 @@
 package com.soldiers.service;
 
 import com.soldiers.dto.request.NewsRequest;
+import com.soldiers.dto.request.PageCursor;
+import com.soldiers.dto.response.CursorPageResponse;
 import com.soldiers.entity.News;
 import com.soldiers.repository.NewsRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 public class NewsService {
@@ -29,6 +34,18 @@ public class NewsService {
         return allNews.subList(0, 5);
     }
     
+    @Transactional(readOnly = true)
+    public CursorPageResponse<News> getNewsPage(String cursor, Integer size) {
+        int pageSize = PageCursor.clampSize(size);
+        PageCursor position = PageCursor.decode(cursor);
+        // Busca uma linha a mais apenas para saber se há próxima página
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<News> rows = position == null
+                ? newsRepository.findFirstPage(limit)
+                : newsRepository.findPageAfter(position.getKey(), position.getId(), limit);
+        return CursorPageResponse.of(rows, pageSize, Function.identity(), News::getCriadoEm, News::getId);
+    }
+    
     public News getNewsById(Long id) {
         return newsRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Notícia não encontrada"));
@@ -0,0 +1,108 @@
+package com.soldiers.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa BCrypt num pool limitado, fora do controle do pool do Tomcat.
+ * Quando o pool e a fila estão cheios a tentativa é recusada na hora (429),
+ * em vez de acumular threads de requisição presas em hashing.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${app.password.hash-threads:2}") int threads,
+                                  @Value("${app.password.hash-queue-capacity:32}") int queueCapacity,
+                                  @Value("${app.password.hash-timeout-ms:5000}") long timeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logHashCost();
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Hash gerado com parâmetros mais fracos que os configurados (ex.: strength aumentado).
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    // Hashes aguardando na fila, atrás dos que estão em execução
+    int queuedHashes() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Fila de hashing de senha cheia ({} aguardando)", executor.getQueue().size());
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Muitas tentativas de login simultâneas, tente novamente");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Tempo esgotado ao verificar senha, tente novamente");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Verificação de senha interrompida");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro ao processar senha", e.getCause());
+        }
+    }
+
+    // Referência para calibrar app.password.bcrypt-strength no hardware de produção (~250ms por hash é um bom alvo)
+    private void logHashCost() {
+        long start = System.nanoTime();
+        passwordEncoder.encode("calibracao");
+        logger.info("Custo de um hash de senha: {} ms (pool de {} threads, fila de {})",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                executor.getCorePoolSize(), executor.getQueue().remainingCapacity());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
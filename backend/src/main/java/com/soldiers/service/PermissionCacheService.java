@@ -0,0 +1,155 @@
+package com.soldiers.service;
+
+import com.soldiers.dto.projection.PermissionProjection;
+import com.soldiers.dto.response.UserResponse.PermissionResponse;
+import com.soldiers.entity.ProfilePermission;
+import com.soldiers.entity.ProfilePermission.Action;
+import com.soldiers.entity.ProfilePermission.Resource;
+import com.soldiers.event.ProfileChangedEvent;
+import com.soldiers.repository.ProfilePermissionRepository;
+import com.soldiers.service.CacheVersionService.Region;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache em memória das permissões ativas de cada perfil.
+ * Cada perfil vira uma máscara long (um bit por ProfilePermission.Resource x Action),
+ * então a verificação é uma consulta a mapa mais um teste de bit, e as permissões
+ * efetivas de um usuário são o OR das máscaras dos seus perfis.
+ * Invalidado após o commit de qualquer alteração de perfil (ProfileChangedEvent) nesta instância;
+ * alterações feitas em outra instância descartam o cache inteiro na revalidação do CacheVersionService.
+ */
+@Service
+public class PermissionCacheService {
+
+    private final ProfilePermissionRepository permissionRepository;
+    private final CacheVersionService cacheVersionService;
+
+    private final Map<Long, ProfilePermissions> cache = new ConcurrentHashMap<>();
+
+    // Incrementada a cada invalidação: cargas iniciadas antes dela não entram no cache
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PermissionCacheService(ProfilePermissionRepository permissionRepository,
+                                  CacheVersionService cacheVersionService) {
+        this.permissionRepository = permissionRepository;
+        this.cacheVersionService = cacheVersionService;
+    }
+
+    public boolean hasPermission(Long profileId, Resource resource, Action action) {
+        return (getPermissions(profileId).mask & ProfilePermission.mask(resource, action)) != 0;
+    }
+
+    public boolean hasPermission(Long profileId, String resource, String action) {
+        long bit = ProfilePermission.mask(resource, action);
+        return bit != 0 && (getPermissions(profileId).mask & bit) != 0;
+    }
+
+    /**
+     * Permissões efetivas de um usuário: união das máscaras dos perfis.
+     */
+    public long getEffectiveMask(Collection<Long> profileIds) {
+        long mask = 0L;
+        for (Long profileId : profileIds) {
+            mask |= getPermissions(profileId).mask;
+        }
+        return mask;
+    }
+
+    /**
+     * Permissões ativas do perfil, no formato de resposta da API.
+     */
+    public List<PermissionResponse> getPermissionResponses(Long profileId) {
+        return getPermissions(profileId).permissions;
+    }
+
+    public Map<Long, List<PermissionResponse>> getPermissionResponses(Collection<Long> profileIds) {
+        Map<Long, List<PermissionResponse>> result = new LinkedHashMap<>();
+        for (Long profileId : profileIds) {
+            result.put(profileId, getPermissionResponses(profileId));
+        }
+        return result;
+    }
+
+    private ProfilePermissions getPermissions(Long profileId) {
+        if (cacheVersionService.hasChanged(Region.PROFILES)) {
+            invalidateAll();
+        }
+        ProfilePermissions cached = cache.get(profileId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        long loadGeneration = generation.get();
+        ProfilePermissions loaded = load(profileId);
+        // Conferência e inclusão atômicas (trava da entrada no mapa): uma invalidação entre as duas
+        // ou remove a entrada logo depois (invalidate/clear esperam a mesma trava) ou impede a inclusão
+        cache.compute(profileId, (id, existing) ->
+                existing == null && generation.get() == loadGeneration ? loaded : existing);
+        return loaded;
+    }
+
+    private ProfilePermissions load(Long profileId) {
+        long mask = 0L;
+        List<PermissionResponse> permissions = new ArrayList<>();
+        for (PermissionProjection permission : permissionRepository.findActiveByProfileIds(Collections.singleton(profileId))) {
+            mask |= ProfilePermission.mask(permission.getResource(), permission.getAction());
+            permissions.add(new PermissionResponse(permission));
+        }
+        return new ProfilePermissions(mask, Collections.unmodifiableList(permissions));
+    }
+
+    @TransactionalEventListener
+    public void onProfileChanged(ProfileChangedEvent event) {
+        invalidate(event.getProfileId());
+    }
+
+    public void invalidate(Long profileId) {
+        generation.incrementAndGet();
+        cache.remove(profileId);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("cachedProfiles", cache.size());
+        return stats;
+    }
+
+    // Snapshot imutável de um perfil
+    private static final class ProfilePermissions {
+
+        private final long mask;
+        private final List<PermissionResponse> permissions;
+
+        private ProfilePermissions(long mask, List<PermissionResponse> permissions) {
+            this.mask = mask;
+            this.permissions = permissions;
+        }
+    }
+}
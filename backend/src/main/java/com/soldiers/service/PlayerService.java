@@ -1,22 +1,38 @@
 package com.soldiers.service;
 
+import com.soldiers.dto.projection.IdLinkProjection;
+import com.soldiers.dto.projection.PlayerSummaryProjection;
+import com.soldiers.dto.projection.TeamSummaryProjection;
+import com.soldiers.dto.request.PageCursor;
 import com.soldiers.dto.request.PlayerRequest;
+import com.soldiers.dto.response.CursorPageResponse;
 import com.soldiers.dto.response.PlayerResponse;
+import com.soldiers.dto.response.TeamResponse;
 import com.soldiers.entity.Player;
 import com.soldiers.entity.Team;
 import com.soldiers.repository.PlayerRepository;
 import com.soldiers.repository.TeamRepository;
+import org.springframework.data.domain.PageRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class PlayerService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PlayerService.class);
+
     private final PlayerRepository playerRepository;
     private final TeamRepository teamRepository;
 
@@ -25,23 +41,72 @@ public class PlayerService {
         this.teamRepository = teamRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<PlayerResponse> getAllPlayers() {
         try {
-            List<Player> players = playerRepository.findAllActive();
-            return players.stream()
-                    .map(PlayerResponse::new)
-                    .collect(Collectors.toList());
+            return toResponses(playerRepository.findActiveSummaries());
         } catch (Exception e) {
-            System.err.println("Erro ao buscar jogadores: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Erro ao buscar jogadores", e);
             return new ArrayList<>();
         }
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PlayerResponse> getPlayersPage(String cursor, Integer size) {
+        int pageSize = PageCursor.clampSize(size);
+        PageCursor position = PageCursor.decode(cursor);
+        // Busca uma linha a mais apenas para saber se há próxima página
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Player> rows = position == null
+                ? playerRepository.findFirstPage(limit)
+                : playerRepository.findPageAfter(position.getKey(), position.getId(), limit);
+        return CursorPageResponse.of(rows, pageSize, PlayerResponse::new, Player::getCriadoEm, Player::getId);
+    }
+
+    @Transactional(readOnly = true)
     public PlayerResponse getPlayerById(Long id) {
-        Player player = playerRepository.findByIdWithTeams(id)
-                .orElseThrow(() -> new RuntimeException("Jogador não encontrado"));
-        return new PlayerResponse(player);
+        List<PlayerResponse> players = toResponses(playerRepository.findSummariesByIds(Collections.singleton(id)));
+        if (players.isEmpty()) {
+            throw new RuntimeException("Jogador não encontrado");
+        }
+        return players.get(0);
+    }
+
+    /**
+     * PlayerResponse de vários jogadores de uma vez, indexados por id.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, PlayerResponse> getPlayerResponses(Collection<Long> ids) {
+        Map<Long, PlayerResponse> responses = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return responses;
+        }
+        for (PlayerResponse response : toResponses(playerRepository.findSummariesByIds(ids))) {
+            responses.put(response.getId(), response);
+        }
+        return responses;
+    }
+
+    // Três consultas fixas (jogadores, vínculos, times) independentemente do número de jogadores
+    private List<PlayerResponse> toResponses(List<PlayerSummaryProjection> players) {
+        if (players.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> playerIds = players.stream().map(PlayerSummaryProjection::getId).collect(Collectors.toList());
+        List<IdLinkProjection> links = playerRepository.findTeamLinks(playerIds);
+        Map<Long, List<Long>> teamIdsByPlayer = IdLinkProjection.groupByParent(links);
+        Map<Long, TeamSummaryProjection> teams = links.isEmpty()
+                ? Collections.emptyMap()
+                : teamRepository.findSummariesByIds(IdLinkProjection.childIds(links)).stream()
+                        .collect(Collectors.toMap(TeamSummaryProjection::getId, team -> team));
+
+        return players.stream()
+                .map(player -> new PlayerResponse(player, teamIdsByPlayer.getOrDefault(player.getId(), Collections.emptyList()).stream()
+                        .map(teams::get)
+                        .filter(Objects::nonNull)
+                        .map(team -> new TeamResponse(team, new ArrayList<>())) // sem jogadores para evitar circular
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -126,26 +191,20 @@ public class PlayerService {
         playerRepository.save(player);
     }
 
+    @Transactional(readOnly = true)
     public List<PlayerResponse> getPlayersByStatus(String status) {
         Player.PlayerStatus playerStatus = Player.PlayerStatus.valueOf(status.toUpperCase());
-        List<Player> players = playerRepository.findByStatus(playerStatus);
-        return players.stream()
-                .map(PlayerResponse::new)
-                .collect(Collectors.toList());
+        return toResponses(playerRepository.findSummariesByStatus(playerStatus));
     }
 
+    @Transactional(readOnly = true)
     public List<PlayerResponse> searchPlayersByName(String name) {
-        List<Player> players = playerRepository.findByNameContaining(name);
-        return players.stream()
-                .map(PlayerResponse::new)
-                .collect(Collectors.toList());
+        return toResponses(playerRepository.findSummariesByNameContaining(name));
     }
 
+    @Transactional(readOnly = true)
     public List<PlayerResponse> getPlayersByPosition(String position) {
-        List<Player> players = playerRepository.findByPosition(position);
-        return players.stream()
-                .map(PlayerResponse::new)
-                .collect(Collectors.toList());
+        return toResponses(playerRepository.findSummariesByPosition(position));
     }
 
     @Transactional
@@ -0,0 +1,212 @@
+package com.soldiers.service;
+
+import com.soldiers.dto.response.ProductResponse;
+import com.soldiers.entity.Product;
+import com.soldiers.event.ProductChangedEvent;
+import com.soldiers.repository.ProductRepository;
+import com.soldiers.service.CacheVersionService.Region;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo de produtos ativos em memória, servido às telas de venda sem ir ao banco.
+ * O snapshot é imutável e trocado por inteiro (copy-on-write). Alterações de produto ou estoque
+ * nesta instância marcam as linhas afetadas após o commit (ProductChangedEvent) e a próxima leitura
+ * recarrega só essas; alterações feitas em outra instância recarregam o catálogo inteiro na
+ * revalidação do CacheVersionService. O ETag é derivado do conteúdo: instâncias com o mesmo
+ * catálogo respondem o mesmo ETag, e ficam defasadas no máximo pelo intervalo de revalidação.
+ */
+@Service
+public class ProductCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogService.class);
+
+    private final ProductRepository productRepository;
+    private final CacheVersionService cacheVersionService;
+
+    private volatile CatalogSnapshot snapshot;
+
+    // Produtos alterados ainda não recarregados, com o número da alteração mais recente de cada um
+    private final Map<Long, Long> pendingIds = new ConcurrentHashMap<>();
+
+    // Numeração das alterações vistas por esta instância; cada snapshot guarda a partir de qual foi lido
+    private final AtomicLong changeSeq = new AtomicLong();
+
+    // Snapshots lidos antes deste número foram descartados (invalidateAll)
+    private final AtomicLong requiredSeq = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    public ProductCatalogService(ProductRepository productRepository, CacheVersionService cacheVersionService) {
+        this.productRepository = productRepository;
+        this.cacheVersionService = cacheVersionService;
+    }
+
+    public CatalogView getAllProducts() {
+        return getSnapshot().all;
+    }
+
+    public CatalogView getAvailableProducts() {
+        return getSnapshot().available;
+    }
+
+    public List<ProductResponse> getLowStockProducts(int threshold) {
+        return getSnapshot().all.getProducts().stream()
+                .filter(product -> product.getStock() != null && product.getStock() <= threshold)
+                .collect(Collectors.toList());
+    }
+
+    /*
+     * As leituras do banco acontecem fora de qualquer trava: quem espera a trava não segura
+     * conexão do pool enquanto outra thread precisa de uma. A trava cobre só a troca do snapshot,
+     * que é recusada quando um snapshot lido depois já foi instalado.
+     */
+    private CatalogSnapshot getSnapshot() {
+        if (cacheVersionService.hasChanged(Region.PRODUCTS)) {
+            invalidateAll();
+        }
+        CatalogSnapshot current = snapshot;
+        if (current == null || current.seq < requiredSeq.get()) {
+            return reloadAll();
+        }
+        if (!pendingIds.isEmpty()) {
+            return reloadPending();
+        }
+        hits.incrementAndGet();
+        return current;
+    }
+
+    private CatalogSnapshot reloadAll() {
+        long startSeq = changeSeq.get();
+        Map<Long, ProductResponse> products = new TreeMap<>();
+        for (Product product : productRepository.findAllActive()) {
+            products.put(product.getId(), new ProductResponse(product));
+        }
+        CatalogSnapshot loaded = new CatalogSnapshot(products, startSeq);
+        synchronized (this) {
+            CatalogSnapshot latest = snapshot;
+            if (startSeq >= requiredSeq.get() && (latest == null || latest.seq <= startSeq)) {
+                snapshot = loaded;
+                // Alterações marcadas antes da leitura já estão no snapshot
+                pendingIds.values().removeIf(seq -> seq <= startSeq);
+                logger.info("Catálogo de produtos carregado: {} produtos", products.size());
+            }
+        }
+        return loaded;
+    }
+
+    // Recarrega apenas os produtos marcados
+    private CatalogSnapshot reloadPending() {
+        long startSeq = changeSeq.get();
+        Map<Long, Long> marked = new HashMap<>(pendingIds);
+        List<Product> changed = marked.isEmpty()
+                ? Collections.emptyList()
+                : productRepository.findAllActiveByIds(marked.keySet());
+        synchronized (this) {
+            CatalogSnapshot latest = snapshot;
+            if (latest.seq > startSeq || latest.seq < requiredSeq.get()) {
+                // Outra leitura, iniciada depois desta, já instalou um snapshot mais novo;
+                // ou o catálogo foi descartado durante a leitura e a próxima recarrega tudo
+                return latest;
+            }
+            Map<Long, ProductResponse> products = new TreeMap<>(latest.products);
+            marked.keySet().forEach(products::remove);
+            for (Product product : changed) {
+                products.put(product.getId(), new ProductResponse(product));
+            }
+            snapshot = new CatalogSnapshot(products, startSeq);
+            // Remoção condicional: produto marcado de novo durante a leitura continua pendente
+            marked.forEach(pendingIds::remove);
+            refreshes.incrementAndGet();
+            return snapshot;
+        }
+    }
+
+    /**
+     * Só marca os produtos: a recarga fica para a próxima leitura. Recarregar aqui exigiria
+     * uma segunda conexão (a da transação encerrada ainda está presa durante o afterCommit),
+     * e com o pool cheio as threads ficavam esperando umas pelas outras.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductChangedEvent event) {
+        long seq = changeSeq.incrementAndGet();
+        for (Long productId : event.getProductIds()) {
+            pendingIds.merge(productId, seq, Math::max);
+        }
+    }
+
+    public void invalidateAll() {
+        long seq = changeSeq.incrementAndGet();
+        requiredSeq.accumulateAndGet(seq, Math::max);
+    }
+
+    public Map<String, Object> getStats() {
+        CatalogSnapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("refreshes", refreshes.get());
+        stats.put("cachedProducts", current == null ? 0 : current.products.size());
+        stats.put("pendingProducts", pendingIds.size());
+        stats.put("etag", current == null ? null : current.all.getEtag());
+        return stats;
+    }
+
+    /**
+     * Lista imutável de produtos e o ETag correspondente.
+     */
+    public static final class CatalogView {
+
+        private final List<ProductResponse> products;
+        private final String etag;
+
+        private CatalogView(String prefix, List<ProductResponse> products) {
+            long hash = 1L;
+            for (ProductResponse product : products) {
+                hash = 31 * hash + product.contentHash();
+            }
+            this.products = Collections.unmodifiableList(products);
+            this.etag = "\"" + prefix + "-" + products.size() + "-" + Long.toHexString(hash) + "\"";
+        }
+
+        public List<ProductResponse> getProducts() {
+            return products;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    // Snapshot imutável do catálogo, ordenado por id
+    private static final class CatalogSnapshot {
+
+        private final Map<Long, ProductResponse> products;
+        private final CatalogView all;
+        private final CatalogView available;
+        private final long seq;
+
+        private CatalogSnapshot(Map<Long, ProductResponse> products, long seq) {
+            this.products = Collections.unmodifiableMap(products);
+            this.seq = seq;
+            List<ProductResponse> allProducts = new ArrayList<>(products.values());
+            this.all = new CatalogView("all", allProducts);
+            this.available = new CatalogView("available", allProducts.stream()
+                    .filter(ProductResponse::isAvailable)
+                    .collect(Collectors.toList()));
+        }
+    }
+}
@@ -1,24 +1,40 @@
 package com.soldiers.service;
 
 import com.soldiers.dto.request.ProductRequest;
+import com.soldiers.dto.response.ProductResponse;
 import com.soldiers.entity.Product;
+import com.soldiers.event.ProductChangedEvent;
 import com.soldiers.repository.ProductRepository;
+import com.soldiers.service.ProductCatalogService.CatalogView;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.math.BigDecimal;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductCatalogService productCatalogService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductCatalogService productCatalogService,
+                          ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productCatalogService = productCatalogService;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional
     public Product createProduct(ProductRequest request) {
         Product product = new Product();
         product.setName(request.getName());
@@ -26,19 +42,26 @@ public class ProductService {
         product.setPrice(request.getPrice());
         product.setStock(request.getStock());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId()));
+        return saved;
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAllActive();
+    // Listagens servidas pelo catálogo em memória (ProductCatalogService), com ETag
+    public CatalogView getAllProducts() {
+        return productCatalogService.getAllProducts();
     }
 
-    public List<Product> getAvailableProducts() {
-        return productRepository.findAvailableProducts();
+    public CatalogView getAvailableProducts() {
+        return productCatalogService.getAvailableProducts();
     }
 
-    public List<Product> getLowStockProducts(Integer threshold) {
-        return productRepository.findLowStockProducts(threshold);
+    public List<ProductResponse> getLowStockProducts(Integer threshold) {
+        return productCatalogService.getLowStockProducts(threshold);
+    }
+
+    public Map<String, Object> getCatalogCacheStats() {
+        return productCatalogService.getStats();
     }
 
     public List<Product> searchProductsByName(String name) {
@@ -50,6 +73,15 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
     }
 
+    /**
+     * Carrega vários produtos ativos em uma única consulta IN.
+     */
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        return productRepository.findAllActiveByIds(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    @Transactional
     public Product updateProduct(Long id, ProductRequest request) {
         Product product = getProductById(id);
         
@@ -58,15 +90,20 @@ public class ProductService {
         product.setPrice(request.getPrice());
         product.setStock(request.getStock());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
+        return saved;
     }
 
+    @Transactional
     public void deleteProduct(Long id) {
         Product product = getProductById(id);
         product.setDeletadoEm(LocalDateTime.now());
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
     }
 
+    @Transactional
     public void createTestProducts() {
         // Verificar se já existem produtos
         List<Product> existingProducts = productRepository.findAllActive();
@@ -83,20 +120,20 @@ public class ProductService {
             new Product("Adesivo do Soldiers", "Adesivo oficial do time Soldiers", new BigDecimal("4.90"), 60)
         );
 
+        List<Long> ids = new ArrayList<>();
         for (Product product : testProducts) {
-            productRepository.save(product);
+            ids.add(productRepository.save(product).getId());
         }
+        eventPublisher.publishEvent(new ProductChangedEvent(ids));
     }
 
+    @Transactional
     public void updateStock(Long productId, Integer quantity) {
-        Product product = getProductById(productId);
-        
-        if (product.getStock() + quantity < 0) {
+        if (productRepository.adjustStock(productId, quantity) == 0) {
+            getProductById(productId);
             throw new RuntimeException("Estoque insuficiente");
         }
-        
-        product.setStock(product.getStock() + quantity);
-        productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId));
     }
 
     public boolean hasStock(Long productId, Integer quantity) {
@@ -104,9 +141,29 @@ public class ProductService {
         return product.hasStock(quantity);
     }
 
-    public void decreaseStock(Long productId, Integer quantity) {
-        Product product = getProductById(productId);
-        product.decreaseStock(quantity);
-        productRepository.save(product);
+    /**
+     * Baixa o estoque com UPDATEs condicionais (só aplicados com estoque suficiente), sem ler os produtos antes,
+     * todos em um só round trip. Vendas concorrentes do mesmo produto não conseguem vender além do estoque.
+     *
+     * @return IDs dos produtos sem estoque suficiente (lista vazia se todas as baixas foram aplicadas)
+     */
+    @Transactional
+    public List<Long> decreaseStock(Map<Long, Integer> quantities) {
+        List<Long> rejected = productRepository.decreaseStockInBatch(quantities);
+        // Com rejeições a venda é desfeita e o evento, descartado junto com a transação
+        eventPublisher.publishEvent(new ProductChangedEvent(quantities.keySet()));
+        return rejected;
+    }
+
+    /**
+     * Devolve ao estoque os itens de uma venda excluída, em um único UPDATE.
+     */
+    @Transactional
+    public void restoreStock(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        productRepository.applyStockIncrements(quantities);
+        eventPublisher.publishEvent(new ProductChangedEvent(quantities.keySet()));
     }
 } 
@@ -4,13 +4,20 @@ import com.soldiers.dto.request.ProfileRequest;
 import com.soldiers.dto.response.ProfileResponse;
 import com.soldiers.entity.Profile;
 import com.soldiers.entity.ProfilePermission;
+import com.soldiers.entity.ProfilePermission.Action;
+import com.soldiers.entity.ProfilePermission.Resource;
+import com.soldiers.event.ProfileChangedEvent;
 import com.soldiers.repository.ProfilePermissionRepository;
 import com.soldiers.repository.ProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import com.soldiers.entity.User;
@@ -19,6 +26,8 @@ import com.soldiers.repository.UserRepository;
 @Service
 public class ProfileService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProfileService.class);
+
     @Autowired
     private ProfileRepository profileRepository;
 
@@ -28,6 +37,13 @@ public class ProfileService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PermissionCacheService permissionCacheService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
     public List<ProfileResponse> getAllProfiles() {
         return profileRepository.findAllActiveWithPermissions()
                 .stream()
@@ -35,6 +51,7 @@ public class ProfileService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<ProfileResponse> getNonAdminProfiles() {
         return profileRepository.findNonAdminProfiles()
                 .stream()
@@ -42,11 +59,13 @@ public class ProfileService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public Optional<ProfileResponse> getProfileById(Long id) {
         return profileRepository.findById(id)
                 .map(ProfileResponse::new);
     }
 
+    @Transactional(readOnly = true)
     public Optional<ProfileResponse> getProfileWithPermissions(Long id) {
         return profileRepository.findByIdWithPermissions(id)
                 .map(ProfileResponse::new);
@@ -61,6 +80,7 @@ public class ProfileService {
         if (profileRepository.existsByName(request.getName())) {
             throw new RuntimeException("Perfil com este nome já existe");
         }
+        validatePermissions(request);
 
         Profile profile = new Profile();
         profile.setName(request.getName());
@@ -84,6 +104,7 @@ public class ProfileService {
         // Forçar flush da transação
         profileRepository.flush();
         permissionRepository.flush();
+        eventPublisher.publishEvent(new ProfileChangedEvent(profile.getId()));
 
         // Retornar o perfil com as permissões carregadas
         return profileRepository.findByIdWithPermissions(profile.getId())
@@ -101,6 +122,7 @@ public class ProfileService {
             profileRepository.existsByName(request.getName())) {
             throw new RuntimeException("Perfil com este nome já existe");
         }
+        validatePermissions(request);
 
         profile.setName(request.getName());
         profile.setDescription(request.getDescription());
@@ -128,6 +150,7 @@ public class ProfileService {
         // Forçar flush da transação
         profileRepository.flush();
         permissionRepository.flush();
+        eventPublisher.publishEvent(new ProfileChangedEvent(id));
 
         // Retornar o perfil com as permissões carregadas
         return profileRepository.findByIdWithPermissions(profile.getId())
@@ -135,6 +158,18 @@ public class ProfileService {
                 .orElse(new ProfileResponse(profile));
     }
 
+    // Só aceita pares do modelo tipado ProfilePermission.Resource x ProfilePermission.Action
+    private void validatePermissions(ProfileRequest request) {
+        if (request.getPermissions() == null) {
+            return;
+        }
+        for (ProfileRequest.PermissionRequest permRequest : request.getPermissions()) {
+            if (ProfilePermission.mask(permRequest.getResource(), permRequest.getAction()) == 0L) {
+                throw new RuntimeException("Permissão inválida: " + permRequest.getResource() + ":" + permRequest.getAction());
+            }
+        }
+    }
+
     @Transactional
     public void deleteProfile(Long id) {
         Profile profile = profileRepository.findById(id)
@@ -150,7 +185,7 @@ public class ProfileService {
                 .orElseThrow(() -> new RuntimeException("Perfil não encontrado"));
         
         if (profileWithUsers.getUsers() != null && !profileWithUsers.getUsers().isEmpty()) {
-            System.out.println("Removendo perfil de " + profileWithUsers.getUsers().size() + " usuários associados.");
+            logger.info("Removendo perfil {} de {} usuários associados", id, profileWithUsers.getUsers().size());
             
             // Remover o perfil de todos os usuários associados
             for (User user : profileWithUsers.getUsers()) {
@@ -175,6 +210,7 @@ public class ProfileService {
         
         // Forçar commit da transação
         profileRepository.saveAndFlush(profile);
+        eventPublisher.publishEvent(new ProfileChangedEvent(id));
         
         // Retornar sucesso em vez de lançar exceção
         return;
@@ -188,11 +224,11 @@ public class ProfileService {
             adminProfile = profileRepository.save(adminProfile);
 
             // Adicionar todas as permissões para ADMIN
-            String[] resources = {"DASHBOARD", "USERS", "PRODUCTS", "SALES", "TRIPS", "NEWS", "BUDGET", "GAMES"};
-            String[] actions = {"VIEW", "EDIT"};
+            Resource[] resources = {Resource.DASHBOARD, Resource.USERS, Resource.PRODUCTS, Resource.SALES,
+                                    Resource.TRIPS, Resource.NEWS, Resource.BUDGET, Resource.GAMES};
 
-            for (String resource : resources) {
-                for (String action : actions) {
+            for (Resource resource : resources) {
+                for (Action action : Action.values()) {
                     ProfilePermission permission = new ProfilePermission(adminProfile, resource, action);
                     permissionRepository.save(permission);
                 }
@@ -205,11 +241,10 @@ public class ProfileService {
             vendedorProfile = profileRepository.save(vendedorProfile);
 
             // Permissões para VENDEDOR
-            String[] vendedorResources = {"DASHBOARD", "PRODUCTS", "SALES"};
-            String[] vendedorActions = {"VIEW", "EDIT"};
+            Resource[] vendedorResources = {Resource.DASHBOARD, Resource.PRODUCTS, Resource.SALES};
 
-            for (String resource : vendedorResources) {
-                for (String action : vendedorActions) {
+            for (Resource resource : vendedorResources) {
+                for (Action action : Action.values()) {
                     ProfilePermission permission = new ProfilePermission(vendedorProfile, resource, action);
                     permissionRepository.save(permission);
                 }
@@ -222,20 +257,25 @@ public class ProfileService {
             visualizadorProfile = profileRepository.save(visualizadorProfile);
 
             // Permissões apenas de visualização
-            String[] visualizadorResources = {"DASHBOARD", "PRODUCTS", "SALES", "TRIPS", "NEWS", "GAMES"};
+            Resource[] visualizadorResources = {Resource.DASHBOARD, Resource.PRODUCTS, Resource.SALES,
+                                                Resource.TRIPS, Resource.NEWS, Resource.GAMES};
 
-            for (String resource : visualizadorResources) {
-                ProfilePermission permission = new ProfilePermission(visualizadorProfile, resource, "VIEW");
+            for (Resource resource : visualizadorResources) {
+                ProfilePermission permission = new ProfilePermission(visualizadorProfile, resource, Action.VIEW);
                 permissionRepository.save(permission);
             }
         }
     }
 
     public boolean hasPermission(Long profileId, String resource, String action) {
-        ProfilePermission permission = permissionRepository.findByProfileIdAndResourceAndAction(profileId, resource, action);
-        return permission != null && permission.isActive();
+        return permissionCacheService.hasPermission(profileId, resource, action);
+    }
+
+    public Map<String, Object> getPermissionCacheStats() {
+        return permissionCacheService.getStats();
     }
 
+    @Transactional(readOnly = true)
     public List<String> getUsersByProfile(Long profileId) {
         Profile profile = profileRepository.findById(profileId)
                 .orElseThrow(() -> new RuntimeException("Perfil não encontrado"));
@@ -257,5 +297,6 @@ public class ProfileService {
         profile.setActive(false);
         profileRepository.save(profile);
         profileRepository.flush();
+        eventPublisher.publishEvent(new ProfileChangedEvent(id));
     }
 }
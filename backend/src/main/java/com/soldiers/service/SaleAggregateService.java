@@ -0,0 +1,72 @@
+package com.soldiers.service;
+
+import com.soldiers.entity.Sale;
+import com.soldiers.event.LedgerChangedEvent;
+import com.soldiers.repository.SaleAggregateRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém a tabela tb_sale_aggregate em sincronia com as vendas.
+ * As atualizações participam da transação de quem chama (criação/exclusão de venda);
+ * a carga inicial de bancos antigos é feita pela migração V11.
+ */
+@Service
+public class SaleAggregateService {
+
+    private final SaleAggregateRepository saleAggregateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SaleAggregateService(SaleAggregateRepository saleAggregateRepository, ApplicationEventPublisher eventPublisher) {
+        this.saleAggregateRepository = saleAggregateRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public void recordSale(Sale sale) {
+        apply(sale, 1L, sale.getTotalAmount());
+    }
+
+    /**
+     * Versão em lote: um upsert por (jogo, vendedor, dia), não por venda.
+     */
+    @Transactional
+    public void recordSales(List<Sale> sales) {
+        Map<List<Object>, List<Sale>> groups = sales.stream()
+                .collect(Collectors.groupingBy(sale -> Arrays.asList(sale.getGameEvent().getId(), sale.getSeller().getId(), saleDate(sale)),
+                        LinkedHashMap::new, Collectors.toList()));
+        for (List<Sale> group : groups.values()) {
+            Sale first = group.get(0);
+            BigDecimal amount = group.stream().map(Sale::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+            saleAggregateRepository.upsert(first.getGameEvent().getId(), first.getSeller().getId(), saleDate(first),
+                    (long) group.size(), amount);
+        }
+        // Vendas de dias anteriores (soldAt do caixa offline) alteram períodos já fechados dos relatórios
+        sales.stream().map(this::saleDate).min(LocalDate::compareTo)
+                .filter(earliest -> earliest.isBefore(LocalDate.now()))
+                .ifPresent(earliest -> eventPublisher.publishEvent(new LedgerChangedEvent(earliest)));
+    }
+
+    @Transactional
+    public void removeSale(Sale sale) {
+        apply(sale, -1L, sale.getTotalAmount().negate());
+        eventPublisher.publishEvent(new LedgerChangedEvent(saleDate(sale)));
+    }
+
+    private void apply(Sale sale, Long count, BigDecimal amount) {
+        saleAggregateRepository.upsert(sale.getGameEvent().getId(), sale.getSeller().getId(), saleDate(sale), count, amount);
+    }
+
+    private LocalDate saleDate(Sale sale) {
+        return sale.getCriadoEm().toLocalDate();
+    }
+}
@@ -0,0 +1,241 @@
+package com.soldiers.service;
+
+import com.soldiers.dto.request.SaleBatchRequest;
+import com.soldiers.dto.request.SaleBatchRequest.SaleEntry;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.dto.response.SaleBatchResponse;
+import com.soldiers.dto.response.SaleBatchResponse.Result;
+import com.soldiers.dto.response.SaleBatchResponse.Status;
+import com.soldiers.entity.Budget;
+import com.soldiers.entity.GameEvent;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.Sale;
+import com.soldiers.entity.SaleItem;
+import com.soldiers.entity.User;
+import com.soldiers.event.ProductChangedEvent;
+import com.soldiers.event.SaleChangedEvent;
+import com.soldiers.repository.GameEventRepository;
+import com.soldiers.repository.ProductRepository;
+import com.soldiers.repository.SaleRepository;
+import com.soldiers.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.validation.Validator;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sincronização em lote das vendas feitas offline nos caixas (POST /sales/batch).
+ * O número de comandos SQL é fixo por lote, não por venda: uma consulta de chaves,
+ * uma por tipo de referência, um SELECT ... FOR UPDATE e um UPDATE de estoque,
+ * lotes JDBC para vendas e itens e um lote para a outbox do orçamento.
+ */
+@Service
+public class SaleBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleBatchService.class);
+
+    private final SaleRepository saleRepository;
+    private final ProductRepository productRepository;
+    private final GameEventRepository gameEventRepository;
+    private final UserRepository userRepository;
+    private final BudgetService budgetService;
+    private final SaleAggregateService saleAggregateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    // Janela aceita para o soldAt enviado pelo caixa: até maxSoldAtAge no passado e
+    // clockSkew no futuro (relógio do caixa adiantado)
+    private final Duration maxSoldAtAge;
+    private final Duration clockSkew;
+
+    public SaleBatchService(SaleRepository saleRepository, ProductRepository productRepository,
+                            GameEventRepository gameEventRepository, UserRepository userRepository,
+                            BudgetService budgetService, SaleAggregateService saleAggregateService,
+                            ApplicationEventPublisher eventPublisher, Validator validator,
+                            @Value("${app.sale-batch.max-sold-at-age-hours:168}") long maxSoldAtAgeHours,
+                            @Value("${app.sale-batch.clock-skew-seconds:300}") long clockSkewSeconds) {
+        this.saleRepository = saleRepository;
+        this.productRepository = productRepository;
+        this.gameEventRepository = gameEventRepository;
+        this.userRepository = userRepository;
+        this.budgetService = budgetService;
+        this.saleAggregateService = saleAggregateService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.maxSoldAtAge = Duration.ofHours(maxSoldAtAgeHours);
+        this.clockSkew = Duration.ofSeconds(clockSkewSeconds);
+    }
+
+    /**
+     * @param sellerId vendedor autenticado, usado em todas as entradas (o userId das entradas é ignorado)
+     * @return um resultado por entrada, na ordem do envio
+     */
+    @Transactional
+    public SaleBatchResponse ingest(SaleBatchRequest request, Long sellerId) {
+        List<SaleEntry> entries = request.getSales();
+        Result[] results = new Result[entries.size()];
+        LocalDateTime now = LocalDateTime.now();
+
+        // 1. Validação de cada entrada e chaves repetidas dentro do próprio lote
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            SaleEntry entry = entries.get(i);
+            String violation = firstViolation(entry, now);
+            if (violation != null) {
+                results[i] = rejected(entry, violation);
+            } else if (firstIndexByKey.putIfAbsent(entry.getClientKey(), i) != null) {
+                results[i] = new Result(entry.getClientKey(), Status.DUPLICATE, null, "Chave repetida no lote");
+            } else {
+                pending.add(i);
+            }
+        }
+
+        // 2. Chaves já sincronizadas em envios anteriores: nada é gravado de novo
+        Map<String, Long> existing = saleRepository.findIdsByClientKeys(pending.stream()
+                .map(i -> entries.get(i).getClientKey())
+                .collect(Collectors.toList()));
+        pending.removeIf(i -> {
+            Long saleId = existing.get(entries.get(i).getClientKey());
+            if (saleId != null) {
+                results[i] = new Result(entries.get(i).getClientKey(), Status.DUPLICATE, saleId, null);
+                return true;
+            }
+            return false;
+        });
+
+        // 3. Referências do lote inteiro, uma consulta por tipo; o vendedor é o mesmo para todas as entradas
+        User seller = pending.isEmpty() ? null : userRepository.findById(sellerId)
+                .filter(user -> user.isActive() && user.getDeletadoEm() == null)
+                .orElse(null);
+        Map<Long, GameEvent> games = gameEventRepository.findAllById(pending.stream()
+                        .map(i -> entries.get(i).getGameEventId())
+                        .collect(Collectors.toSet())).stream()
+                .filter(game -> game.getDeletadoEm() == null)
+                .collect(Collectors.toMap(GameEvent::getId, Function.identity()));
+        Set<Long> productIds = pending.stream()
+                .flatMap(i -> entries.get(i).getItems().stream())
+                .map(SaleRequest.SaleItemRequest::getProductId)
+                .collect(Collectors.toCollection(HashSet::new));
+        Map<Long, Product> products = productRepository.findAllActiveByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // 4. Estoque bloqueado e reservado em memória, na ordem das vendas
+        Map<Long, Integer> remaining = productRepository.lockStock(products.keySet());
+        Map<Long, Integer> decrements = new LinkedHashMap<>();
+        List<Sale> sales = new ArrayList<>();
+        List<Integer> saleIndexes = new ArrayList<>();
+        for (Integer i : pending) {
+            SaleEntry entry = entries.get(i);
+            GameEvent game = games.get(entry.getGameEventId());
+            if (seller == null) {
+                results[i] = rejected(entry, "Usuário não encontrado");
+                continue;
+            }
+            if (game == null) {
+                results[i] = rejected(entry, "Jogo não encontrado");
+                continue;
+            }
+
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            for (SaleRequest.SaleItemRequest item : entry.getItems()) {
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+            String stockProblem = reserve(quantities, products, remaining);
+            if (stockProblem != null) {
+                results[i] = rejected(entry, stockProblem);
+                continue;
+            }
+            quantities.forEach((productId, quantity) -> decrements.merge(productId, quantity, Integer::sum));
+
+            Sale sale = new Sale(seller, game);
+            sale.setClientKey(entry.getClientKey());
+            // Data da venda no caixa: agregados diários e lançamento no orçamento caem no dia certo
+            sale.setCriadoEm(entry.getSoldAt() != null ? entry.getSoldAt() : now);
+            sale.setAtualizadoEm(now);
+            for (SaleRequest.SaleItemRequest item : entry.getItems()) {
+                sale.addItem(new SaleItem(products.get(item.getProductId()), item.getQuantity(), item.getPrice()));
+            }
+            sales.add(sale);
+            saleIndexes.add(i);
+        }
+
+        // 5. Gravação em conjunto: estoque, vendas e itens, orçamento, agregados
+        if (!sales.isEmpty()) {
+            productRepository.applyStockDecrements(decrements);
+            saleRepository.insertAll(sales);
+            List<Budget> incomes = sales.stream().map(SaleService::incomeEntryFor).collect(Collectors.toList());
+            budgetService.enqueueEntries(incomes);
+            saleAggregateService.recordSales(sales);
+
+            for (int k = 0; k < sales.size(); k++) {
+                Sale sale = sales.get(k);
+                results[saleIndexes.get(k)] = new Result(sale.getClientKey(), Status.CREATED, sale.getId(), null);
+            }
+            // Um evento por lote: a versão do cache de vendas é incrementada uma vez, não uma por venda
+            eventPublisher.publishEvent(new SaleChangedEvent(sales.stream().map(Sale::getId).collect(Collectors.toList())));
+            eventPublisher.publishEvent(new ProductChangedEvent(decrements.keySet()));
+        }
+
+        SaleBatchResponse response = new SaleBatchResponse(Arrays.asList(results));
+        logger.info("Lote de vendas sincronizado: {} criadas, {} duplicadas, {} rejeitadas",
+                response.getCreated(), response.getDuplicates(), response.getRejected());
+        return response;
+    }
+
+    // Reserva todas as quantidades da venda ou nenhuma
+    private String reserve(Map<Long, Integer> quantities, Map<Long, Product> products, Map<Long, Integer> remaining) {
+        for (Map.Entry<Long, Integer> item : quantities.entrySet()) {
+            Integer available = remaining.get(item.getKey());
+            if (available == null) {
+                return "Produto não encontrado: " + item.getKey();
+            }
+            if (available < item.getValue()) {
+                return "Estoque insuficiente para o produto: " + products.get(item.getKey()).getName();
+            }
+        }
+        quantities.forEach((productId, quantity) -> remaining.merge(productId, -quantity, Integer::sum));
+        return null;
+    }
+
+    private String firstViolation(SaleEntry entry, LocalDateTime now) {
+        if (entry == null) {
+            return "Entrada vazia";
+        }
+        String violation = validator.validate(entry).stream()
+                .map(constraint -> constraint.getPropertyPath() + ": " + constraint.getMessage())
+                .sorted()
+                .findFirst()
+                .orElse(null);
+        if (violation != null || entry.getSoldAt() == null) {
+            return violation;
+        }
+        if (entry.getSoldAt().isAfter(now.plus(clockSkew))) {
+            return "soldAt: data da venda no futuro";
+        }
+        if (entry.getSoldAt().isBefore(now.minus(maxSoldAtAge))) {
+            return "soldAt: venda com mais de " + maxSoldAtAge.toHours() + " horas, lançar manualmente";
+        }
+        return null;
+    }
+
+    private Result rejected(SaleEntry entry, String message) {
+        return new Result(entry != null ? entry.getClientKey() : null, Status.REJECTED, null, message);
+    }
+}
@@ -0,0 +1,156 @@
+package com.soldiers.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.entity.IdempotencyKey;
+import com.soldiers.entity.Sale;
+import com.soldiers.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Idempotência do POST /sales pelo cabeçalho Idempotency-Key.
+ * A primeira tentativa reserva a chave, cria a venda e guarda a resposta na mesma transação;
+ * as seguintes devolvem a resposta guardada com uma busca pela chave primária, sem tocar
+ * em produtos, estoque ou orçamento. Se a venda falhar, a reserva é desfeita junto.
+ */
+@Service
+public class SaleIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleIdempotencyService.class);
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final SaleService saleService;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final int evictionBatchSize;
+
+    public SaleIdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository, SaleService saleService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${app.idempotency.eviction-batch-size:1000}") int evictionBatchSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.saleService = saleService;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.evictionBatchSize = evictionBatchSize;
+    }
+
+    @Transactional
+    public StoredResponse createSale(String key, SaleRequest request, Long userId) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+        }
+        String requestHash = hash(request, userId);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Caminho do reenvio: uma única busca pela chave primária
+        Optional<IdempotencyKey> stored = idempotencyKeyRepository.findById(key)
+                .filter(entry -> entry.getExpiraEm().isAfter(now));
+        if (stored.isPresent()) {
+            return replay(stored.get(), userId, requestHash);
+        }
+
+        if (idempotencyKeyRepository.claim(key, userId, requestHash, now, now.plus(ttl)) == 0) {
+            // Outra tentativa com a mesma chave terminou enquanto esperávamos pelo índice
+            IdempotencyKey concurrent = idempotencyKeyRepository.findById(key)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Requisição em processamento"));
+            return replay(concurrent, userId, requestHash);
+        }
+
+        Sale sale = saleService.createSale(request, userId);
+        String body = toJson(saleService.getSaleById(sale.getId()));
+        idempotencyKeyRepository.complete(key, sale.getId(), body);
+        return new StoredResponse(body, false);
+    }
+
+    private StoredResponse replay(IdempotencyKey entry, Long userId, String requestHash) {
+        if (!Objects.equals(entry.getUserId(), userId) || !entry.getRequestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key já utilizada com outra requisição");
+        }
+        if (entry.getResponseBody() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Requisição em processamento");
+        }
+        logger.debug("Reenvio da venda {} pela chave {}", entry.getSaleId(), entry.getKey());
+        return new StoredResponse(entry.getResponseBody(), true);
+    }
+
+    // Remove as chaves vencidas em lotes curtos, cada um na sua transação
+    @Scheduled(fixedDelayString = "${app.idempotency.eviction-interval-ms:600000}")
+    public void evictExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int removed;
+        do {
+            removed = idempotencyKeyRepository.deleteExpired(now, evictionBatchSize);
+            total += removed;
+        } while (removed == evictionBatchSize);
+        if (total > 0) {
+            logger.info("Removidas {} chaves de idempotência vencidas", total);
+        }
+    }
+
+    private String hash(SaleRequest request, Long userId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(userId).getBytes(StandardCharsets.UTF_8));
+            byte[] bytes = digest.digest(objectMapper.writeValueAsBytes(request));
+            StringBuilder hex = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new RuntimeException("Erro ao calcular hash da requisição", e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erro ao serializar resposta da venda", e);
+        }
+    }
+
+    /**
+     * Corpo JSON da resposta, já serializado, e se veio de um reenvio.
+     */
+    public static class StoredResponse {
+
+        private final String body;
+        private final boolean replayed;
+
+        public StoredResponse(String body, boolean replayed) {
+            this.body = body;
+            this.replayed = replayed;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
@@ -1,100 +1,200 @@
 package com.soldiers.service;
 
+import com.soldiers.dto.request.PageCursor;
 import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.dto.response.CursorPageResponse;
+import com.soldiers.dto.response.SaleResponse;
+import com.soldiers.dto.response.UserResponse;
 import com.soldiers.entity.*;
+import com.soldiers.event.SaleChangedEvent;
 import com.soldiers.repository.GameEventRepository;
 import com.soldiers.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class SaleService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SaleService.class);
+
     private final SaleRepository saleRepository;
     private final GameEventRepository gameEventRepository;
     private final ProductService productService;
     private final UserService userService;
     private final BudgetService budgetService;
+    private final SaleAggregateService saleAggregateService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public SaleService(SaleRepository saleRepository, GameEventRepository gameEventRepository,
-                      ProductService productService, UserService userService, BudgetService budgetService) {
+                      ProductService productService, UserService userService, BudgetService budgetService,
+                      SaleAggregateService saleAggregateService, ApplicationEventPublisher eventPublisher) {
         this.saleRepository = saleRepository;
         this.gameEventRepository = gameEventRepository;
         this.productService = productService;
         this.userService = userService;
         this.budgetService = budgetService;
+        this.saleAggregateService = saleAggregateService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public Sale createSale(SaleRequest request, Long userId) {
-        User seller = userService.findByIdWithProfilesAndPermissions(userId);
+        User seller = userService.getUserById(userId);
         GameEvent gameEvent = gameEventRepository.findById(request.getGameEventId())
                 .orElseThrow(() -> new RuntimeException("Jogo não encontrado"));
 
         Sale sale = new Sale(seller, gameEvent);
 
+        // Carrega todos os produtos da venda em uma única consulta
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (SaleRequest.SaleItemRequest itemRequest : request.getItems()) {
-            Product product = productService.getProductById(itemRequest.getProductId());
-            
-            if (!product.hasStock(itemRequest.getQuantity())) {
-                throw new RuntimeException("Estoque insuficiente para o produto: " + product.getName());
+            quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        Map<Long, Product> products = productService.getProductsByIds(quantities.keySet());
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new RuntimeException("Produto não encontrado");
             }
+        }
 
+        // Baixa atômica de todos os itens em um lote: falha se outra venda consumiu o estoque antes
+        List<Long> outOfStock = productService.decreaseStock(quantities);
+        if (!outOfStock.isEmpty()) {
+            throw new RuntimeException("Estoque insuficiente para o produto: " + products.get(outOfStock.get(0)).getName());
+        }
+
+        for (SaleRequest.SaleItemRequest itemRequest : request.getItems()) {
             // Usar o preço enviado pelo frontend
-            SaleItem saleItem = new SaleItem(product, itemRequest.getQuantity(), itemRequest.getPrice());
+            SaleItem saleItem = new SaleItem(products.get(itemRequest.getProductId()), itemRequest.getQuantity(), itemRequest.getPrice());
             sale.addItem(saleItem);
-            
-            // Atualiza o estoque
-            productService.decreaseStock(product.getId(), itemRequest.getQuantity());
         }
 
-        // Salva a venda
-        Sale savedSale = saleRepository.save(sale);
+        // Venda e itens em lotes JDBC: o número de instruções não cresce com o número de itens
+        LocalDateTime now = LocalDateTime.now();
+        sale.setCriadoEm(now);
+        sale.setAtualizadoEm(now);
+        saleRepository.insertAll(Collections.singletonList(sale));
+
+        // Atualiza os totais consolidados do dashboard
+        saleAggregateService.recordSale(sale);
+        eventPublisher.publishEvent(new SaleChangedEvent(sale.getId()));
 
         // Cria uma entrada no orçamento para a venda
-        createBudgetEntryForSale(savedSale, seller);
+        createBudgetEntryForSale(sale);
 
-        return savedSale;
+        return sale;
     }
 
-    private void createBudgetEntryForSale(Sale sale, User seller) {
-        try {
-            // Cria uma entrada no orçamento do tipo INCOME
-            Budget budgetEntry = new Budget();
-            budgetEntry.setDescription("Venda - " + sale.getGameEvent().getName() + " - " + sale.getItems().size() + " item(s) - Vendedor: " + seller.getName());
-            budgetEntry.setAmount(sale.getTotalAmount());
-            budgetEntry.setType(Budget.BudgetType.INCOME);
-            budgetEntry.setUser(seller);
-            budgetEntry.setDate(LocalDateTime.now());
-            budgetEntry.setNotes("Venda ID: " + sale.getId() + " - Jogo: " + sale.getGameEvent().getName() + " - Vendedor: " + seller.getName());
-
-            // Salva a entrada no orçamento
-            budgetService.createBudgetFromSale(budgetEntry);
-        } catch (Exception e) {
-            // Log do erro, mas não falha a venda se o orçamento falhar
-            System.err.println("Erro ao criar entrada no orçamento para venda " + sale.getId() + ": " + e.getMessage());
-        }
+    // Vai para a outbox na mesma transação; o lançamento em budgets fica com o BudgetOutboxWorker
+    private void createBudgetEntryForSale(Sale sale) {
+        budgetService.enqueueEntry(incomeEntryFor(sale));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SaleResponse> getAllSales() {
+        return toResponses(saleRepository.findAllActiveOrderByDate());
     }
 
-    public List<Sale> getAllSales() {
-        return saleRepository.findAllActiveOrderByDate();
+    @Transactional(readOnly = true)
+    public List<SaleResponse> getSalesByGameEvent(Long gameEventId) {
+        return toResponses(saleRepository.findByGameEventId(gameEventId));
     }
 
-    public List<Sale> getSalesByGameEvent(Long gameEventId) {
-        return saleRepository.findByGameEventId(gameEventId);
+    @Transactional(readOnly = true)
+    public List<SaleResponse> getSalesBySeller(Long sellerId) {
+        return toResponses(saleRepository.findBySellerId(sellerId));
     }
 
-    public List<Sale> getSalesBySeller(Long sellerId) {
-        return saleRepository.findBySellerId(sellerId);
+    // Vendas já vêm com jogo, itens e produtos pelo entity graph; os vendedores vêm do read model de usuários
+    private List<SaleResponse> toResponses(List<Sale> sales) {
+        Map<Long, UserResponse> sellers = sellersOf(sales);
+        return sales.stream()
+                .map(sale -> new SaleResponse(sale, sellers.get(sale.getSeller().getId())))
+                .collect(Collectors.toList());
     }
 
-    public Sale getSaleById(Long id) {
-        return saleRepository.findById(id)
+    private Map<Long, UserResponse> sellersOf(List<Sale> sales) {
+        Set<Long> sellerIds = sales.stream()
+                .map(sale -> sale.getSeller().getId())
+                .collect(Collectors.toSet());
+        return userService.getUserResponses(sellerIds);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<SaleResponse> getSalesPage(String cursor, Integer size) {
+        int pageSize = PageCursor.clampSize(size);
+        PageCursor position = PageCursor.decode(cursor);
+        // Busca uma linha a mais apenas para saber se há próxima página
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Sale> rows = position == null
+                ? saleRepository.findFirstPage(limit)
+                : saleRepository.findPageAfter(position.getKey(), position.getId(), limit);
+        Map<Long, UserResponse> sellers = sellersOf(rows);
+        return CursorPageResponse.of(rows, pageSize, sale -> new SaleResponse(sale, sellers.get(sale.getSeller().getId())),
+                                     Sale::getCriadoEm, Sale::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public SaleResponse getSaleById(Long id) {
+        Sale sale = saleRepository.findWithDetailsById(id)
+                .orElseThrow(() -> new RuntimeException("Venda não encontrada"));
+        return new SaleResponse(sale, userService.getUserResponseById(sale.getSeller().getId()));
+    }
+
+    /**
+     * Estorna a venda: exclusão lógica, itens de volta ao estoque e remoção da entrada INCOME do orçamento
+     * (inclusive a ainda pendente na outbox), tudo na mesma transação dos totais do dashboard.
+     */
+    @Transactional
+    public void deleteSale(Long id) {
+        Sale sale = saleRepository.findWithDetailsById(id)
+                .filter(s -> s.getDeletadoEm() == null)
                 .orElseThrow(() -> new RuntimeException("Venda não encontrada"));
+
+        sale.setDeletadoEm(LocalDateTime.now());
+        saleRepository.save(sale);
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (SaleItem item : sale.getItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        productService.restoreStock(quantities);
+
+        budgetService.deleteBySource(Budget.SourceType.SALE, sale.getId());
+
+        // Remove a venda dos totais consolidados do dashboard
+        saleAggregateService.removeSale(sale);
+        eventPublisher.publishEvent(new SaleChangedEvent(sale.getId()));
+    }
+
+    /**
+     * Entrada INCOME no orçamento correspondente a uma venda já gravada (com ID).
+     */
+    static Budget incomeEntryFor(Sale sale) {
+        User seller = sale.getSeller();
+        Budget budgetEntry = new Budget();
+        budgetEntry.setDescription("Venda - " + sale.getGameEvent().getName() + " - " + sale.getItems().size() + " item(s) - Vendedor: " + seller.getName());
+        budgetEntry.setAmount(sale.getTotalAmount());
+        budgetEntry.setType(Budget.BudgetType.INCOME);
+        budgetEntry.setUser(seller);
+        // Lançamento na data da venda (no lote, o soldAt do caixa), não na da sincronização
+        budgetEntry.setDate(sale.getCriadoEm() != null ? sale.getCriadoEm() : LocalDateTime.now());
+        budgetEntry.setNotes("Venda ID: " + sale.getId() + " - Jogo: " + sale.getGameEvent().getName() + " - Vendedor: " + seller.getName());
+        budgetEntry.setSource(Budget.SourceType.SALE, sale.getId());
+        return budgetEntry;
     }
 
     public BigDecimal getTotalRevenueByGameEvent(Long gameEventId) {
@@ -0,0 +1,97 @@
+package com.soldiers.service;
+
+import com.soldiers.dto.response.SearchResultResponse;
+import com.soldiers.repository.PlayerRepository;
+import com.soldiers.repository.ProductRepository;
+import com.soldiers.repository.TeamRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Typeahead de produtos, jogadores e times sobre os índices de trigramas (V3__name_search).
+ */
+@Service
+public class SearchService {
+
+    public static final String TYPE_PRODUCT = "PRODUCT";
+    public static final String TYPE_PLAYER = "PLAYER";
+    public static final String TYPE_TEAM = "TEAM";
+
+    public static final int MIN_TERM_LENGTH = 2;
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final ProductRepository productRepository;
+    private final PlayerRepository playerRepository;
+    private final TeamRepository teamRepository;
+
+    public SearchService(ProductRepository productRepository, PlayerRepository playerRepository,
+                         TeamRepository teamRepository) {
+        this.productRepository = productRepository;
+        this.playerRepository = playerRepository;
+        this.teamRepository = teamRepository;
+    }
+
+    // Mesma ordem das consultas (prefixo, similaridade, nome): a mescla não pode passar
+    // um resultado só parecido na frente de um nome que começa pelo termo
+    private static final Comparator<SearchResultResponse> RANKING =
+            Comparator.comparing(SearchResultResponse::isPrefix).reversed()
+                    .thenComparing(Comparator.comparingDouble(SearchResultResponse::getScore).reversed())
+                    .thenComparing(SearchResultResponse::getName, String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Cada tipo pede no máximo "limit" linhas ao banco; o resultado mesclado é cortado no mesmo limite.
+     */
+    @Transactional(readOnly = true)
+    public List<SearchResultResponse> typeahead(String term, Collection<String> types, Integer limit) {
+        String normalized = normalize(term);
+        if (normalized.length() < MIN_TERM_LENGTH) {
+            return new ArrayList<>();
+        }
+        int max = clampLimit(limit);
+
+        List<SearchResultResponse> results = new ArrayList<>();
+        if (includes(types, TYPE_PRODUCT)) {
+            productRepository.searchByName(normalized, max)
+                    .forEach(match -> results.add(new SearchResultResponse(TYPE_PRODUCT, match)));
+        }
+        if (includes(types, TYPE_PLAYER)) {
+            playerRepository.searchByName(normalized, max)
+                    .forEach(match -> results.add(new SearchResultResponse(TYPE_PLAYER, match)));
+        }
+        if (includes(types, TYPE_TEAM)) {
+            teamRepository.searchByName(normalized, max)
+                    .forEach(match -> results.add(new SearchResultResponse(TYPE_TEAM, match)));
+        }
+
+        return results.stream()
+                .sorted(RANKING)
+                .limit(max)
+                .collect(Collectors.toList());
+    }
+
+    // Espaços colapsados e curingas do LIKE removidos: o termo é sempre literal
+    private String normalize(String term) {
+        if (term == null) {
+            return "";
+        }
+        return term.replaceAll("[%_\\\\]", " ").trim().replaceAll("\\s+", " ");
+    }
+
+    private boolean includes(Collection<String> types, String type) {
+        return types == null || types.isEmpty() || types.stream().anyMatch(type::equalsIgnoreCase);
+    }
+
+    private int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -1,22 +1,38 @@
 package com.soldiers.service;
 
+import com.soldiers.dto.projection.IdLinkProjection;
+import com.soldiers.dto.projection.PlayerSummaryProjection;
+import com.soldiers.dto.projection.TeamSummaryProjection;
+import com.soldiers.dto.request.PageCursor;
 import com.soldiers.dto.request.TeamRequest;
+import com.soldiers.dto.response.CursorPageResponse;
+import com.soldiers.dto.response.PlayerResponse;
 import com.soldiers.dto.response.TeamResponse;
 import com.soldiers.entity.Player;
 import com.soldiers.entity.Team;
 import com.soldiers.repository.PlayerRepository;
 import com.soldiers.repository.TeamRepository;
+import org.springframework.data.domain.PageRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class TeamService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TeamService.class);
+
     private final TeamRepository teamRepository;
     private final PlayerRepository playerRepository;
 
@@ -25,23 +41,72 @@ public class TeamService {
         this.playerRepository = playerRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<TeamResponse> getAllTeams() {
         try {
-            List<Team> teams = teamRepository.findAllActive();
-            return teams.stream()
-                    .map(TeamResponse::new)
-                    .collect(Collectors.toList());
+            return toResponses(teamRepository.findActiveSummaries());
         } catch (Exception e) {
-            System.err.println("Erro ao buscar times: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Erro ao buscar times", e);
             return new ArrayList<>();
         }
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TeamResponse> getTeamsPage(String cursor, Integer size) {
+        int pageSize = PageCursor.clampSize(size);
+        PageCursor position = PageCursor.decode(cursor);
+        // Busca uma linha a mais apenas para saber se há próxima página
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Team> rows = position == null
+                ? teamRepository.findFirstPage(limit)
+                : teamRepository.findPageAfter(position.getKey(), position.getId(), limit);
+        return CursorPageResponse.of(rows, pageSize, TeamResponse::new, Team::getCriadoEm, Team::getId);
+    }
+
+    @Transactional(readOnly = true)
     public TeamResponse getTeamById(Long id) {
-        Team team = teamRepository.findByIdWithPlayers(id)
-                .orElseThrow(() -> new RuntimeException("Time não encontrado"));
-        return new TeamResponse(team);
+        List<TeamResponse> teams = toResponses(teamRepository.findSummariesByIds(Collections.singleton(id)));
+        if (teams.isEmpty()) {
+            throw new RuntimeException("Time não encontrado");
+        }
+        return teams.get(0);
+    }
+
+    /**
+     * TeamResponse de vários times de uma vez, indexados por id.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, TeamResponse> getTeamResponses(Collection<Long> ids) {
+        Map<Long, TeamResponse> responses = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return responses;
+        }
+        for (TeamResponse response : toResponses(teamRepository.findSummariesByIds(ids))) {
+            responses.put(response.getId(), response);
+        }
+        return responses;
+    }
+
+    // Três consultas fixas (times, vínculos, jogadores) independentemente do número de times
+    private List<TeamResponse> toResponses(List<TeamSummaryProjection> teams) {
+        if (teams.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> teamIds = teams.stream().map(TeamSummaryProjection::getId).collect(Collectors.toList());
+        List<IdLinkProjection> links = teamRepository.findPlayerLinks(teamIds);
+        Map<Long, List<Long>> playerIdsByTeam = IdLinkProjection.groupByParent(links);
+        Map<Long, PlayerSummaryProjection> players = links.isEmpty()
+                ? Collections.emptyMap()
+                : playerRepository.findSummariesByIds(IdLinkProjection.childIds(links)).stream()
+                        .collect(Collectors.toMap(PlayerSummaryProjection::getId, player -> player));
+
+        return teams.stream()
+                .map(team -> new TeamResponse(team, playerIdsByTeam.getOrDefault(team.getId(), Collections.emptyList()).stream()
+                        .map(players::get)
+                        .filter(Objects::nonNull)
+                        .map(player -> new PlayerResponse(player, new ArrayList<>())) // sem times para evitar circular
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -123,19 +188,15 @@ public class TeamService {
         teamRepository.save(team);
     }
 
+    @Transactional(readOnly = true)
     public List<TeamResponse> getTeamsByStatus(String status) {
         Team.TeamStatus teamStatus = Team.TeamStatus.valueOf(status.toUpperCase());
-        List<Team> teams = teamRepository.findByStatus(teamStatus);
-        return teams.stream()
-                .map(TeamResponse::new)
-                .collect(Collectors.toList());
+        return toResponses(teamRepository.findSummariesByStatus(teamStatus));
     }
 
+    @Transactional(readOnly = true)
     public List<TeamResponse> searchTeamsByName(String name) {
-        List<Team> teams = teamRepository.findByNameContaining(name);
-        return teams.stream()
-                .map(TeamResponse::new)
-                .collect(Collectors.toList());
+        return toResponses(teamRepository.findSummariesByNameContaining(name));
     }
 
     @Transactional
@@ -10,6 +10,8 @@ import com.soldiers.repository.UserRepository;
 import com.soldiers.dto.request.TripBudgetRequest;
 import com.soldiers.dto.response.TripBudgetResponse;
 import com.soldiers.service.BudgetService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -19,10 +21,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import com.soldiers.dto.response.BudgetResponse;
 
 @Service
 public class TripBudgetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TripBudgetService.class);
     
     @Autowired
     private TripBudgetRepository tripBudgetRepository;
@@ -160,43 +163,31 @@ public class TripBudgetService {
     }
     
     /**
-     * Cria uma entrada no orçamento geral baseada na movimentação da viagem
+     * Enfileira na outbox a entrada do orçamento geral correspondente à movimentação da viagem,
+     * na mesma transação; o BudgetOutboxWorker a lança em budgets.
      */
     private void createGeneralBudgetEntry(TripBudget tripBudget, User user, Trip trip) {
-        try {
-            System.out.println("Criando entrada no orçamento geral para TripBudget ID: " + tripBudget.getId());
-            
-            Budget generalBudget = new Budget();
-            
-            // Define o tipo baseado no tipo da movimentação da viagem
-            Budget.BudgetType generalType = tripBudget.getType() == TripBudget.BudgetType.INCOME 
-                ? Budget.BudgetType.INCOME 
-                : Budget.BudgetType.EXPENSE;
-            
-            generalBudget.setDescription("Viagem - " + trip.getDestination() + " - " + tripBudget.getDescription());
-            generalBudget.setAmount(tripBudget.getAmount());
-            generalBudget.setType(generalType);
-            generalBudget.setUser(user);
-            generalBudget.setDate(LocalDateTime.now());
-            generalBudget.setNotes("Movimentação da viagem ID: " + trip.getId() + 
-                                 " - " + trip.getDestination() + 
-                                 " - " + tripBudget.getDescription() + 
-                                 " (TripBudget ID: " + tripBudget.getId() + ")");
-            
-            System.out.println("Salvando entrada no orçamento geral: " + generalBudget.getDescription() + 
-                             " - Valor: " + generalBudget.getAmount() + 
-                             " - Tipo: " + generalBudget.getType());
-            
-            BudgetResponse savedBudget = budgetService.createBudgetFromSale(generalBudget);
-            
-            System.out.println("Entrada criada com sucesso no orçamento geral ID: " + savedBudget.getId());
-            
-        } catch (Exception e) {
-            // Log do erro, mas não falha a operação da viagem se o orçamento geral falhar
-            System.err.println("Erro ao criar entrada no orçamento geral para movimentação " + 
-                             tripBudget.getId() + ": " + e.getMessage());
-            e.printStackTrace();
-        }
+        Budget generalBudget = new Budget();
+        
+        // Define o tipo baseado no tipo da movimentação da viagem
+        Budget.BudgetType generalType = tripBudget.getType() == TripBudget.BudgetType.INCOME 
+            ? Budget.BudgetType.INCOME 
+            : Budget.BudgetType.EXPENSE;
+        
+        generalBudget.setDescription("Viagem - " + trip.getDestination() + " - " + tripBudget.getDescription());
+        generalBudget.setAmount(tripBudget.getAmount());
+        generalBudget.setType(generalType);
+        generalBudget.setUser(user);
+        generalBudget.setDate(LocalDateTime.now());
+        generalBudget.setNotes("Movimentação da viagem ID: " + trip.getId() + 
+                             " - " + trip.getDestination() + 
+                             " - " + tripBudget.getDescription() + 
+                             " (TripBudget ID: " + tripBudget.getId() + ")");
+        generalBudget.setSource(Budget.SourceType.TRIP_BUDGET, tripBudget.getId());
+        generalBudget.setTripId(trip.getId());
+        
+        budgetService.enqueueEntry(generalBudget);
+        logger.debug("Entrada do orçamento geral enfileirada para TripBudget ID: {}", tripBudget.getId());
     }
     
     /**
@@ -204,26 +195,11 @@ public class TripBudgetService {
      */
     private void removeGeneralBudgetEntry(TripBudget tripBudget) {
         try {
-            System.out.println("Removendo entrada do orçamento geral para TripBudget ID: " + tripBudget.getId());
-            
-            // Busca pela entrada correspondente no orçamento geral
-            // Procura por movimentações que contenham o ID do TripBudget nas notas
-            List<BudgetResponse> allBudgets = budgetService.getAllBudgets();
-            
-            for (BudgetResponse budgetResponse : allBudgets) {
-                String notes = budgetResponse.getNotes();
-                if (notes != null && notes.contains("TripBudget ID: " + tripBudget.getId())) {
-                    // Remove a entrada correspondente do orçamento geral usando o método de força
-                    budgetService.forceDeleteTripRelatedBudget(budgetResponse.getId());
-                    System.out.println("Removida entrada do orçamento geral ID: " + budgetResponse.getId() + 
-                                     " para TripBudget ID: " + tripBudget.getId());
-                    break;
-                }
-            }
+            // Remove a entrada correspondente pelo vínculo indexado (source_type/source_id)
+            int removed = budgetService.deleteBySource(Budget.SourceType.TRIP_BUDGET, tripBudget.getId());
+            logger.debug("Removidas {} entradas do orçamento geral para TripBudget ID: {}", removed, tripBudget.getId());
         } catch (Exception e) {
-            System.err.println("Erro ao remover entrada do orçamento geral para movimentação " + 
-                             tripBudget.getId() + ": " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Erro ao remover entrada do orçamento geral para movimentação {}", tripBudget.getId(), e);
         }
     }
 }
@@ -9,6 +9,8 @@ import com.soldiers.repository.TripRepository;
 import com.soldiers.repository.UserRepository;
 import com.soldiers.dto.request.TripExpenseRequest;
 import com.soldiers.dto.response.TripExpenseResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +21,8 @@ import java.util.stream.Collectors;
 
 @Service
 public class TripExpenseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TripExpenseService.class);
     
     @Autowired
     private TripExpenseRepository tripExpenseRepository;
@@ -74,23 +78,18 @@ public class TripExpenseService {
         return new TripExpenseResponse(savedExpense);
     }
     
+    // Vai para a outbox na mesma transação do gasto; o BudgetOutboxWorker lança em budgets
     private void createBudgetEntryForExpense(TripExpense expense, User user, Trip trip) {
-        try {
-            // Cria uma entrada no orçamento do tipo EXPENSE
-            Budget budgetEntry = new Budget();
-            budgetEntry.setDescription("Gasto de Viagem - " + trip.getDestination() + " - " + expense.getDescription());
-            budgetEntry.setAmount(expense.getAmount());
-            budgetEntry.setType(Budget.BudgetType.EXPENSE);
-            budgetEntry.setUser(user);
-            budgetEntry.setDate(LocalDateTime.now());
-            budgetEntry.setNotes("Gasto ID: " + expense.getId() + " - Viagem: " + trip.getDestination() + " - " + expense.getDescription());
-
-            // Salva a entrada no orçamento
-            budgetService.createBudgetFromSale(budgetEntry);
-        } catch (Exception e) {
-            // Log do erro, mas não falha o gasto se o orçamento falhar
-            System.err.println("Erro ao criar entrada no orçamento para gasto " + expense.getId() + ": " + e.getMessage());
-        }
+        Budget budgetEntry = new Budget();
+        budgetEntry.setDescription("Gasto de Viagem - " + trip.getDestination() + " - " + expense.getDescription());
+        budgetEntry.setAmount(expense.getAmount());
+        budgetEntry.setType(Budget.BudgetType.EXPENSE);
+        budgetEntry.setUser(user);
+        budgetEntry.setDate(LocalDateTime.now());
+        budgetEntry.setNotes("Gasto ID: " + expense.getId() + " - Viagem: " + trip.getDestination() + " - " + expense.getDescription());
+        budgetEntry.setSource(Budget.SourceType.TRIP_EXPENSE, expense.getId());
+        budgetEntry.setTripId(trip.getId());
+        budgetService.enqueueEntry(budgetEntry);
     }
     
     @Transactional
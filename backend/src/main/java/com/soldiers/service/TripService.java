@@ -1,5 +1,10 @@
 package com.soldiers.service;
 
+import com.soldiers.dto.projection.IdLinkProjection;
+import com.soldiers.dto.projection.TripExpenseProjection;
+import com.soldiers.dto.projection.TripSummaryProjection;
+import com.soldiers.dto.request.PageCursor;
+import com.soldiers.dto.response.CursorPageResponse;
 import com.soldiers.entity.Trip;
 import com.soldiers.entity.Trip.TripStatus;
 import com.soldiers.entity.User;
@@ -7,29 +12,42 @@ import com.soldiers.entity.Budget;
 import com.soldiers.entity.Player;
 import com.soldiers.entity.Team;
 
+import com.soldiers.repository.TripExpenseRepository;
 import com.soldiers.repository.TripRepository;
 import com.soldiers.repository.UserRepository;
 import com.soldiers.repository.PlayerRepository;
 import com.soldiers.repository.TeamRepository;
 import com.soldiers.dto.request.TripRequest;
 
+import com.soldiers.dto.response.PlayerResponse;
+import com.soldiers.dto.response.TeamResponse;
+import com.soldiers.dto.response.TripExpenseResponse;
 import com.soldiers.dto.response.TripResponse;
 import com.soldiers.dto.response.BudgetResponse;
 import com.soldiers.service.BudgetService;
 import com.soldiers.service.PlayerService;
 import com.soldiers.service.TeamService;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class TripService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TripService.class);
     
     @Autowired
     private TripRepository tripRepository;
@@ -46,41 +64,89 @@ public class TripService {
     @Autowired
     private TeamRepository teamRepository;
     
+    @Autowired
+    private TripExpenseRepository tripExpenseRepository;
+    
+    @Autowired
+    private PlayerService playerService;
+    
+    @Autowired
+    private TeamService teamService;
+    
 
     
     @Transactional(readOnly = true)
     public List<TripResponse> getAllTrips() {
-        return tripRepository.findAll().stream()
-                .map(TripResponse::new)
-                .collect(Collectors.toList());
+        return toResponses(tripRepository.findSummaries());
     }
     
     @Transactional(readOnly = true)
     public List<TripResponse> getTripsByStatus(TripStatus status) {
-        return tripRepository.findByStatusOrderByDepartureDateDesc(status).stream()
-                .map(TripResponse::new)
-                .collect(Collectors.toList());
+        return toResponses(tripRepository.findSummariesByStatus(status));
     }
     
     @Transactional(readOnly = true)
     public List<TripResponse> getUpcomingTrips() {
-        return tripRepository.findUpcomingTrips(LocalDateTime.now()).stream()
-                .map(TripResponse::new)
-                .collect(Collectors.toList());
+        return toResponses(tripRepository.findUpcomingSummaries(LocalDateTime.now()));
     }
     
     @Transactional(readOnly = true)
     public List<TripResponse> getPastTrips() {
-        return tripRepository.findPastTrips(LocalDateTime.now()).stream()
-                .map(TripResponse::new)
-                .collect(Collectors.toList());
+        return toResponses(tripRepository.findPastSummaries(LocalDateTime.now()));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TripResponse> getTripsPage(String cursor, Integer size) {
+        int pageSize = PageCursor.clampSize(size);
+        PageCursor position = PageCursor.decode(cursor);
+        // Busca uma linha a mais apenas para saber se há próxima página
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Trip> rows = position == null
+                ? tripRepository.findFirstPage(limit)
+                : tripRepository.findPageAfter(position.getKey(), position.getId(), limit);
+        return CursorPageResponse.of(rows, pageSize, TripResponse::new, Trip::getDepartureDate, Trip::getId);
     }
     
     @Transactional(readOnly = true)
     public TripResponse getTripById(Long id) {
-        Trip trip = tripRepository.findById(id)
+        TripSummaryProjection trip = tripRepository.findSummaryById(id)
                 .orElseThrow(() -> new RuntimeException("Viagem não encontrada"));
-        return new TripResponse(trip);
+        return toResponses(Collections.singletonList(trip)).get(0);
+    }
+    
+    // Gastos, jogadores e times carregados por lote de ids: o número de consultas não cresce com o de viagens
+    private List<TripResponse> toResponses(List<TripSummaryProjection> trips) {
+        if (trips.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> tripIds = trips.stream().map(TripSummaryProjection::getId).collect(Collectors.toList());
+        Map<Long, List<TripExpenseResponse>> expensesByTrip = tripExpenseRepository.findProjectionsByTripIds(tripIds).stream()
+                .collect(Collectors.groupingBy(TripExpenseProjection::getTripId,
+                         Collectors.mapping(TripExpenseResponse::new, Collectors.toList())));
+        
+        List<IdLinkProjection> playerLinks = tripRepository.findPlayerLinks(tripIds);
+        List<IdLinkProjection> teamLinks = tripRepository.findTeamLinks(tripIds);
+        Map<Long, List<Long>> playerIdsByTrip = IdLinkProjection.groupByParent(playerLinks);
+        Map<Long, List<Long>> teamIdsByTrip = IdLinkProjection.groupByParent(teamLinks);
+        Map<Long, PlayerResponse> players = playerService.getPlayerResponses(IdLinkProjection.childIds(playerLinks));
+        Map<Long, TeamResponse> teams = teamService.getTeamResponses(IdLinkProjection.childIds(teamLinks));
+        
+        return trips.stream()
+                .map(trip -> new TripResponse(trip,
+                        expensesByTrip.getOrDefault(trip.getId(), new ArrayList<>()),
+                        resolve(playerIdsByTrip.get(trip.getId()), players),
+                        resolve(teamIdsByTrip.get(trip.getId()), teams)))
+                .collect(Collectors.toList());
+    }
+    
+    private <T> List<T> resolve(List<Long> ids, Map<Long, T> responses) {
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        return ids.stream()
+                .map(responses::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
     
     @Transactional
@@ -178,37 +244,13 @@ public class TripService {
      */
     private void removeTripExpensesFromGeneralBudget(Trip trip) {
         try {
-            // Busca todas as entradas no orçamento geral relacionadas a esta viagem
-            List<BudgetResponse> allBudgets = budgetService.getAllBudgets();
-            List<BudgetResponse> tripBudgets = allBudgets.stream()
-                .filter(response -> {
-                    // Filtra entradas relacionadas à viagem
-                    String notes = response.getNotes();
-                    String description = response.getDescription();
-                    
-                    return (notes != null && notes.contains("viagem ID: " + trip.getId())) ||
-                           (description != null && description.contains("Viagem para " + trip.getDestination()));
-                })
-                .collect(Collectors.toList());
-            
-            // Remove cada entrada encontrada usando o método de força
-            for (BudgetResponse budgetResponse : tripBudgets) {
-                try {
-                    budgetService.forceDeleteTripRelatedBudget(budgetResponse.getId());
-                    System.out.println("Removida entrada do orçamento geral ID: " + budgetResponse.getId() + 
-                                     " para viagem ID: " + trip.getId());
-                } catch (Exception e) {
-                    // Se não conseguir remover uma entrada específica, apenas loga o erro mas continua
-                    System.err.println("Erro ao remover entrada do orçamento geral ID: " + budgetResponse.getId() + 
-                                     " para viagem ID: " + trip.getId() + ": " + e.getMessage());
-                }
-            }
-            
-            System.out.println("Processadas " + tripBudgets.size() + " entradas do orçamento geral para viagem ID: " + trip.getId());
+            // Exclusão única pelo vínculo indexado trip_id, independente do tamanho do orçamento
+            int removed = budgetService.deleteByTrip(trip.getId());
+            logger.info("Removidas {} entradas do orçamento geral para viagem ID: {}", removed, trip.getId());
             
         } catch (Exception e) {
             // Se houver erro geral, apenas loga mas não falha a exclusão da viagem
-            System.err.println("Erro ao processar remoção de gastos da viagem do orçamento geral: " + e.getMessage());
+            logger.error("Erro ao processar remoção de gastos da viagem {} do orçamento geral", trip.getId(), e);
         }
     }
 }
@@ -2,69 +2,98 @@ package com.soldiers.service;
 
 import com.soldiers.dto.request.LoginRequest;
 import com.soldiers.dto.request.UserRequest;
+import com.soldiers.dto.projection.IdLinkProjection;
+import com.soldiers.dto.projection.ProfileSummaryProjection;
+import com.soldiers.dto.projection.UserSummaryProjection;
 import com.soldiers.dto.response.LoginResponse;
+import com.soldiers.dto.response.UserResponse;
+import com.soldiers.dto.response.UserResponse.PermissionResponse;
+import com.soldiers.dto.response.UserResponse.ProfileSummaryResponse;
 import com.soldiers.entity.Profile;
 import com.soldiers.entity.User;
+import com.soldiers.repository.ProfileRepository;
 import com.soldiers.repository.UserRepository;
+import com.soldiers.security.JwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ProfileService profileService;
-
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, ProfileService profileService) {
+    private final ProfileRepository profileRepository;
+    private final PermissionCacheService permissionCacheService;
+    private final JwtService jwtService;
+    private final PasswordHashingService passwordHashingService;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, ProfileService profileService,
+                       ProfileRepository profileRepository, PermissionCacheService permissionCacheService,
+                       JwtService jwtService, PasswordHashingService passwordHashingService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.profileService = profileService;
+        this.profileRepository = profileRepository;
+        this.permissionCacheService = permissionCacheService;
+        this.jwtService = jwtService;
+        this.passwordHashingService = passwordHashingService;
     }
 
     public LoginResponse login(LoginRequest request) {
         try {
-            System.out.println("Tentando fazer login para o email: " + request.getEmail());
+            logger.debug("Tentando fazer login para o email: {}", request.getEmail());
             
-            // Buscar usuário com perfis e permissões carregadas
-            User user = userRepository.findByEmailWithProfilesAndPermissions(request.getEmail())
-                    .orElseGet(() -> {
-                        // Se não encontrar com perfil, tentar sem perfil
-                        return userRepository.findByEmailAndDeletadoEmIsNull(request.getEmail())
-                                .orElse(null);
-                    });
-            
-            if (user == null) {
-                throw new RuntimeException("Usuário não encontrado");
-            }
-
-            System.out.println("Usuário encontrado: " + user.getName());
+            // Busca só usuário e perfis; as permissões vêm do cache por perfil
+            User user = userRepository.findByEmailWithProfile(request.getEmail())
+                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
             // Verificar se o usuário está ativo
             if (!user.isActive()) {
                 throw new RuntimeException("Usuário inativo");
             }
 
-            System.out.println("Usuário está ativo");
-
-            // Verificar senha
-            if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            // Verificar senha (no pool limitado de hashing, não na thread do Tomcat)
+            if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
                 throw new RuntimeException("Senha incorreta");
             }
 
-            System.out.println("Senha verificada com sucesso");
+            // Hash com parâmetros antigos: refaz com o strength atual enquanto temos a senha em claro
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                userRepository.updatePassword(user.getId(), passwordHashingService.encode(request.getPassword()));
+                logger.info("Hash de senha atualizado para o usuário {}", user.getId());
+            }
 
-            return new LoginResponse("SUCCESS", user);
+            // Máscara efetiva e id vão no token: as próximas requisições não consultam usuário nem perfis
+            UserResponse response = toResponse(user);
+            boolean admin = user.getProfiles().stream().anyMatch(profile -> "ADMIN".equals(profile.getName()));
+            long mask = permissionCacheService.getEffectiveMask(response.getProfiles().stream()
+                    .map(ProfileSummaryResponse::getId)
+                    .collect(Collectors.toList()));
+            String token = jwtService.generateToken(user.getId(), user.getEmail(), mask, admin);
+            return new LoginResponse("SUCCESS", response, token, jwtService.getExpiration(token));
         } catch (Exception e) {
-            System.err.println("Erro no login: " + e.getMessage());
-            e.printStackTrace();
+            logger.info("Falha no login para {}: {}", request.getEmail(), e.getMessage());
             throw e;
         }
     }
@@ -79,7 +108,7 @@ public class UserService {
         User user = new User();
         user.setName(request.getName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setActive(true);
 
         // Adicionar perfis se fornecidos
@@ -116,6 +145,75 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
     }
 
+    @Transactional(readOnly = true)
+    public List<UserResponse> getAllUserResponses() {
+        return toResponses(userRepository.findActiveSummaries());
+    }
+
+    @Transactional(readOnly = true)
+    public UserResponse getUserResponseById(Long id) {
+        List<UserResponse> responses = toResponses(userRepository.findSummariesByIds(Collections.singleton(id)));
+        if (responses.isEmpty()) {
+            throw new RuntimeException("Usuário não encontrado");
+        }
+        return responses.get(0);
+    }
+
+    /**
+     * UserResponse de vários usuários de uma vez, indexados por id.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, UserResponse> getUserResponses(Collection<Long> ids) {
+        Map<Long, UserResponse> responses = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return responses;
+        }
+        for (UserResponse response : toResponses(userRepository.findSummariesByIds(ids))) {
+            responses.put(response.getId(), response);
+        }
+        return responses;
+    }
+
+    // Usuário com perfis já carregados; permissões de cada perfil vêm do cache
+    private UserResponse toResponse(User user) {
+        List<ProfileSummaryResponse> profiles = user.getProfiles().stream()
+                .map(profile -> new ProfileSummaryResponse(profile, permissionCacheService.getPermissionResponses(profile.getId())))
+                .collect(Collectors.toList());
+        List<Long> profileIds = profiles.stream().map(ProfileSummaryResponse::getId).collect(Collectors.toList());
+        return new UserResponse(user, profiles, permissionCacheService.getEffectiveMask(profileIds));
+    }
+
+    // Três consultas fixas (usuários, vínculos, perfis), permissões pelo cache, independentemente do número de usuários
+    private List<UserResponse> toResponses(List<UserSummaryProjection> users) {
+        if (users.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> userIds = users.stream().map(UserSummaryProjection::getId).collect(Collectors.toList());
+        List<IdLinkProjection> links = userRepository.findProfileLinks(userIds);
+        Map<Long, List<Long>> profileIdsByUser = IdLinkProjection.groupByParent(links);
+        Set<Long> profileIds = IdLinkProjection.childIds(links);
+
+        Map<Long, ProfileSummaryResponse> profiles = new HashMap<>();
+        if (!profileIds.isEmpty()) {
+            Map<Long, List<PermissionResponse>> permissions = permissionCacheService.getPermissionResponses(profileIds);
+            for (ProfileSummaryProjection profile : profileRepository.findSummariesByIds(profileIds)) {
+                profiles.put(profile.getId(),
+                             new ProfileSummaryResponse(profile, permissions.getOrDefault(profile.getId(), new ArrayList<>())));
+            }
+        }
+
+        List<UserResponse> responses = new ArrayList<>();
+        for (UserSummaryProjection user : users) {
+            List<Long> userProfileIds = profileIdsByUser.getOrDefault(user.getId(), Collections.emptyList());
+            List<ProfileSummaryResponse> userProfiles = userProfileIds.stream()
+                    .map(profiles::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            responses.add(new UserResponse(user, userProfiles, permissionCacheService.getEffectiveMask(userProfileIds)));
+        }
+        return responses;
+    }
+
     public User findByIdWithProfilesAndPermissions(Long id) {
         return userRepository.findByIdWithProfilesAndPermissions(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
@@ -132,39 +230,31 @@ public class UserService {
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
         }
 
         // Atualizar perfis se fornecidos
-        System.out.println("ProfileService é null? " + (profileService == null));
-        System.out.println("ProfileName fornecido: " + request.getProfileName());
-        System.out.println("ProfileNames fornecido: " + request.getProfileNames());
-        
         // Limpar perfis existentes
         user.getProfiles().clear();
         
         // Adicionar perfis por profileName (compatibilidade)
         if (request.getProfileName() != null && profileService != null) {
-            System.out.println("Buscando perfil: " + request.getProfileName());
             Profile profile = profileService.getProfileByName(request.getProfileName())
                     .orElseThrow(() -> new RuntimeException("Perfil não encontrado"));
-            System.out.println("Perfil encontrado: " + profile.getName() + " (ID: " + profile.getId() + ")");
             user.addProfile(profile);
         }
         
         // Adicionar perfis por profileNames (múltiplos perfis)
         if (request.getProfileNames() != null && !request.getProfileNames().isEmpty() && profileService != null) {
             for (String profileName : request.getProfileNames()) {
-                System.out.println("Buscando perfil: " + profileName);
                 Profile profile = profileService.getProfileByName(profileName)
                         .orElseThrow(() -> new RuntimeException("Perfil não encontrado: " + profileName));
-                System.out.println("Perfil encontrado: " + profile.getName() + " (ID: " + profile.getId() + ")");
                 user.addProfile(profile);
             }
         }
         
         if (user.getProfiles().isEmpty()) {
-            System.out.println("Nenhum perfil foi atribuído ao usuário");
+            logger.info("Nenhum perfil foi atribuído ao usuário {}", id);
         }
 
         user = userRepository.save(user);
@@ -224,8 +314,7 @@ public class UserService {
                 userRepository.save(anakin);
             }
         } catch (Exception e) {
-            System.err.println("Erro ao inicializar dados: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Erro ao inicializar dados", e);
             throw e;
         }
     }
@@ -0,0 +1,12 @@
+-- =====================================================
+-- Versões dos caches em memória (CacheVersionService)
+-- Cada instância do backend incrementa a sequência da área após o commit de uma alteração
+-- e as demais comparam o last_value periodicamente para descartar o que têm em memória.
+-- Sequência em vez de linha de contador: nextval não bloqueia nem participa da transação,
+-- então vendas concorrentes não disputam uma linha quente.
+-- =====================================================
+
+CREATE SEQUENCE IF NOT EXISTS seq_cache_version_products;
+CREATE SEQUENCE IF NOT EXISTS seq_cache_version_profiles;
+CREATE SEQUENCE IF NOT EXISTS seq_cache_version_sales;
+CREATE SEQUENCE IF NOT EXISTS seq_cache_version_ledger;
@@ -0,0 +1,12 @@
+-- =====================================================
+-- Agregados de vendas de bancos criados antes de tb_sale_aggregate (V1_1)
+-- Roda uma vez, sob o lock do Flyway: as instâncias não reconstroem mais na inicialização.
+-- Tabela já populada (vendas registradas desde V1_1, ou V9) fica como está.
+-- =====================================================
+
+INSERT INTO tb_sale_aggregate (game_event_id, seller_id, sale_date, sale_count, total_amount)
+SELECT s.game_event_id, s.user_id, CAST(s.criado_em AS DATE), COUNT(*), SUM(s.total_amount)
+FROM tb_sale s
+WHERE s.deletado_em IS NULL
+  AND NOT EXISTS (SELECT 1 FROM tb_sale_aggregate)
+GROUP BY s.game_event_id, s.user_id, CAST(s.criado_em AS DATE);
@@ -0,0 +1,25 @@
+-- =====================================================
+-- Estruturas criadas antes da adoção do Flyway (ainda pelo ddl-auto: update)
+-- Bancos marcados em V1 podem ou não tê-las, conforme a versão que rodou neles;
+-- por isso tudo é IF NOT EXISTS. Precisa rodar antes de V2 (índices) e V8 (tb_sale_aggregate).
+-- =====================================================
+
+-- Totais de vendas por jogo, vendedor e dia (SaleAggregateService)
+CREATE TABLE IF NOT EXISTS tb_sale_aggregate (
+    id BIGSERIAL PRIMARY KEY,
+    game_event_id BIGINT NOT NULL,
+    seller_id BIGINT NOT NULL,
+    sale_date DATE NOT NULL,
+    sale_count BIGINT NOT NULL,
+    total_amount NUMERIC(12,2) NOT NULL,
+    CONSTRAINT uk_sale_aggregate_key UNIQUE (game_event_id, seller_id, sale_date)
+);
+
+-- Origem das entradas automáticas do orçamento (venda, movimentação ou gasto de viagem)
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS source_type VARCHAR(30);
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS source_id BIGINT;
+CREATE INDEX IF NOT EXISTS idx_budget_source ON budgets(source_type, source_id);
+
+-- Viagem das entradas geradas por movimentações e gastos de viagem (TripService.deleteTrip)
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS trip_id BIGINT;
+CREATE INDEX IF NOT EXISTS idx_budget_trip ON budgets(trip_id);
@@ -0,0 +1,42 @@
+-- =====================================================
+-- Origem e viagem das entradas do orçamento criadas antes das colunas de V1_1
+-- Roda uma vez; entradas novas já são gravadas com source_type/source_id e trip_id.
+-- =====================================================
+
+-- Origem a partir das observações geradas pelo sistema ("... ID: 123")
+UPDATE budgets SET source_type = 'TRIP_BUDGET',
+                   source_id = CAST(substring(notes from 'TripBudget ID: (\d+)') AS BIGINT)
+WHERE source_type IS NULL AND notes ~ 'TripBudget ID: \d+';
+
+UPDATE budgets SET source_type = 'SALE',
+                   source_id = CAST(substring(notes from '^Venda ID: (\d+)') AS BIGINT)
+WHERE source_type IS NULL AND notes ~ '^Venda ID: \d+';
+
+UPDATE budgets SET source_type = 'TRIP_EXPENSE',
+                   source_id = CAST(substring(notes from '^Gasto ID: (\d+)') AS BIGINT)
+WHERE source_type IS NULL AND notes ~ '^Gasto ID: \d+';
+
+-- Viagem a partir da movimentação ou do gasto de origem
+UPDATE budgets b SET trip_id = tb.trip_id FROM trip_budgets tb
+WHERE b.trip_id IS NULL AND b.source_type = 'TRIP_BUDGET' AND b.source_id = tb.id;
+
+UPDATE budgets b SET trip_id = te.trip_id FROM trip_expenses te
+WHERE b.trip_id IS NULL AND b.source_type = 'TRIP_EXPENSE' AND b.source_id = te.id;
+
+-- Observações "Movimentação da viagem ID: 123", apenas para viagens que ainda existem
+UPDATE budgets b SET trip_id = t.id FROM trips t
+WHERE b.trip_id IS NULL AND b.notes ~ 'viagem ID: \d+'
+  AND t.id = CAST(substring(b.notes from 'viagem ID: (\d+)') AS BIGINT);
+
+-- Entradas antigas identificadas apenas pela descrição "Viagem para <destino>": o destino precisa aparecer
+-- inteiro (escapado no padrão, sem continuar em outra palavra) e só vale quando uma única viagem combina.
+-- Destinos repetidos ou contidos em outro deixam trip_id nulo, para deleteByTrip não apagar entradas de outra viagem.
+UPDATE budgets b SET trip_id = m.trip_id FROM (
+    SELECT c.id AS budget_id, MIN(t.id) AS trip_id
+    FROM budgets c
+    JOIN trips t ON c.description ~ ('(^|\W)Viagem para ' || regexp_replace(t.destination, '(\W)', '\\\1', 'g') || '($|\W)')
+    WHERE c.trip_id IS NULL AND strpos(c.description, 'Viagem para ') > 0
+    GROUP BY c.id
+    HAVING COUNT(*) = 1
+) m
+WHERE b.id = m.budget_id;
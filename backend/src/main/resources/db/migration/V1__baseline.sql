@@ -0,0 +1,173 @@
+-- =====================================================
+-- Esquema base (equivalente ao que o ddl-auto: update gerava a partir das entidades antes das migrações)
+-- Bancos já existentes são marcados nesta versão pelo baseline-on-migrate e não executam este script;
+-- tudo que veio depois fica nas migrações seguintes, escritas para rodar também nesses bancos
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS tb_profile (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR(500),
+    active BOOLEAN NOT NULL DEFAULT true,
+    criado_em TIMESTAMP,
+    atualizado_em TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tb_profile_permission (
+    id BIGSERIAL PRIMARY KEY,
+    profile_id BIGINT NOT NULL REFERENCES tb_profile(id),
+    resource VARCHAR(255) NOT NULL,
+    action VARCHAR(255) NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT true
+);
+
+CREATE TABLE IF NOT EXISTS tb_user (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT true,
+    criado_em TIMESTAMP,
+    atualizado_em TIMESTAMP,
+    deletado_em TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tb_user_profile (
+    user_id BIGINT NOT NULL REFERENCES tb_user(id),
+    profile_id BIGINT NOT NULL REFERENCES tb_profile(id),
+    PRIMARY KEY (user_id, profile_id)
+);
+
+CREATE TABLE IF NOT EXISTS tb_product (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    price NUMERIC(10,2) NOT NULL,
+    stock INTEGER NOT NULL,
+    criado_em TIMESTAMP,
+    atualizado_em TIMESTAMP,
+    deletado_em TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tb_game_event (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    date DATE NOT NULL,
+    start_time TIME,
+    end_time TIME,
+    location VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    criado_em TIMESTAMP,
+    atualizado_em TIMESTAMP,
+    deletado_em TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tb_team (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    status VARCHAR(255) NOT NULL,
+    criado_em TIMESTAMP,
+    atualizado_em TIMESTAMP,
+    deletado_em TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tb_player (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    position VARCHAR(255) NOT NULL,
+    number VARCHAR(255) NOT NULL,
+    description TEXT,
+    status VARCHAR(255) NOT NULL,
+    criado_em TIMESTAMP,
+    atualizado_em TIMESTAMP,
+    deletado_em TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tb_team_player (
+    team_id BIGINT NOT NULL REFERENCES tb_team(id),
+    player_id BIGINT NOT NULL REFERENCES tb_player(id)
+);
+
+CREATE TABLE IF NOT EXISTS tb_sale (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES tb_user(id),
+    game_event_id BIGINT NOT NULL REFERENCES tb_game_event(id),
+    total_amount NUMERIC(10,2) NOT NULL,
+    criado_em TIMESTAMP,
+    atualizado_em TIMESTAMP,
+    deletado_em TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tb_sale_item (
+    id BIGSERIAL PRIMARY KEY,
+    sale_id BIGINT NOT NULL REFERENCES tb_sale(id),
+    product_id BIGINT NOT NULL REFERENCES tb_product(id),
+    quantity INTEGER NOT NULL,
+    price NUMERIC(10,2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id BIGSERIAL PRIMARY KEY,
+    description VARCHAR(255) NOT NULL,
+    amount NUMERIC(10,2) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    date TIMESTAMP NOT NULL,
+    user_id BIGINT REFERENCES tb_user(id),
+    notes TEXT
+);
+
+CREATE TABLE IF NOT EXISTS trips (
+    id BIGSERIAL PRIMARY KEY,
+    destination VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    departure_date TIMESTAMP NOT NULL,
+    return_date TIMESTAMP NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    total_cost NUMERIC(10,2),
+    initial_cost NUMERIC(10,2),
+    user_id BIGINT REFERENCES tb_user(id),
+    notes TEXT
+);
+
+CREATE TABLE IF NOT EXISTS trip_budgets (
+    id BIGSERIAL PRIMARY KEY,
+    description VARCHAR(255) NOT NULL,
+    amount NUMERIC(10,2) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    date TIMESTAMP NOT NULL,
+    trip_id BIGINT NOT NULL REFERENCES trips(id),
+    user_id BIGINT REFERENCES tb_user(id),
+    notes TEXT
+);
+
+CREATE TABLE IF NOT EXISTS trip_expenses (
+    id BIGSERIAL PRIMARY KEY,
+    description VARCHAR(255) NOT NULL,
+    amount NUMERIC(10,2) NOT NULL,
+    date TIMESTAMP NOT NULL,
+    trip_id BIGINT NOT NULL REFERENCES trips(id),
+    user_id BIGINT REFERENCES tb_user(id),
+    notes TEXT
+);
+
+CREATE TABLE IF NOT EXISTS tb_trip_player (
+    trip_id BIGINT NOT NULL REFERENCES trips(id),
+    player_id BIGINT NOT NULL REFERENCES tb_player(id)
+);
+
+CREATE TABLE IF NOT EXISTS tb_trip_team (
+    trip_id BIGINT NOT NULL REFERENCES trips(id),
+    team_id BIGINT NOT NULL REFERENCES tb_team(id)
+);
+
+CREATE TABLE IF NOT EXISTS tb_news (
+    id BIGSERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    content TEXT,
+    image_url TEXT,
+    criado_em TIMESTAMP NOT NULL,
+    atualizado_em TIMESTAMP,
+    deletado_em TIMESTAMP
+);
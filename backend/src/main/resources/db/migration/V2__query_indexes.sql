@@ -0,0 +1,49 @@
+-- =====================================================
+-- Índices para os predicados e ordenações usados pelos repositórios
+-- Parciais em deletado_em IS NULL: as consultas só leem registros ativos e o índice não carrega os excluídos
+-- =====================================================
+
+-- SaleRepository.findByGameEventId / getTotalRevenueByGameEvent / getSalesCountByGameEvent
+CREATE INDEX IF NOT EXISTS idx_sale_game_active ON tb_sale(game_event_id) WHERE deletado_em IS NULL;
+
+-- SaleRepository.findBySellerId (o vendedor é a coluna user_id)
+CREATE INDEX IF NOT EXISTS idx_sale_seller_active ON tb_sale(user_id) WHERE deletado_em IS NULL;
+
+-- SaleRepository.findAllActiveOrderByDate / findFirstPage / findPageAfter (keyset por criado_em, id)
+CREATE INDEX IF NOT EXISTS idx_sale_created_active ON tb_sale(criado_em DESC, id DESC) WHERE deletado_em IS NULL;
+
+-- Itens e produtos da venda carregados por sale_id / product_id
+CREATE INDEX IF NOT EXISTS idx_sale_item_sale ON tb_sale_item(sale_id);
+CREATE INDEX IF NOT EXISTS idx_sale_item_product ON tb_sale_item(product_id);
+
+-- BudgetRepository.sumByType / sumByTypeAndDateBetween
+CREATE INDEX IF NOT EXISTS idx_budget_type_date ON budgets(type, date);
+
+-- BudgetRepository.findFirstPage / findPageAfter e filtros por período (keyset por date, id)
+CREATE INDEX IF NOT EXISTS idx_budget_date_id ON budgets(date DESC, id DESC);
+
+-- Movimentações e gastos de uma viagem
+CREATE INDEX IF NOT EXISTS idx_trip_budget_trip_date ON trip_budgets(trip_id, date);
+CREATE INDEX IF NOT EXISTS idx_trip_expense_trip ON trip_expenses(trip_id);
+
+-- TripRepository: próximas/passadas e keyset por departure_date, id
+CREATE INDEX IF NOT EXISTS idx_trip_departure_id ON trips(departure_date DESC, id DESC);
+
+-- ProductRepository.findAvailableProducts / findLowStockProducts
+CREATE INDEX IF NOT EXISTS idx_product_stock_active ON tb_product(stock) WHERE deletado_em IS NULL;
+
+-- Keyset de jogadores, times e notícias por criado_em, id
+CREATE INDEX IF NOT EXISTS idx_player_created_active ON tb_player(criado_em DESC, id DESC) WHERE deletado_em IS NULL;
+CREATE INDEX IF NOT EXISTS idx_team_created_active ON tb_team(criado_em DESC, id DESC) WHERE deletado_em IS NULL;
+CREATE INDEX IF NOT EXISTS idx_news_created_active ON tb_news(criado_em DESC, id DESC) WHERE deletado_em IS NULL;
+
+-- GameEventRepository: listagens por data
+CREATE INDEX IF NOT EXISTS idx_game_event_date_active ON tb_game_event(date) WHERE deletado_em IS NULL;
+
+-- Tabelas de vínculo, pelo lado usado nas consultas de links (findTeamLinks, findPlayerLinks, ...)
+CREATE INDEX IF NOT EXISTS idx_team_player_team ON tb_team_player(team_id);
+CREATE INDEX IF NOT EXISTS idx_team_player_player ON tb_team_player(player_id);
+CREATE INDEX IF NOT EXISTS idx_trip_player_trip ON tb_trip_player(trip_id);
+CREATE INDEX IF NOT EXISTS idx_trip_team_trip ON tb_trip_team(trip_id);
+CREATE INDEX IF NOT EXISTS idx_user_profile_profile ON tb_user_profile(profile_id);
+CREATE INDEX IF NOT EXISTS idx_profile_permission_profile ON tb_profile_permission(profile_id);
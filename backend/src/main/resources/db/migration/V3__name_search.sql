@@ -0,0 +1,19 @@
+-- =====================================================
+-- Busca por nome sem acento e sem diferenciar maiúsculas (produtos, jogadores, times)
+-- =====================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() é STABLE e não pode ser usada em índice; o wrapper fixa o dicionário e é IMMUTABLE
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent', $1) $$;
+
+-- Mesma expressão usada pelas consultas: lower(f_unaccent(name)); atende LIKE '%...%' e o operador % (similaridade)
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON tb_product
+    USING gin (lower(f_unaccent(name)) gin_trgm_ops) WHERE deletado_em IS NULL;
+CREATE INDEX IF NOT EXISTS idx_player_name_trgm ON tb_player
+    USING gin (lower(f_unaccent(name)) gin_trgm_ops) WHERE deletado_em IS NULL;
+CREATE INDEX IF NOT EXISTS idx_team_name_trgm ON tb_team
+    USING gin (lower(f_unaccent(name)) gin_trgm_ops) WHERE deletado_em IS NULL;
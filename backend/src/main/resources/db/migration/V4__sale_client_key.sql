@@ -0,0 +1,8 @@
+-- =====================================================
+-- Chave gerada pelo caixa para cada venda (POST /sales/batch)
+-- Reenvios da mesma fila offline não duplicam vendas: a chave já existente é reconhecida
+-- =====================================================
+
+ALTER TABLE tb_sale ADD COLUMN IF NOT EXISTS client_key VARCHAR(64);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_sale_client_key ON tb_sale(client_key) WHERE client_key IS NOT NULL;
@@ -0,0 +1,18 @@
+-- =====================================================
+-- Chaves de idempotência do POST /sales (cabeçalho Idempotency-Key)
+-- Guarda a resposta da primeira tentativa; reenvios do caixa recebem a mesma resposta
+-- com uma única busca pela chave primária. Linhas vencidas são removidas pelo
+-- SaleIdempotencyService em lotes, usando o índice por expira_em.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS tb_idempotency_key (
+    idempotency_key VARCHAR(64) PRIMARY KEY,
+    user_id BIGINT,
+    request_hash VARCHAR(64) NOT NULL,
+    sale_id BIGINT,
+    response_body TEXT,
+    criado_em TIMESTAMP NOT NULL,
+    expira_em TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_expira_em ON tb_idempotency_key(expira_em);
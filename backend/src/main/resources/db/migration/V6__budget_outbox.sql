@@ -0,0 +1,27 @@
+-- =====================================================
+-- Outbox das entradas automáticas do orçamento (vendas e viagens)
+-- Gravada na transação da operação de origem; o BudgetOutboxWorker copia as linhas
+-- para budgets em lotes e as apaga. Uma linha por origem: reenfileirar a mesma
+-- origem substitui a pendente.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS tb_budget_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    source_type VARCHAR(30) NOT NULL,
+    source_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    amount NUMERIC(10,2) NOT NULL,
+    description TEXT NOT NULL,
+    notes TEXT,
+    user_id BIGINT,
+    trip_id BIGINT,
+    date TIMESTAMP NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(500),
+    criado_em TIMESTAMP NOT NULL,
+    CONSTRAINT uk_budget_outbox_source UNIQUE (source_type, source_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_budget_outbox_next_attempt ON tb_budget_outbox(next_attempt_at, id);
+CREATE INDEX IF NOT EXISTS idx_budget_outbox_trip ON tb_budget_outbox(trip_id);
@@ -0,0 +1,46 @@
+-- =====================================================
+-- Saldos acumulados do orçamento por dia (BudgetSnapshotService)
+-- Cada linha guarda o total de entradas e saídas de todas as movimentações com data
+-- até o fim do dia. Os saldos leem o snapshot mais recente e somam só as linhas depois dele.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS tb_budget_balance_snapshot (
+    day DATE PRIMARY KEY,
+    cumulative_income NUMERIC(14,2) NOT NULL,
+    cumulative_expense NUMERIC(14,2) NOT NULL,
+    atualizado_em TIMESTAMP NOT NULL
+);
+
+-- Soma das linhas posteriores ao snapshot e reconstrução por dia apenas pelo índice
+CREATE INDEX IF NOT EXISTS idx_budget_date_totals ON budgets(date) INCLUDE (type, amount);
+
+-- Movimentação inserida, alterada ou removida em um dia já consolidado invalida os snapshots
+-- desse dia em diante; o BudgetSnapshotService os recalcula a partir do anterior.
+-- O lock consultivo compartilhado (chave 7240001, exclusiva no BudgetSnapshotService) impede que
+-- uma reconstrução em andamento grave snapshots sem enxergar a movimentação.
+CREATE OR REPLACE FUNCTION f_budget_invalidate_snapshots() RETURNS trigger AS $$
+DECLARE
+    affected DATE;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        affected := CAST(NEW.date AS DATE);
+    ELSIF TG_OP = 'DELETE' THEN
+        affected := CAST(OLD.date AS DATE);
+    ELSE
+        affected := LEAST(CAST(OLD.date AS DATE), CAST(NEW.date AS DATE));
+    END IF;
+    PERFORM pg_advisory_xact_lock_shared(7240001);
+    DELETE FROM tb_budget_balance_snapshot WHERE day >= affected;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_budget_snapshot_insert_delete ON budgets;
+CREATE TRIGGER trg_budget_snapshot_insert_delete
+    AFTER INSERT OR DELETE ON budgets
+    FOR EACH ROW EXECUTE PROCEDURE f_budget_invalidate_snapshots();
+
+DROP TRIGGER IF EXISTS trg_budget_snapshot_update ON budgets;
+CREATE TRIGGER trg_budget_snapshot_update
+    AFTER UPDATE OF amount, type, date ON budgets
+    FOR EACH ROW EXECUTE PROCEDURE f_budget_invalidate_snapshots();
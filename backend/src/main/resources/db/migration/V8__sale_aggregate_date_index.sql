@@ -0,0 +1,7 @@
+-- =====================================================
+-- Relatório financeiro por período (FinancialReportService)
+-- Os totais de budgets por período usam idx_budget_date_totals (V7), que já cobre
+-- (date) INCLUDE (type, amount); aqui o equivalente para os totais diários de vendas.
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_sale_aggregate_date ON tb_sale_aggregate(sale_date) INCLUDE (sale_count, total_amount);
@@ -0,0 +1,31 @@
+-- =====================================================
+-- criado_em obrigatório nas tabelas paginadas por (criado_em, id)
+-- Linhas antigas sem data (inseridas direto no banco) quebravam o cursor e sumiam das páginas
+-- seguintes: em ORDER BY ... DESC os NULLs vêm primeiro e nunca satisfazem criado_em < :key.
+-- Recebem a última alteração conhecida ou, sem ela, o momento da migração; o DEFAULT cobre inserts manuais.
+-- =====================================================
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM tb_sale WHERE criado_em IS NULL) THEN
+        UPDATE tb_sale SET criado_em = COALESCE(atualizado_em, CURRENT_TIMESTAMP) WHERE criado_em IS NULL;
+
+        -- Os agregados contavam essas vendas no dia da reconstrução; refeitos com a data gravada agora
+        DELETE FROM tb_sale_aggregate;
+        INSERT INTO tb_sale_aggregate (game_event_id, seller_id, sale_date, sale_count, total_amount)
+        SELECT s.game_event_id, s.user_id, CAST(s.criado_em AS DATE), COUNT(*), SUM(s.total_amount)
+        FROM tb_sale s WHERE s.deletado_em IS NULL
+        GROUP BY s.game_event_id, s.user_id, CAST(s.criado_em AS DATE);
+    END IF;
+END $$;
+
+ALTER TABLE tb_sale ALTER COLUMN criado_em SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE tb_sale ALTER COLUMN criado_em SET NOT NULL;
+
+UPDATE tb_player SET criado_em = COALESCE(atualizado_em, CURRENT_TIMESTAMP) WHERE criado_em IS NULL;
+ALTER TABLE tb_player ALTER COLUMN criado_em SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE tb_player ALTER COLUMN criado_em SET NOT NULL;
+
+UPDATE tb_team SET criado_em = COALESCE(atualizado_em, CURRENT_TIMESTAMP) WHERE criado_em IS NULL;
+ALTER TABLE tb_team ALTER COLUMN criado_em SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE tb_team ALTER COLUMN criado_em SET NOT NULL;
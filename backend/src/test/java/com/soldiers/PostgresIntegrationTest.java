@@ -0,0 +1,93 @@
+package com.soldiers;
+
+import com.soldiers.entity.GameEvent;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.User;
+import com.soldiers.repository.GameEventRepository;
+import com.soldiers.repository.ProductRepository;
+import com.soldiers.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Base dos testes que precisam do PostgreSQL de verdade (migrações Flyway, ON CONFLICT, locks, EXPLAIN).
+ * Usa o banco de TEST_DATABASE_URL quando definido; senão sobe um container. Sem nenhum dos dois, os testes são ignorados.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(StatementCounter.class)
+public abstract class PostgresIntegrationTest {
+
+    private static final String DATABASE_URL = System.getenv("TEST_DATABASE_URL");
+
+    private static PostgreSQLContainer<?> container;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected GameEventRepository gameEventRepository;
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @BeforeAll
+    static void requireDatabase() {
+        assumeTrue(DATABASE_URL != null || DockerClientFactory.instance().isDockerAvailable(),
+                "Sem TEST_DATABASE_URL nem Docker para subir o PostgreSQL");
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (DATABASE_URL != null) {
+            registry.add("spring.datasource.url", () -> DATABASE_URL);
+            registry.add("spring.datasource.username", () -> envOrDefault("TEST_DATABASE_USERNAME", "postgres"));
+            registry.add("spring.datasource.password", () -> envOrDefault("TEST_DATABASE_PASSWORD", ""));
+            return;
+        }
+        registry.add("spring.datasource.url", () -> container().getJdbcUrl());
+        registry.add("spring.datasource.username", () -> container().getUsername());
+        registry.add("spring.datasource.password", () -> container().getPassword());
+    }
+
+    // Um container para todas as classes de teste (mesmo contexto Spring em cache)
+    private static synchronized PostgreSQLContainer<?> container() {
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:14-alpine");
+            container.start();
+        }
+        return container;
+    }
+
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+
+    protected User createUser() {
+        String suffix = UUID.randomUUID().toString();
+        return userRepository.save(new User("Vendedor " + suffix, suffix + "@teste.com", "senha", null));
+    }
+
+    protected GameEvent createGameEvent() {
+        return gameEventRepository.save(new GameEvent("Jogo de teste", null, LocalDate.now(), LocalTime.NOON, LocalTime.of(15, 0), "Campo"));
+    }
+
+    protected Product createProduct(int stock) {
+        return productRepository.save(new Product("Produto " + UUID.randomUUID(), null, new BigDecimal("10.00"), stock));
+    }
+}
@@ -0,0 +1,38 @@
+package com.soldiers;
+
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Conta as execuções JDBC da thread atual, venham do Hibernate ou do JdbcTemplate.
+ * Um lote JDBC (executeBatch) conta como uma execução: é o número de round trips ao banco.
+ */
+@TestConfiguration
+public class StatementCounter {
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource) {
+                    return ProxyDataSourceBuilder.create((DataSource) bean).name(beanName).countQuery().build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    public static long count(Runnable action) {
+        QueryCountHolder.clear();
+        action.run();
+        long total = QueryCountHolder.getGrandTotal().getTotal();
+        QueryCountHolder.clear();
+        return total;
+    }
+}
@@ -0,0 +1,45 @@
+package com.soldiers.controller;
+
+import com.soldiers.dto.request.LoginRequest;
+import com.soldiers.dto.request.UserRequest;
+import com.soldiers.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pool de hashing saturado responde 429 em login, cadastro e alteração de usuário;
+ * os demais erros continuam 400.
+ */
+class AuthControllerTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final AuthController controller = new AuthController(userService);
+
+    @Test
+    void saturatedHashingPoolAnswersTooManyRequests() {
+        ResponseStatusException saturated = new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS);
+        when(userService.login(any())).thenThrow(saturated);
+        when(userService.createUser(any())).thenThrow(saturated);
+        when(userService.updateUser(eq(1L), any())).thenThrow(saturated);
+
+        assertThat(controller.login(new LoginRequest()).getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(controller.register(new UserRequest()).getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(controller.updateUser(1L, new UserRequest()).getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void otherFailuresStayBadRequest() {
+        when(userService.createUser(any())).thenThrow(new RuntimeException("Email já cadastrado"));
+        when(userService.updateUser(eq(1L), any())).thenThrow(new RuntimeException("Usuário não encontrado"));
+
+        assertThat(controller.register(new UserRequest()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(controller.updateUser(1L, new UserRequest()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
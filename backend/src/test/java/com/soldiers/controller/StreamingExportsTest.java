@@ -0,0 +1,31 @@
+package com.soldiers.controller;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingExportsTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', nullValues = "null", value = {
+        "null | false",
+        "identity | false",
+        "gzip | true",
+        "GZIP | true",
+        "x-gzip | true",
+        "gzip, deflate, br | true",
+        "deflate, gzip;q=0.5 | true",
+        "gzip;q=0 | false",
+        "gzip; q=0.0, deflate | false",
+        "gzip;q=0, * | false",
+        "* | true",
+        "*;q=0 | false",
+        "br, *;q=0.1 | true",
+        "gzipped | false",
+        "gzip;q=abc | false"
+    })
+    void acceptsGzipHonorsQualityValues(String acceptEncoding, boolean expected) {
+        assertThat(StreamingExports.acceptsGzip(acceptEncoding)).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,86 @@
+package com.soldiers.entity;
+
+import com.soldiers.entity.ProfilePermission.Action;
+import com.soldiers.entity.ProfilePermission.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Máscara de permissões (Resource x Action em um long) comparada ao caminho anterior,
+ * que percorria as permissões de cada perfil montando os nomes "RECURSO:AÇÃO".
+ */
+class ProfilePermissionTest {
+
+    private static final String[] RESOURCES = {"DASHBOARD", "USERS", "PRODUCTS", "SALES", "TRIPS", "NEWS",
+            "BUDGET", "GAMES", "TEAM", "REPORTS", "sales"};
+    private static final String[] ACTIONS = {"VIEW", "EDIT", "DELETE"};
+
+    @Test
+    void everyPairHasItsOwnBitInsideALong() {
+        assertThat(Resource.values().length * Action.values().length).isLessThanOrEqualTo(Long.SIZE);
+        Set<Long> bits = new HashSet<>();
+        for (Resource resource : Resource.values()) {
+            for (Action action : Action.values()) {
+                long bit = ProfilePermission.mask(resource, action);
+                assertThat(Long.bitCount(bit)).isEqualTo(1);
+                assertThat(bits.add(bit)).as("%s:%s", resource, action).isTrue();
+                assertThat(ProfilePermission.mask(resource.name(), action.name())).isEqualTo(bit);
+            }
+        }
+    }
+
+    @Test
+    void unionOfMasksMatchesTheWalkOverEachProfilesPermissions() {
+        Random random = new Random(42);
+        for (int user = 0; user < 500; user++) {
+            List<List<ProfilePermission>> profiles = new ArrayList<>();
+            for (int p = random.nextInt(4); p >= 0; p--) {
+                List<ProfilePermission> permissions = new ArrayList<>();
+                for (int i = random.nextInt(12); i > 0; i--) {
+                    permissions.add(new ProfilePermission(null, RESOURCES[random.nextInt(RESOURCES.length)],
+                            ACTIONS[random.nextInt(ACTIONS.length)]));
+                }
+                profiles.add(permissions);
+            }
+
+            long mask = 0L;
+            for (List<ProfilePermission> permissions : profiles) {
+                long profileMask = 0L;
+                for (ProfilePermission permission : permissions) {
+                    profileMask |= ProfilePermission.mask(permission.getResource(), permission.getAction());
+                }
+                mask |= profileMask;
+            }
+
+            // Caminho anterior: nomes de todas as permissões de todos os perfis, só as do modelo tipado
+            Set<String> walked = new HashSet<>();
+            for (List<ProfilePermission> permissions : profiles) {
+                for (ProfilePermission permission : permissions) {
+                    if (Resource.fromName(permission.getResource()) != null && Action.fromName(permission.getAction()) != null) {
+                        walked.add(permission.getResource() + ":" + permission.getAction());
+                    }
+                }
+            }
+
+            List<String> names = ProfilePermission.toPermissionNames(mask);
+            assertThat(names).doesNotHaveDuplicates();
+            assertThat(new HashSet<>(names)).isEqualTo(walked);
+            assertThat(Long.bitCount(mask)).isEqualTo(walked.size());
+        }
+    }
+
+    @Test
+    void pairsOutsideTheTypedModelGrantNothing() {
+        assertThat(ProfilePermission.mask("REPORTS", "VIEW")).isZero();
+        assertThat(ProfilePermission.mask("sales", "VIEW")).isZero();
+        assertThat(ProfilePermission.mask("SALES", "DELETE")).isZero();
+        assertThat(ProfilePermission.toPermissionNames(0L)).isEmpty();
+    }
+}
@@ -0,0 +1,97 @@
+package com.soldiers.repository;
+
+import com.soldiers.PostgresIntegrationTest;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confere pelo EXPLAIN que as consultas dos repositórios conseguem usar os índices das migrações.
+ * Com as tabelas quase vazias o planejador sempre prefere seq scan; desligá-lo na transação
+ * mostra se existe um índice que atende o predicado/ordenação (se não existir, o plano continua seq scan).
+ */
+class QueryIndexTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = ';', value = {
+        // SaleRepository.findByGameEventId / getTotalRevenueByGameEvent
+        "idx_sale_game_active; SELECT id FROM tb_sale WHERE game_event_id = 1 AND deletado_em IS NULL",
+        // SaleRepository.findBySellerId
+        "idx_sale_seller_active; SELECT id FROM tb_sale WHERE user_id = 1 AND deletado_em IS NULL",
+        // SaleRepository.findPageAfter (keyset por criado_em, id)
+        "idx_sale_created_active; SELECT id FROM tb_sale WHERE deletado_em IS NULL AND (criado_em < now() " +
+            "OR (criado_em = now() AND id < 10)) ORDER BY criado_em DESC, id DESC LIMIT 21",
+        // Itens da venda (entity graph / batch fetch)
+        "idx_sale_item_sale; SELECT id FROM tb_sale_item WHERE sale_id IN (1, 2, 3)",
+        // BudgetRepository.findPageAfter
+        "idx_budget_date_id; SELECT id FROM budgets WHERE date < now() OR (date = now() AND id < 10) " +
+            "ORDER BY date DESC, id DESC LIMIT 21",
+        // BudgetRepository.deleteBySource / findFirstBySourceTypeAndSourceId
+        "idx_budget_source; SELECT id FROM budgets WHERE source_type = 'SALE' AND source_id = 1",
+        // BudgetRepository.deleteByTripId
+        "idx_budget_trip; SELECT id FROM budgets WHERE trip_id = 1",
+        // Saldos: movimentações posteriores ao último snapshot
+        "idx_budget_date_totals; SELECT type, SUM(amount) FROM budgets WHERE date >= now() GROUP BY type",
+        // Movimentações de uma viagem
+        "idx_trip_budget_trip_date; SELECT id FROM trip_budgets WHERE trip_id = 1 ORDER BY date",
+        "idx_trip_expense_trip; SELECT id FROM trip_expenses WHERE trip_id = 1",
+        // TripRepository keyset
+        "idx_trip_departure_id; SELECT id FROM trips ORDER BY departure_date DESC, id DESC LIMIT 21",
+        // ProductRepository.findLowStockProducts
+        "idx_product_stock_active; SELECT id FROM tb_product WHERE stock <= 5 AND deletado_em IS NULL",
+        // Relatório por período e totais do dashboard
+        "idx_sale_aggregate_date; SELECT SUM(total_amount) FROM tb_sale_aggregate WHERE sale_date >= CURRENT_DATE",
+        // Worker da outbox do orçamento
+        "idx_budget_outbox_next_attempt; SELECT id FROM tb_budget_outbox WHERE next_attempt_at <= now() ORDER BY next_attempt_at, id LIMIT 200",
+        // Keyset de notícias, jogadores e times
+        "idx_news_created_active; SELECT id FROM tb_news WHERE deletado_em IS NULL ORDER BY criado_em DESC, id DESC LIMIT 21",
+        "idx_player_created_active; SELECT id FROM tb_player WHERE deletado_em IS NULL ORDER BY criado_em DESC, id DESC LIMIT 21",
+        "idx_team_created_active; SELECT id FROM tb_team WHERE deletado_em IS NULL ORDER BY criado_em DESC, id DESC LIMIT 21"
+    })
+    void queryPlanUsesIndex(String index, String query) {
+        List<String> plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForList("EXPLAIN " + query, String.class);
+        });
+
+        assertThat(String.join("\n", plan)).contains(index);
+    }
+
+    // Busca por nome sem acento (SearchService). Os outros índices parciais em deletado_em IS NULL também
+    // atendem o predicado, então aqui a tabela recebe linhas e estatísticas de verdade (desfeitas no fim)
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = ';', value = {
+        "idx_product_name_trgm; tb_product; INSERT INTO tb_product (name, price, stock) " +
+            "SELECT 'Produto ' || md5(g::text), 10, 10 FROM generate_series(1, 5000) g",
+        "idx_player_name_trgm; tb_player; INSERT INTO tb_player (name, position, number, status) " +
+            "SELECT 'Jogador ' || md5(g::text), 'QB', '1', 'ACTIVE' FROM generate_series(1, 5000) g",
+        "idx_team_name_trgm; tb_team; INSERT INTO tb_team (name, status) " +
+            "SELECT 'Time ' || md5(g::text), 'ACTIVE' FROM generate_series(1, 5000) g"
+    })
+    void nameSearchUsesTrigramIndex(String index, String table, String populate) {
+        List<String> plan = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.execute(populate);
+            // Sem isso as linhas novas ficam na lista pendente do GIN, que o autovacuum esvaziaria em produção
+            jdbcTemplate.queryForList("SELECT gin_clean_pending_list(CAST(? AS regclass))", index);
+            jdbcTemplate.execute("ANALYZE " + table);
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForList("EXPLAIN SELECT id FROM " + table +
+                    " WHERE lower(f_unaccent(name)) LIKE '%silva%' AND deletado_em IS NULL", String.class);
+        });
+
+        assertThat(String.join("\n", plan)).contains(index);
+    }
+}
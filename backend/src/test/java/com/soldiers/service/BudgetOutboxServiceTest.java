@@ -0,0 +1,191 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.dto.response.FinancialReportResponse.Bucket;
+import com.soldiers.dto.response.FinancialReportResponse.Granularity;
+import com.soldiers.entity.Budget;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.Sale;
+import com.soldiers.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetOutboxServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private BudgetOutboxService budgetOutboxService;
+
+    @Autowired
+    private FinancialReportService financialReportService;
+
+    @Autowired
+    private BudgetOutboxWorker budgetOutboxWorker;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void postingALateEntryInvalidatesTheClosedReportPeriod() {
+        LocalDate day = LocalDate.now().minusDays(3);
+        BigDecimal before = incomeOn(day);
+
+        User user = createUser();
+        Budget entry = new Budget();
+        entry.setDescription("Venda atrasada");
+        entry.setAmount(new BigDecimal("42.00"));
+        entry.setType(Budget.BudgetType.INCOME);
+        entry.setUser(user);
+        entry.setDate(day.atTime(20, 0));
+        entry.setSource(Budget.SourceType.SALE, ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE));
+        budgetService.enqueueEntries(Collections.singletonList(entry));
+
+        // O período já estava no cache do relatório; o lançamento tem que descartá-lo
+        assertThat(incomeOn(day)).isEqualByComparingTo(before);
+        budgetOutboxService.postDueBatch(LocalDateTime.now(), 200);
+
+        assertThat(incomeOn(day)).isEqualByComparingTo(before.add(new BigDecimal("42.00")));
+    }
+
+    @Test
+    void saleDeletedWhileItsEntryIsPendingNeverPosts() {
+        Sale sale = createSale();
+        assertThat(outboxRowsFor(sale)).isEqualTo(1L);
+
+        saleService.deleteSale(sale.getId());
+        budgetOutboxService.postDueBatch(LocalDateTime.now(), 200);
+
+        assertThat(outboxRowsFor(sale)).isZero();
+        assertThat(budgetRowsFor(sale)).isZero();
+    }
+
+    @Test
+    void saleDeletedWhileTheWorkerPostsItsEntryLeavesNoBudgetRow() throws Exception {
+        Sale sale = createSale();
+
+        // O worker lança a entrada e, antes do commit dele, a venda é excluída em outra transação
+        CompletableFuture<Void> deletion = transactionTemplate.execute(status -> {
+            budgetOutboxService.postDueBatch(LocalDateTime.now(), 200);
+            CompletableFuture<Void> concurrent = CompletableFuture.runAsync(() -> saleService.deleteSale(sale.getId()));
+            awaitBlockedOnOutbox();
+            return concurrent;
+        });
+        deletion.get(30, TimeUnit.SECONDS);
+
+        // A exclusão esperou o commit do lançamento na outbox e removeu a linha já lançada
+        assertThat(outboxRowsFor(sale)).isZero();
+        assertThat(budgetRowsFor(sale)).isZero();
+    }
+
+    @Test
+    void failedEntryIsRetriedWithExponentialBackoff() {
+        User user = createUser();
+        long sourceId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+        // user_id sem usuário: o INSERT em budgets viola a FK até a linha ser corrigida
+        jdbcTemplate.update("INSERT INTO tb_budget_outbox (source_type, source_id, type, amount, description, user_id, " +
+                        "date, attempts, next_attempt_at, criado_em) VALUES ('SALE', ?, 'INCOME', 10.00, 'Venda', -1, now(), 0, now(), now())",
+                sourceId);
+        Long id = jdbcTemplate.queryForObject(
+                "SELECT id FROM tb_budget_outbox WHERE source_type = 'SALE' AND source_id = ?", Long.class, sourceId);
+        try {
+            LocalDateTime before = LocalDateTime.now();
+            budgetOutboxWorker.drain();
+            LocalDateTime after = LocalDateTime.now();
+
+            // Lote falhou, entrada isolada e reagendada: base (1s) * 2^0
+            Map<String, Object> failed = outboxRow(id);
+            assertThat(failed.get("attempts")).isEqualTo(1);
+            assertThat((String) failed.get("last_error")).isNotBlank();
+            assertThat(nextAttemptAt(failed)).isBetween(before.plusSeconds(1), after.plusSeconds(1));
+
+            // Ainda não venceu: o worker não toca nela
+            budgetOutboxWorker.drain();
+            assertThat(outboxRow(id).get("attempts")).isEqualTo(1);
+
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+            budgetOutboxService.markFailed(List.of(id), "erro", now);
+            assertThat(nextAttemptAt(outboxRow(id))).isEqualTo(now.plusSeconds(2));
+            jdbcTemplate.update("UPDATE tb_budget_outbox SET attempts = 20 WHERE id = ?", id);
+            budgetOutboxService.markFailed(List.of(id), "erro", now);
+            assertThat(nextAttemptAt(outboxRow(id))).isEqualTo(now.plusMinutes(10));
+
+            // Corrigida, a entrada sai da fila na próxima tentativa vencida
+            jdbcTemplate.update("UPDATE tb_budget_outbox SET user_id = ? WHERE id = ?", user.getId(), id);
+            assertThat(budgetOutboxService.postDueBatch(now.plusMinutes(10), 200)).isPositive();
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM budgets WHERE source_type = 'SALE' AND source_id = ?",
+                    Long.class, sourceId)).isEqualTo(1L);
+        } finally {
+            jdbcTemplate.update("DELETE FROM tb_budget_outbox WHERE id = ?", id);
+        }
+    }
+
+    private Sale createSale() {
+        Product product = createProduct(10);
+        SaleRequest request = new SaleRequest(createGameEvent().getId(), null, Collections.singletonList(
+                new SaleRequest.SaleItemRequest(product.getId(), 1, new BigDecimal("25.00"))));
+        return saleService.createSale(request, createUser().getId());
+    }
+
+    private void awaitBlockedOnOutbox() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            // Dentro de uma transação o pg_stat_activity vem de um snapshot: descarta antes de cada leitura
+            jdbcTemplate.execute("SELECT pg_stat_clear_snapshot()");
+            if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock' " +
+                    "AND query LIKE 'DELETE FROM tb_budget_outbox%'", Long.class) > 0) {
+                return;
+            }
+            assertThat(System.nanoTime()).as("exclusão esperando o lock da outbox").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private long outboxRowsFor(Sale sale) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_budget_outbox WHERE source_type = 'SALE' AND source_id = ?",
+                Long.class, sale.getId());
+    }
+
+    private long budgetRowsFor(Sale sale) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM budgets WHERE source_type = 'SALE' AND source_id = ?",
+                Long.class, sale.getId());
+    }
+
+    private Map<String, Object> outboxRow(Long id) {
+        return jdbcTemplate.queryForMap("SELECT attempts, last_error, next_attempt_at FROM tb_budget_outbox WHERE id = ?", id);
+    }
+
+    private static LocalDateTime nextAttemptAt(Map<String, Object> row) {
+        return ((Timestamp) row.get("next_attempt_at")).toLocalDateTime();
+    }
+
+    private BigDecimal incomeOn(LocalDate day) {
+        Bucket bucket = financialReportService.getReport(Granularity.DAY, day, day).getBuckets().get(0);
+        assertThat(bucket.isClosed()).isTrue();
+        return bucket.getIncome();
+    }
+}
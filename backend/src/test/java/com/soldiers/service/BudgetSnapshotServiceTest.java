@@ -0,0 +1,171 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.entity.Budget;
+import com.soldiers.entity.Budget.BudgetType;
+import com.soldiers.entity.User;
+import com.soldiers.repository.BudgetBalanceSnapshotRepository;
+import com.soldiers.repository.BudgetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Saldos do BudgetService lidos pelos snapshots (V7) contra a soma direta sobre budgets,
+ * antes e depois da reconstrução, com inserções, alterações, exclusões e lançamentos retroativos.
+ */
+class BudgetSnapshotServiceTest extends PostgresIntegrationTest {
+
+    private static final String PLAIN_SUMS =
+            "SELECT COALESCE(SUM(CASE WHEN type = 'INCOME' THEN amount ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN type = 'EXPENSE' THEN amount ELSE 0 END), 0) FROM budgets";
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private BudgetSnapshotService budgetSnapshotService;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private BudgetBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser();
+        today = LocalDate.now();
+    }
+
+    @Test
+    void balancesMatchPlainSumsAcrossInsertUpdateAndDelete() {
+        budget(BudgetType.INCOME, "120.50", today.minusDays(10).atTime(9, 0));
+        Budget edited = budget(BudgetType.EXPENSE, "30.25", today.minusDays(5).atTime(14, 30));
+        Budget moved = budget(BudgetType.INCOME, "75.00", today.minusDays(2).atTime(18, 0));
+        Budget removed = budget(BudgetType.EXPENSE, "12.00", today.minusDays(1).atTime(23, 59, 59));
+        budget(BudgetType.TRANSFER, "999.00", today.minusDays(3).atTime(10, 0));
+        budget(BudgetType.INCOME, "8.00", today.atStartOfDay());
+        assertMatchesPlainSums();
+
+        budgetSnapshotService.refreshSnapshots();
+        assertThat(snapshotRepository.findTopByOrderByDayDesc()).hasValueSatisfying(
+                snapshot -> assertThat(snapshot.getDay()).isEqualTo(today.minusDays(1)));
+        assertMatchesPlainSums();
+
+        // UPDATE de valor e tipo: invalida a partir do dia da movimentação
+        edited.setAmount(new BigDecimal("31.75"));
+        edited.setType(BudgetType.INCOME);
+        budgetRepository.saveAndFlush(edited);
+        assertThat(latestSnapshotDay()).isBefore(today.minusDays(5));
+        assertMatchesPlainSums();
+        budgetSnapshotService.refreshSnapshots();
+        assertMatchesPlainSums();
+
+        // UPDATE de data para trás: invalida a partir da menor das duas datas
+        moved.setDate(today.minusDays(8).atTime(7, 15));
+        budgetRepository.saveAndFlush(moved);
+        assertThat(latestSnapshotDay()).isBefore(today.minusDays(8));
+        assertMatchesPlainSums();
+        budgetSnapshotService.refreshSnapshots();
+        assertMatchesPlainSums();
+
+        budgetRepository.delete(removed);
+        assertThat(latestSnapshotDay()).isBefore(today.minusDays(1));
+        assertMatchesPlainSums();
+        budgetSnapshotService.refreshSnapshots();
+        assertMatchesPlainSums();
+    }
+
+    @Test
+    void backDatedEntryBeforeTheLatestSnapshotIsCounted() {
+        budget(BudgetType.INCOME, "50.00", today.minusDays(4).atTime(12, 0));
+        budgetSnapshotService.refreshSnapshots();
+        LocalDate backDated = today.minusDays(40);
+
+        budget(BudgetType.EXPENSE, "17.35", backDated.atTime(16, 45));
+        budget(BudgetType.INCOME, "4.65", backDated.atTime(16, 45));
+
+        assertThat(latestSnapshotDay()).isBefore(backDated);
+        assertMatchesPlainSums();
+        budgetSnapshotService.refreshSnapshots();
+        assertThat(latestSnapshotDay()).isEqualTo(today.minusDays(1));
+        assertMatchesPlainSums();
+        // Cada snapshot reconstruído é o acumulado até o fim do seu dia
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_budget_balance_snapshot s WHERE s.cumulative_income <> " +
+                "(SELECT COALESCE(SUM(amount), 0) FROM budgets WHERE type = 'INCOME' AND date < s.day + 1) " +
+                "OR s.cumulative_expense <> " +
+                "(SELECT COALESCE(SUM(amount), 0) FROM budgets WHERE type = 'EXPENSE' AND date < s.day + 1)",
+                Long.class)).isZero();
+    }
+
+    @Test
+    void balanceBetweenDatesIncludesBothBounds() {
+        LocalDateTime start = today.minusDays(30).atTime(13, 17, 11);
+        LocalDateTime end = today.minusDays(12).atTime(9, 41, 7);
+        budget(BudgetType.INCOME, "11.00", start);
+        budget(BudgetType.EXPENSE, "3.00", end);
+        budget(BudgetType.INCOME, "500.00", start.minusSeconds(1));
+        budget(BudgetType.EXPENSE, "700.00", end.plusSeconds(1));
+
+        assertBoundsIncluded(start, end);
+        budgetSnapshotService.refreshSnapshots();
+        assertBoundsIncluded(start, end);
+        // Limites em dias com snapshot e à meia-noite
+        assertBalanceBetweenMatchesPlainSum(start.toLocalDate().atStartOfDay(), end.toLocalDate().atStartOfDay());
+        assertBalanceBetweenMatchesPlainSum(today.minusDays(1).atStartOfDay(), today.plusDays(1).atStartOfDay());
+    }
+
+    private void assertBoundsIncluded(LocalDateTime start, LocalDateTime end) {
+        assertBalanceBetweenMatchesPlainSum(start, end);
+        BigDecimal inclusive = budgetService.getBalanceBetweenDates(start, end);
+        BigDecimal exclusive = budgetService.getBalanceBetweenDates(start.plusSeconds(1), end.minusSeconds(1));
+        assertThat(inclusive.subtract(exclusive)).isEqualByComparingTo("8.00");
+    }
+
+    private void assertMatchesPlainSums() {
+        BigDecimal[] sums = jdbcTemplate.queryForObject(PLAIN_SUMS,
+                (rs, rowNum) -> new BigDecimal[]{rs.getBigDecimal(1), rs.getBigDecimal(2)});
+        assertThat(budgetService.getTotalIncome()).isEqualByComparingTo(sums[0]);
+        assertThat(budgetService.getTotalExpenses()).isEqualByComparingTo(sums[1]);
+        assertThat(budgetService.getCurrentBalance()).isEqualByComparingTo(sums[0].subtract(sums[1]));
+        assertBalanceBetweenMatchesPlainSum(today.minusDays(60).atStartOfDay(), LocalDateTime.now().plusDays(1));
+        assertBalanceBetweenMatchesPlainSum(today.minusDays(9).atTime(12, 0), today.minusDays(2).atTime(18, 0));
+        assertBalanceBetweenMatchesPlainSum(today.minusDays(1).atStartOfDay(), today.atStartOfDay());
+    }
+
+    private void assertBalanceBetweenMatchesPlainSum(LocalDateTime start, LocalDateTime end) {
+        BigDecimal expected = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(CASE WHEN type = 'INCOME' THEN amount WHEN type = 'EXPENSE' THEN -amount ELSE 0 END), 0) " +
+                "FROM budgets WHERE date BETWEEN ? AND ?",
+                BigDecimal.class, Timestamp.valueOf(start), Timestamp.valueOf(end));
+        assertThat(budgetService.getBalanceBetweenDates(start, end)).isEqualByComparingTo(expected);
+    }
+
+    private LocalDate latestSnapshotDay() {
+        Date day = jdbcTemplate.queryForObject("SELECT MAX(day) FROM tb_budget_balance_snapshot", Date.class);
+        return day != null ? day.toLocalDate() : LocalDate.MIN;
+    }
+
+    private Budget budget(BudgetType type, String amount, LocalDateTime date) {
+        Budget budget = new Budget("Movimentação de teste", new BigDecimal(amount), type, user);
+        budget.setDate(date);
+        return budgetRepository.saveAndFlush(budget);
+    }
+}
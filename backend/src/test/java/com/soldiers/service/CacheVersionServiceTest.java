@@ -0,0 +1,60 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.dto.response.ProductResponse;
+import com.soldiers.entity.Product;
+import com.soldiers.repository.CacheVersionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheVersionServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ProductCatalogService productCatalogService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheVersionRepository cacheVersionRepository;
+
+    @Test
+    void catalogReloadsWhenAnotherInstanceBumpsTheProductsVersion() {
+        productCatalogService.getAllProducts();
+
+        // Gravação feita por "outra instância": vai direto ao banco, sem evento nesta
+        Product product = productRepository.save(new Product("Produto " + UUID.randomUUID(), null,
+                new BigDecimal("10.00"), 5));
+        assertThat(catalogIds()).doesNotContain(product.getId());
+
+        cacheVersionRepository.increment("seq_cache_version_products");
+        assertThat(catalogIds()).contains(product.getId());
+    }
+
+    @Test
+    void localChangeRefreshesOnlyTheChangedProduct() {
+        Product product = createProduct(5);
+        productCatalogService.getAllProducts();
+
+        productService.restoreStock(Collections.singletonMap(product.getId(), 3));
+
+        ProductResponse cached = productCatalogService.getAllProducts().getProducts().stream()
+                .filter(p -> p.getId().equals(product.getId()))
+                .findFirst().orElseThrow();
+        assertThat(cached.getStock()).isEqualTo(8);
+    }
+
+    private List<Long> catalogIds() {
+        return productCatalogService.getAllProducts().getProducts().stream()
+                .map(ProductResponse::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,176 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.StatementCounter;
+import com.soldiers.dto.request.SaleBatchRequest;
+import com.soldiers.dto.request.SaleBatchRequest.SaleEntry;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.entity.GameEvent;
+import com.soldiers.entity.GameEvent.GameStatus;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.Sale;
+import com.soldiers.entity.User;
+import com.soldiers.repository.SaleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Receita por jogo em uma consulta agrupada, comparada ao caminho anterior
+ * (jogos ativos e uma soma por jogo): mesmos valores, número de consultas fixo.
+ * Filtros opcionais de data da receita por jogo e do ranking de produtos.
+ */
+class DashboardServiceTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardServiceTest.class);
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    private User seller;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        seller = createUser();
+        product = createProduct(100_000);
+    }
+
+    @Test
+    void revenueByGameMatchesThePerGameQueries() {
+        GameEvent withSales = game(LocalDate.now(), GameStatus.FINISHED);
+        sell(withSales, 3);
+        sell(withSales, 1);
+        GameEvent withDeletedSale = game(LocalDate.now(), GameStatus.FINISHED);
+        sell(withDeletedSale, 2);
+        saleService.deleteSale(sell(withDeletedSale, 5).getId());
+        GameEvent withoutSales = game(LocalDate.now(), GameStatus.SCHEDULED);
+
+        Map<Long, Map<String, Object>> grouped = revenueByGame(null, null, null);
+
+        assertThat(grouped).containsOnlyKeys(perGameRevenue().keySet());
+        perGameRevenue().forEach((gameId, revenue) ->
+                assertThat((BigDecimal) grouped.get(gameId).get("revenue")).as("jogo %d", gameId).isEqualByComparingTo(revenue));
+        assertThat(grouped.get(withSales.getId())).containsEntry("saleCount", 2L);
+        assertThat(grouped.get(withDeletedSale.getId())).containsEntry("saleCount", 1L);
+        assertThat((BigDecimal) grouped.get(withoutSales.getId()).get("revenue")).isEqualByComparingTo("0");
+        assertThat(grouped.get(withoutSales.getId())).containsEntry("saleCount", 0L);
+    }
+
+    @Test
+    void revenueByGameFiltersByDateRangeAndStatus() {
+        GameEvent first = game(LocalDate.of(2010, 5, 1), GameStatus.FINISHED);
+        GameEvent last = game(LocalDate.of(2010, 5, 31), GameStatus.FINISHED);
+        GameEvent cancelled = game(LocalDate.of(2010, 5, 15), GameStatus.CANCELLED);
+        game(LocalDate.of(2010, 4, 30), GameStatus.FINISHED);
+        game(LocalDate.of(2010, 6, 1), GameStatus.FINISHED);
+
+        assertThat(revenueByGame(LocalDate.of(2010, 5, 1), LocalDate.of(2010, 5, 31), null))
+                .containsOnlyKeys(first.getId(), cancelled.getId(), last.getId());
+        assertThat(revenueByGame(LocalDate.of(2010, 5, 1), LocalDate.of(2010, 5, 31), GameStatus.FINISHED))
+                .containsOnlyKeys(first.getId(), last.getId());
+    }
+
+    @Test
+    void revenueByGameUsesOneQueryForAnyNumberOfGames() {
+        for (int i = 0; i < 5; i++) {
+            sell(game(LocalDate.now(), GameStatus.FINISHED), 1);
+        }
+        long fewGames = StatementCounter.count(() -> dashboardService.getRevenueByGame(null, null, null));
+        long perGameFew = StatementCounter.count(this::perGameRevenue);
+
+        for (int i = 0; i < 50; i++) {
+            sell(game(LocalDate.now(), GameStatus.FINISHED), 1);
+        }
+        long manyGames = StatementCounter.count(() -> dashboardService.getRevenueByGame(null, null, null));
+        long perGameMany = StatementCounter.count(this::perGameRevenue);
+        logger.info("Receita por jogo: {} -> {} instruções agrupada, {} -> {} uma por jogo",
+                fewGames, manyGames, perGameFew, perGameMany);
+
+        assertThat(manyGames).isEqualTo(fewGames).isEqualTo(1L);
+        assertThat(perGameMany - perGameFew).isEqualTo(50L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void topProductsFilterBySaleDate() {
+        LocalDate day = LocalDate.now().minusDays(4);
+        GameEvent game = game(day, GameStatus.FINISHED);
+        Product inRange = createProduct(100_000);
+        Product outOfRange = createProduct(100_000);
+        sellAt(game, inRange, 5000, day.atTime(10, 0));
+        sellAt(game, outOfRange, 4000, day.plusDays(1).atStartOfDay());
+
+        List<Map<String, Object>> ranking = dashboardService.getTopProducts(100, day, day);
+
+        assertThat(ranking).extracting(product -> product.get("productId")).contains(inRange.getId())
+                .doesNotContain(outOfRange.getId());
+        assertThat(ranking.get(0)).containsEntry("productId", inRange.getId()).containsEntry("unitsSold", 5000L);
+        assertThat((List<Map<String, Object>>) ranking.get(0).get("gameEvents"))
+                .extracting(gameEvent -> gameEvent.get("id")).containsExactly(game.getId());
+    }
+
+    // Caminho anterior: jogos ativos e uma soma por jogo
+    private Map<Long, BigDecimal> perGameRevenue() {
+        Map<Long, BigDecimal> revenue = new HashMap<>();
+        for (GameEvent game : gameEventRepository.findAllActive()) {
+            BigDecimal total = saleRepository.getTotalRevenueByGameEvent(game.getId());
+            revenue.put(game.getId(), total != null ? total : BigDecimal.ZERO);
+        }
+        return revenue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Map<String, Object>> revenueByGame(LocalDate startDate, LocalDate endDate, GameStatus status) {
+        List<Map<String, Object>> games = (List<Map<String, Object>>) dashboardService
+                .getRevenueByGame(startDate, endDate, status).get("games");
+        return games.stream().collect(Collectors.toMap(game -> (Long) game.get("gameEventId"), game -> game));
+    }
+
+    private GameEvent game(LocalDate date, GameStatus status) {
+        GameEvent game = new GameEvent("Jogo de teste", null, date, LocalTime.NOON, LocalTime.of(15, 0), "Campo");
+        game.setStatus(status);
+        return gameEventRepository.save(game);
+    }
+
+    private void sellAt(GameEvent game, Product product, int quantity, LocalDateTime soldAt) {
+        SaleEntry entry = new SaleEntry();
+        entry.setClientKey(UUID.randomUUID().toString());
+        entry.setSoldAt(soldAt);
+        entry.setUserId(seller.getId());
+        entry.setGameEventId(game.getId());
+        entry.setItems(Collections.singletonList(new SaleRequest.SaleItemRequest(product.getId(), quantity, new BigDecimal("1.00"))));
+        saleBatchService.ingest(new SaleBatchRequest(Collections.singletonList(entry)), seller.getId());
+    }
+
+    private Sale sell(GameEvent game, int quantity) {
+        List<SaleRequest.SaleItemRequest> items = new ArrayList<>(Collections.singletonList(
+                new SaleRequest.SaleItemRequest(product.getId(), quantity, new BigDecimal("12.50"))));
+        return saleService.createSale(new SaleRequest(game.getId(), null, items), seller.getId());
+    }
+}
@@ -0,0 +1,127 @@
+package com.soldiers.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.dto.request.SaleBatchRequest;
+import com.soldiers.dto.request.SaleBatchRequest.SaleEntry;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.entity.Budget;
+import com.soldiers.entity.Budget.BudgetType;
+import com.soldiers.entity.GameEvent;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.User;
+import com.soldiers.repository.BudgetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exportações em streaming com filtro de datas (limites inclusivos por dia) e gzip.
+ */
+class DataExportServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private DataExportService dataExportService;
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser();
+    }
+
+    @Test
+    void budgetCsvKeepsOnlyTheRequestedDays() throws IOException {
+        budget("antes", LocalDate.of(2012, 2, 9).atTime(23, 59, 59));
+        budget("primeiro", LocalDate.of(2012, 2, 10).atStartOfDay());
+        budget("ultimo", LocalDate.of(2012, 2, 12).atTime(23, 59, 59));
+        budget("depois", LocalDate.of(2012, 2, 13).atStartOfDay());
+
+        for (boolean gzip : new boolean[]{false, true}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            dataExportService.exportBudgetsCsv(out, LocalDate.of(2012, 2, 10), LocalDate.of(2012, 2, 12), gzip);
+
+            List<String> lines = lines(out, gzip);
+            assertThat(lines.get(0)).isEqualTo("id,description,amount,type,date,userName,notes");
+            assertThat(lines.subList(1, lines.size())).extracting(line -> line.split(",")[1])
+                    .containsExactly("primeiro", "ultimo");
+        }
+    }
+
+    @Test
+    void salesNdjsonGroupsItemsAndFiltersBySaleDate() throws IOException {
+        LocalDate day = LocalDate.now().minusDays(5);
+        GameEvent game = createGameEvent();
+        Product first = createProduct(100);
+        Product second = createProduct(100);
+        List<Long> saleIds = new ArrayList<>();
+        for (LocalDateTime soldAt : Arrays.asList(day.atStartOfDay(), day.atTime(23, 59, 59), day.plusDays(1).atStartOfDay())) {
+            SaleEntry entry = new SaleEntry();
+            entry.setClientKey(UUID.randomUUID().toString());
+            entry.setSoldAt(soldAt);
+            entry.setUserId(user.getId());
+            entry.setGameEventId(game.getId());
+            entry.setItems(Arrays.asList(
+                    new SaleRequest.SaleItemRequest(first.getId(), 1, new BigDecimal("10.00")),
+                    new SaleRequest.SaleItemRequest(second.getId(), 2, new BigDecimal("5.00"))));
+            saleIds.add(saleBatchService.ingest(new SaleBatchRequest(Collections.singletonList(entry)), user.getId())
+                    .getResults().get(0).getSaleId());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dataExportService.exportSalesNdjson(out, day, day, false);
+
+        List<JsonNode> sales = new ArrayList<>();
+        for (String line : lines(out, false)) {
+            JsonNode sale = objectMapper.readTree(line);
+            if (saleIds.contains(sale.get("id").asLong())) {
+                sales.add(sale);
+            }
+        }
+        assertThat(sales).extracting(sale -> sale.get("id").asLong()).containsExactly(saleIds.get(0), saleIds.get(1));
+        assertThat(sales).allSatisfy(sale -> assertThat(sale.get("items")).hasSize(2));
+    }
+
+    private List<String> lines(ByteArrayOutputStream out, boolean gzip) throws IOException {
+        byte[] bytes = out.toByteArray();
+        if (gzip) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                bytes = in.readAllBytes();
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+    }
+
+    private void budget(String description, LocalDateTime date) {
+        Budget budget = new Budget(description, new BigDecimal("1.00"), BudgetType.INCOME, user);
+        budget.setDate(date);
+        budgetRepository.save(budget);
+    }
+}
@@ -0,0 +1,122 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.entity.Budget;
+import com.soldiers.entity.Budget.BudgetType;
+import com.soldiers.entity.User;
+import com.soldiers.repository.BudgetRepository;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exportação do orçamento para Excel: todas as movimentações em ordem de id e, ao atingir
+ * o limite de linhas da aba, continuação em novas abas com o mesmo cabeçalho.
+ */
+class ExcelExportServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ExcelExportService excelExportService;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        User user = createUser();
+        for (int i = 0; i < 7; i++) {
+            budgetRepository.save(new Budget("Movimentação " + i, new BigDecimal("1.00"), BudgetType.INCOME, user));
+        }
+    }
+
+    @Test
+    void exportWritesEveryEntryInOneSheetBelowTheLimit() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        excelExportService.exportBudgetToExcel(out);
+
+        try (Workbook workbook = read(out)) {
+            assertThat(workbook.getNumberOfSheets()).isEqualTo(1);
+            assertThat(exportedIds(workbook)).isEqualTo(budgetIds());
+        }
+    }
+
+    @Test
+    void fullSheetContinuesInANewSheetWithTheSameHeader() throws IOException {
+        List<Long> ids = budgetIds();
+        // Linhas de dados por aba: força pelo menos três abas, a última possivelmente incompleta
+        int lastRowIndex = Math.max(2, ids.size() / 3);
+        int expectedSheets = (ids.size() + lastRowIndex - 1) / lastRowIndex;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                excelExportService.exportBudgetToExcel(out, lastRowIndex);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        try (Workbook workbook = read(out)) {
+            assertThat(workbook.getNumberOfSheets()).isEqualTo(expectedSheets).isGreaterThanOrEqualTo(3);
+            assertThat(workbook.getSheetName(0)).isEqualTo("Orçamento");
+            for (int i = 0; i < expectedSheets; i++) {
+                Sheet sheet = workbook.getSheetAt(i);
+                if (i > 0) {
+                    assertThat(sheet.getSheetName()).isEqualTo("Orçamento (" + (i + 1) + ")");
+                }
+                assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("ID");
+                assertThat(sheet.getRow(0).getCell(7).getStringCellValue()).isEqualTo("Observações");
+                int dataRows = sheet.getLastRowNum();
+                if (i < expectedSheets - 1) {
+                    assertThat(dataRows).isEqualTo(lastRowIndex);
+                } else {
+                    assertThat(dataRows).isBetween(1, lastRowIndex);
+                }
+            }
+            assertThat(exportedIds(workbook)).isEqualTo(ids);
+        }
+    }
+
+    private List<Long> budgetIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM budgets ORDER BY id", Long.class);
+    }
+
+    private List<Long> exportedIds(Workbook workbook) {
+        List<Long> ids = new ArrayList<>();
+        for (Sheet sheet : workbook) {
+            for (Row row : sheet) {
+                if (row.getRowNum() > 0) {
+                    ids.add((long) row.getCell(0).getNumericCellValue());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Workbook read(ByteArrayOutputStream out) throws IOException {
+        return new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
@@ -0,0 +1,225 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.dto.request.BudgetRequest;
+import com.soldiers.dto.request.SaleBatchRequest;
+import com.soldiers.dto.request.SaleBatchRequest.SaleEntry;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.dto.response.FinancialReportResponse;
+import com.soldiers.dto.response.FinancialReportResponse.Bucket;
+import com.soldiers.dto.response.FinancialReportResponse.Granularity;
+import com.soldiers.entity.Budget;
+import com.soldiers.entity.Budget.BudgetType;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.User;
+import com.soldiers.repository.BudgetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Períodos do relatório financeiro (dia, semana ISO e mês, com períodos vazios), limite de
+ * intervalos e descarte do cache de períodos fechados por LedgerChangedEvent.
+ * Cada teste usa um ano próprio para não somar movimentações de outros testes.
+ */
+class FinancialReportServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private FinancialReportService financialReportService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private BudgetOutboxService budgetOutboxService;
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser();
+    }
+
+    @Test
+    void dailyBucketsIncludeEmptyDays() {
+        budget(BudgetType.INCOME, "10.00", LocalDate.of(2001, 3, 1).atStartOfDay());
+        budget(BudgetType.EXPENSE, "4.00", LocalDate.of(2001, 3, 1).atTime(23, 59, 59));
+        budget(BudgetType.TRANSFER, "7.00", LocalDate.of(2001, 3, 4).atTime(12, 0));
+        budget(BudgetType.INCOME, "2.50", LocalDate.of(2001, 3, 5).atStartOfDay());
+
+        FinancialReportResponse report = financialReportService.getReport(Granularity.DAY,
+                LocalDate.of(2001, 3, 1), LocalDate.of(2001, 3, 4));
+
+        assertThat(report.getBuckets())
+                .extracting(Bucket::getPeriodStart, Bucket::getPeriodEnd, Bucket::getIncome, Bucket::getExpense,
+                        Bucket::getTransfer, Bucket::getSaleCount, Bucket::isClosed)
+                .containsExactly(
+                        tuple(date(2001, 3, 1), date(2001, 3, 1), amount("10.00"), amount("4.00"), amount("0"), 0L, true),
+                        tuple(date(2001, 3, 2), date(2001, 3, 2), amount("0"), amount("0"), amount("0"), 0L, true),
+                        tuple(date(2001, 3, 3), date(2001, 3, 3), amount("0"), amount("0"), amount("0"), 0L, true),
+                        tuple(date(2001, 3, 4), date(2001, 3, 4), amount("0"), amount("0"), amount("7.00"), 0L, true));
+        assertThat(report.getTotalNet()).isEqualByComparingTo("6.00");
+    }
+
+    @Test
+    void weeklyBucketsFollowIsoWeeksLikeDateTrunc() {
+        // 2003-12-28 é domingo; 2004-01-01 é quinta, na semana ISO que começa em 2003-12-29
+        budget(BudgetType.INCOME, "1.00", LocalDate.of(2003, 12, 28).atTime(23, 59, 59));
+        budget(BudgetType.INCOME, "2.00", LocalDate.of(2003, 12, 29).atStartOfDay());
+        budget(BudgetType.INCOME, "3.00", LocalDate.of(2004, 1, 1).atTime(8, 0));
+        budget(BudgetType.EXPENSE, "5.00", LocalDate.of(2004, 1, 18).atTime(20, 0));
+
+        FinancialReportResponse report = financialReportService.getReport(Granularity.WEEK,
+                LocalDate.of(2003, 12, 28), LocalDate.of(2004, 1, 18));
+
+        assertThat(report.getBuckets())
+                .extracting(Bucket::getPeriodStart, Bucket::getPeriodEnd, Bucket::getIncome, Bucket::getExpense)
+                .containsExactly(
+                        tuple(date(2003, 12, 22), date(2003, 12, 28), amount("1.00"), amount("0")),
+                        tuple(date(2003, 12, 29), date(2004, 1, 4), amount("5.00"), amount("0")),
+                        tuple(date(2004, 1, 5), date(2004, 1, 11), amount("0"), amount("0")),
+                        tuple(date(2004, 1, 12), date(2004, 1, 18), amount("0"), amount("5.00")));
+        for (Bucket bucket : report.getBuckets()) {
+            assertThat(bucket.getPeriodStart()).isEqualTo(dateTrunc("week", bucket.getPeriodEnd()));
+        }
+        for (LocalDate day = date(2003, 12, 20); day.isBefore(date(2004, 1, 20)); day = day.plusDays(1)) {
+            assertThat(Granularity.WEEK.truncate(day)).as(day.toString()).isEqualTo(dateTrunc("week", day));
+        }
+    }
+
+    @Test
+    void monthlyBucketsIncludeEmptyMonths() {
+        budget(BudgetType.INCOME, "100.00", LocalDate.of(2008, 1, 31).atTime(23, 59, 59));
+        budget(BudgetType.EXPENSE, "40.00", LocalDate.of(2008, 3, 1).atStartOfDay());
+
+        FinancialReportResponse report = financialReportService.getReport(Granularity.MONTH,
+                LocalDate.of(2008, 1, 15), LocalDate.of(2008, 3, 15));
+
+        assertThat(report.getBuckets())
+                .extracting(Bucket::getPeriodStart, Bucket::getPeriodEnd, Bucket::getIncome, Bucket::getExpense)
+                .containsExactly(
+                        tuple(date(2008, 1, 1), date(2008, 1, 31), amount("100.00"), amount("0")),
+                        tuple(date(2008, 2, 1), date(2008, 2, 29), amount("0"), amount("0")),
+                        tuple(date(2008, 3, 1), date(2008, 3, 31), amount("0"), amount("40.00")));
+    }
+
+    @Test
+    void reportIsCappedAtFourHundredPeriods() {
+        LocalDate start = LocalDate.of(2000, 1, 1);
+
+        assertThat(financialReportService.getReport(Granularity.DAY, start, start.plusDays(399)).getBuckets())
+                .hasSize(400);
+        assertThatThrownBy(() -> financialReportService.getReport(Granularity.DAY, start, start.plusDays(400)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> financialReportService.getReport(Granularity.DAY, start.plusDays(1), start))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void backDatedBudgetEditDropsOnlyTheAffectedClosedPeriods() {
+        LocalDate earlier = LocalDate.of(2005, 6, 1);
+        LocalDate edited = LocalDate.of(2005, 6, 3);
+        Budget entry = budget(BudgetType.INCOME, "20.00", edited.atTime(10, 0));
+        assertThat(incomeOn(earlier)).isEqualByComparingTo("0");
+        assertThat(incomeOn(edited)).isEqualByComparingTo("20.00");
+
+        // Gravações direto no banco não publicam evento: os períodos em cache continuam valendo
+        insertWithoutEvent(earlier.atTime(9, 0), "1.00");
+        insertWithoutEvent(edited.atTime(9, 0), "1.00");
+        assertThat(incomeOn(earlier)).isEqualByComparingTo("0");
+        assertThat(incomeOn(edited)).isEqualByComparingTo("20.00");
+
+        budgetService.updateBudget(entry.getId(), new BudgetRequest("Ajuste", new BigDecimal("25.00"), BudgetType.INCOME, null));
+
+        assertThat(incomeOn(edited)).isEqualByComparingTo("26.00");
+        assertThat(incomeOn(earlier)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void deletingABackDatedSaleDropsTheCachedClosedPeriod() {
+        LocalDate day = LocalDate.now().minusDays(3);
+        Product product = createProduct(10);
+        SaleEntry entry = new SaleEntry();
+        entry.setClientKey(UUID.randomUUID().toString());
+        entry.setSoldAt(day.atTime(15, 0));
+        entry.setUserId(user.getId());
+        entry.setGameEventId(createGameEvent().getId());
+        entry.setItems(Collections.singletonList(new SaleRequest.SaleItemRequest(product.getId(), 2, new BigDecimal("30.00"))));
+        Long saleId = saleBatchService.ingest(new SaleBatchRequest(Collections.singletonList(entry)), user.getId())
+                .getResults().get(0).getSaleId();
+        budgetOutboxService.postDueBatch(LocalDateTime.now(), 200);
+
+        Bucket withSale = bucketOn(day);
+        insertWithoutEvent(day.atTime(9, 0), "1.00");
+        assertThat(bucketOn(day).getIncome()).isEqualByComparingTo(withSale.getIncome());
+
+        saleService.deleteSale(saleId);
+
+        Bucket afterDelete = bucketOn(day);
+        assertThat(afterDelete.getIncome()).isEqualByComparingTo(withSale.getIncome().subtract(amount("60.00")).add(amount("1.00")));
+        assertThat(afterDelete.getSaleCount()).isEqualTo(withSale.getSaleCount() - 1);
+    }
+
+    private BigDecimal incomeOn(LocalDate day) {
+        return bucketOn(day).getIncome();
+    }
+
+    private Bucket bucketOn(LocalDate day) {
+        Bucket bucket = financialReportService.getReport(Granularity.DAY, day, day).getBuckets().get(0);
+        assertThat(bucket.isClosed()).isTrue();
+        return bucket;
+    }
+
+    private void insertWithoutEvent(LocalDateTime date, String amount) {
+        jdbcTemplate.update("INSERT INTO budgets (description, amount, type, date, user_id) VALUES ('Direto no banco', ?, 'INCOME', ?, ?)",
+                new BigDecimal(amount), Timestamp.valueOf(date), user.getId());
+    }
+
+    private LocalDate dateTrunc(String unit, LocalDate day) {
+        return jdbcTemplate.queryForObject("SELECT CAST(date_trunc(?, CAST(? AS timestamp)) AS date)",
+                Date.class, unit, Timestamp.valueOf(day.atStartOfDay())).toLocalDate();
+    }
+
+    private Budget budget(BudgetType type, String amount, LocalDateTime date) {
+        Budget budget = new Budget("Movimentação de teste", new BigDecimal(amount), type, user);
+        budget.setDate(date);
+        return budgetRepository.saveAndFlush(budget);
+    }
+
+    private static LocalDate date(int year, int month, int day) {
+        return LocalDate.of(year, month, day);
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value);
+    }
+}
@@ -0,0 +1,105 @@
+package com.soldiers.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pool limitado de hashing: recusa imediata com 429 quando pool e fila estão cheios,
+ * 429 no tempo esgotado e rehash quando o strength configurado aumenta.
+ */
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void fullPoolAndQueueRejectAtOnceWithTooManyRequests() throws Exception {
+        service = new PasswordHashingService(blockingEncoder(), 1, 1, 10_000);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("primeira"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("segunda"));
+        // A segunda espera na fila (capacidade 1); a terceira não cabe
+        while (!queued.isDone() && service.queuedHashes() == 0) {
+            Thread.sleep(10);
+        }
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service.encode("terceira"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:primeira");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:segunda");
+    }
+
+    @Test
+    void slowHashTimesOutWithTooManyRequests() {
+        service = new PasswordHashingService(blockingEncoder(), 1, 1, 100);
+
+        assertThatThrownBy(() -> service.matches("senha", "hash:senha"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+    }
+
+    @Test
+    void hashesFromAWeakerStrengthNeedRehash() {
+        String weak = new BCryptPasswordEncoder(4).encode("senha");
+        service = new PasswordHashingService(new BCryptPasswordEncoder(5), 1, 1, 10_000);
+
+        assertThat(service.matches("senha", weak)).isTrue();
+        assertThat(service.needsRehash(weak)).isTrue();
+        String rehashed = service.encode("senha");
+        assertThat(service.needsRehash(rehashed)).isFalse();
+        assertThat(service.matches("senha", rehashed)).isTrue();
+    }
+
+    // Encoder que fica preso até o teste liberar, simulando BCrypt lento; o hash de calibração passa direto
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (!"calibracao".contentEquals(rawPassword)) {
+                    block();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                block();
+                return encodedPassword.equals("hash:" + rawPassword);
+            }
+
+            private void block() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+}
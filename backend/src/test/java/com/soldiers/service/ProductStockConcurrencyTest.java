@@ -0,0 +1,170 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.dto.request.SaleBatchRequest;
+import com.soldiers.dto.request.SaleBatchRequest.SaleEntry;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.dto.response.SaleBatchResponse;
+import com.soldiers.dto.response.SaleBatchResponse.Result;
+import com.soldiers.dto.response.SaleBatchResponse.Status;
+import com.soldiers.entity.GameEvent;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.User;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductStockConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductStockConcurrencyTest.class);
+
+    private static final int STOCK = 25;
+    private static final int SALES = 200;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentSalesNeverOversell() throws Exception {
+        User seller = createUser();
+        GameEvent game = createGameEvent();
+        Product product = createProduct(STOCK);
+        SaleRequest request = new SaleRequest(game.getId(), null, Collections.singletonList(
+                new SaleRequest.SaleItemRequest(product.getId(), 1, new BigDecimal("10.00"))));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < SALES; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    saleService.createSale(request, seller.getId());
+                    return true;
+                } catch (RuntimeException e) {
+                    // Só a recusa por falta de estoque é esperada; deadlock, timeout do pool ou erro de
+                    // constraint propagam e derrubam o teste no Future.get
+                    if (!isOutOfStock(e)) {
+                        throw e;
+                    }
+                    return false;
+                }
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        executor.shutdown();
+        logger.info("{} vendas concorrentes ({} threads) em {} ms: {} aceitas, {} vendas/s",
+                SALES, THREADS, elapsedMs, succeeded, SALES * 1000L / Math.max(elapsedMs, 1));
+
+        assertThat(succeeded).isEqualTo(STOCK);
+        assertThat(jdbcTemplate.queryForObject("SELECT stock FROM tb_product WHERE id = ?", Integer.class, product.getId()))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(i.quantity), 0) FROM tb_sale_item i JOIN tb_sale s ON s.id = i.sale_id " +
+                "WHERE i.product_id = ? AND s.deletado_em IS NULL", Integer.class, product.getId()))
+                .isEqualTo(STOCK);
+    }
+
+    @Test
+    void multiItemSalesInOppositeOrderDoNotDeadlock() throws Exception {
+        User seller = createUser();
+        GameEvent game = createGameEvent();
+        Product first = createProduct(STOCK);
+        Product second = createProduct(STOCK);
+        // [A, B], [B, A] e lotes do /sales/batch (que travam por id) disputando as mesmas duas linhas
+        SaleRequest forward = new SaleRequest(game.getId(), null, Arrays.asList(
+                new SaleRequest.SaleItemRequest(first.getId(), 1, new BigDecimal("10.00")),
+                new SaleRequest.SaleItemRequest(second.getId(), 1, new BigDecimal("10.00"))));
+        SaleRequest reverse = new SaleRequest(game.getId(), null, Arrays.asList(
+                new SaleRequest.SaleItemRequest(second.getId(), 1, new BigDecimal("10.00")),
+                new SaleRequest.SaleItemRequest(first.getId(), 1, new BigDecimal("10.00"))));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < SALES; i++) {
+            int kind = i % 3;
+            results.add(executor.submit(() -> {
+                start.await();
+                if (kind == 2) {
+                    SaleBatchResponse response = saleBatchService.ingest(new SaleBatchRequest(
+                            Collections.singletonList(batchEntry(reverse, seller))), seller.getId());
+                    Result result = response.getResults().get(0);
+                    if (result.getStatus() == Status.REJECTED) {
+                        assertThat(result.getMessage()).startsWith("Estoque insuficiente");
+                        return 0;
+                    }
+                    return 1;
+                }
+                try {
+                    saleService.createSale(kind == 0 ? forward : reverse, seller.getId());
+                    return 1;
+                } catch (RuntimeException e) {
+                    if (!isOutOfStock(e)) {
+                        throw e;
+                    }
+                    return 0;
+                }
+            }));
+        }
+
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Integer> result : results) {
+            succeeded += result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(succeeded).isEqualTo(STOCK);
+        for (Product product : Arrays.asList(first, second)) {
+            assertThat(jdbcTemplate.queryForObject("SELECT stock FROM tb_product WHERE id = ?", Integer.class,
+                    product.getId())).isZero();
+        }
+    }
+
+    private SaleEntry batchEntry(SaleRequest request, User seller) {
+        SaleEntry entry = new SaleEntry();
+        entry.setClientKey(UUID.randomUUID().toString());
+        entry.setUserId(seller.getId());
+        entry.setGameEventId(request.getGameEventId());
+        entry.setItems(request.getItems());
+        return entry;
+    }
+
+    private static boolean isOutOfStock(RuntimeException e) {
+        return e.getClass() == RuntimeException.class
+                && e.getMessage() != null && e.getMessage().startsWith("Estoque insuficiente");
+    }
+}
@@ -0,0 +1,77 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.entity.GameEvent;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.Sale;
+import com.soldiers.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SaleAggregateServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createAndDeleteSaleKeepAggregatesStockAndLedgerInSync() {
+        User seller = createUser();
+        GameEvent game = createGameEvent();
+        Product product = createProduct(10);
+
+        Sale first = saleService.createSale(request(game, product, 2, "15.00"), seller.getId());
+        Sale second = saleService.createSale(request(game, product, 3, "15.00"), seller.getId());
+
+        // Duas vendas do mesmo jogo, vendedor e dia caem na mesma linha do agregado
+        Map<String, Object> aggregate = aggregateOf(game, seller);
+        assertThat(((Number) aggregate.get("sale_count")).longValue()).isEqualTo(2L);
+        assertThat((BigDecimal) aggregate.get("total_amount")).isEqualByComparingTo("75.00");
+        assertThat(stockOf(product)).isEqualTo(5);
+        assertThat(ledgerRowsFor(first)).isEqualTo(1);
+
+        saleService.deleteSale(first.getId());
+
+        aggregate = aggregateOf(game, seller);
+        assertThat(((Number) aggregate.get("sale_count")).longValue()).isEqualTo(1L);
+        assertThat((BigDecimal) aggregate.get("total_amount")).isEqualByComparingTo("45.00");
+        assertThat(stockOf(product)).isEqualTo(7);
+        assertThat(ledgerRowsFor(first)).isZero();
+        assertThat(ledgerRowsFor(second)).isEqualTo(1);
+    }
+
+    private SaleRequest request(GameEvent game, Product product, int quantity, String price) {
+        return new SaleRequest(game.getId(), null, Collections.singletonList(
+                new SaleRequest.SaleItemRequest(product.getId(), quantity, new BigDecimal(price))));
+    }
+
+    private Map<String, Object> aggregateOf(GameEvent game, User seller) {
+        return jdbcTemplate.queryForMap(
+                "SELECT sale_count, total_amount FROM tb_sale_aggregate WHERE game_event_id = ? AND seller_id = ?",
+                game.getId(), seller.getId());
+    }
+
+    private int stockOf(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM tb_product WHERE id = ?", Integer.class, product.getId());
+    }
+
+    // A entrada INCOME pode estar ainda na outbox ou já lançada em budgets
+    private int ledgerRowsFor(Sale sale) {
+        return Arrays.asList("tb_budget_outbox", "budgets").stream()
+                .mapToInt(table -> jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM " + table + " WHERE source_type = 'SALE' AND source_id = ?",
+                        Integer.class, sale.getId()))
+                .sum();
+    }
+}
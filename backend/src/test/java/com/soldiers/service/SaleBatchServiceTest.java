@@ -0,0 +1,132 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.StatementCounter;
+import com.soldiers.dto.request.SaleBatchRequest;
+import com.soldiers.dto.request.SaleBatchRequest.SaleEntry;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.dto.response.SaleBatchResponse;
+import com.soldiers.dto.response.SaleBatchResponse.Result;
+import com.soldiers.dto.response.SaleBatchResponse.Status;
+import com.soldiers.entity.GameEvent;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.User;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SaleBatchServiceTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleBatchServiceTest.class);
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void offlineSaleKeepsTheTillTimestampForSaleAggregateAndLedger() {
+        User seller = createUser();
+        GameEvent game = createGameEvent();
+        Product product = createProduct(10);
+        LocalDateTime soldAt = LocalDateTime.now().minusDays(2).truncatedTo(ChronoUnit.SECONDS);
+
+        SaleBatchResponse response = saleBatchService.ingest(new SaleBatchRequest(Collections.singletonList(
+                entry(seller, game, product, soldAt))), seller.getId());
+
+        Result result = response.getResults().get(0);
+        assertThat(result.getStatus()).isEqualTo(Status.CREATED);
+        assertThat(jdbcTemplate.queryForObject("SELECT criado_em FROM tb_sale WHERE id = ?",
+                Timestamp.class, result.getSaleId()).toLocalDateTime()).isEqualTo(soldAt);
+        assertThat(jdbcTemplate.queryForObject("SELECT date FROM tb_budget_outbox WHERE source_type = 'SALE' AND source_id = ?",
+                Timestamp.class, result.getSaleId()).toLocalDateTime()).isEqualTo(soldAt);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT sale_count FROM tb_sale_aggregate WHERE game_event_id = ? AND seller_id = ? AND sale_date = ?",
+                Long.class, game.getId(), seller.getId(), soldAt.toLocalDate())).isEqualTo(1L);
+    }
+
+    @Test
+    void soldAtInTheFutureOrOutsideTheWindowIsRejected() {
+        User seller = createUser();
+        GameEvent game = createGameEvent();
+        Product product = createProduct(10);
+
+        SaleBatchResponse response = saleBatchService.ingest(new SaleBatchRequest(Arrays.asList(
+                entry(seller, game, product, LocalDateTime.now().plusHours(1)),
+                entry(seller, game, product, LocalDateTime.now().minusDays(30)))), seller.getId());
+
+        assertThat(response.getResults()).extracting(Result::getStatus)
+                .containsExactly(Status.REJECTED, Status.REJECTED);
+        assertThat(response.getResults()).extracting(Result::getMessage)
+                .allSatisfy(message -> assertThat(message).startsWith("soldAt"));
+    }
+
+    @Test
+    void everyEntryIsSoldByTheAuthenticatedSellerWhateverItsUserId() {
+        User seller = createUser();
+        User other = createUser();
+        GameEvent game = createGameEvent();
+        Product product = createProduct(10);
+
+        SaleBatchResponse response = saleBatchService.ingest(new SaleBatchRequest(Arrays.asList(
+                entry(other, game, product, LocalDateTime.now()),
+                entry(seller, game, product, LocalDateTime.now()))), seller.getId());
+
+        assertThat(response.getResults()).extracting(Result::getStatus).containsExactly(Status.CREATED, Status.CREATED);
+        for (Result result : response.getResults()) {
+            assertThat(jdbcTemplate.queryForObject("SELECT user_id FROM tb_sale WHERE id = ?", Long.class, result.getSaleId()))
+                    .isEqualTo(seller.getId());
+        }
+    }
+
+    @Test
+    void batchUsesFixedStatementCountForAnyBatchSize() {
+        User seller = createUser();
+        GameEvent game = createGameEvent();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            products.add(createProduct(1000));
+        }
+        saleBatchService.ingest(batchOf(2, seller, game, products), seller.getId()); // aquece caches
+
+        long twoSales = StatementCounter.count(() -> saleBatchService.ingest(batchOf(2, seller, game, products), seller.getId()));
+        long twentySales = StatementCounter.count(() -> saleBatchService.ingest(batchOf(20, seller, game, products), seller.getId()));
+        logger.info("Instruções JDBC por lote: {} com 2 vendas, {} com 20 vendas", twoSales, twentySales);
+
+        assertThat(twentySales).isEqualTo(twoSales);
+    }
+
+    private SaleBatchRequest batchOf(int size, User seller, GameEvent game, List<Product> products) {
+        List<SaleEntry> entries = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            entries.add(entry(seller, game, products.get(i % products.size()), LocalDateTime.now().minusMinutes(i)));
+        }
+        return new SaleBatchRequest(entries);
+    }
+
+    private SaleEntry entry(User seller, GameEvent game, Product product, LocalDateTime soldAt) {
+        SaleEntry entry = new SaleEntry();
+        entry.setClientKey(UUID.randomUUID().toString());
+        entry.setSoldAt(soldAt);
+        entry.setUserId(seller.getId());
+        entry.setGameEventId(game.getId());
+        entry.setItems(Collections.singletonList(
+                new SaleRequest.SaleItemRequest(product.getId(), 1, new BigDecimal("15.00"))));
+        return entry;
+    }
+}
@@ -0,0 +1,199 @@
+package com.soldiers.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.StatementCounter;
+import com.soldiers.controller.SaleController;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.entity.GameEvent;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.User;
+import com.soldiers.repository.IdempotencyKeyRepository;
+import com.soldiers.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Idempotency-Key do POST /sales contra o PostgreSQL: reenvio sem efeitos colaterais,
+ * chave reutilizada com outra requisição, reserva desfeita na falha, chave vencida e limpeza em lotes.
+ */
+class SaleIdempotencyServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SaleIdempotencyService saleIdempotencyService;
+
+    @Autowired
+    private SaleController saleController;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User seller;
+    private GameEvent game;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        seller = createUser();
+        game = createGameEvent();
+        product = createProduct(10);
+    }
+
+    @Test
+    void replayReturnsStoredBodyWithoutCreatingAnotherSale() {
+        String key = UUID.randomUUID().toString();
+        Authentication authentication = authenticationOf(seller);
+
+        ResponseEntity<?> first = saleController.createSale(saleOf(2), key, authentication);
+        ResponseEntity<?> second = saleController.createSale(saleOf(2), key, authentication);
+
+        assertThat(first.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("false");
+        assertThat(second.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(salesOfGame()).isEqualTo(1L);
+        assertThat(stockOf(product)).isEqualTo(8);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_budget_outbox o JOIN tb_sale s ON s.id = o.source_id " +
+                "WHERE o.source_type = 'SALE' AND s.game_event_id = ?", Long.class, game.getId())).isEqualTo(1L);
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyOrUserIsRejected() {
+        String key = UUID.randomUUID().toString();
+        saleIdempotencyService.createSale(key, saleOf(1), seller.getId());
+
+        assertThatThrownBy(() -> saleIdempotencyService.createSale(key, saleOf(3), seller.getId()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThatThrownBy(() -> saleIdempotencyService.createSale(key, saleOf(1), createUser().getId()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(salesOfGame()).isEqualTo(1L);
+        assertThat(stockOf(product)).isEqualTo(9);
+    }
+
+    @Test
+    void failedSaleReleasesTheKeyForRetry() {
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> saleIdempotencyService.createSale(key, saleOf(11), seller.getId()))
+                .hasMessageStartingWith("Estoque insuficiente");
+        assertThat(idempotencyKeyRepository.existsById(key)).isFalse();
+
+        SaleIdempotencyService.StoredResponse retry = saleIdempotencyService.createSale(key, saleOf(10), seller.getId());
+
+        assertThat(retry.isReplayed()).isFalse();
+        assertThat(salesOfGame()).isEqualTo(1L);
+        assertThat(stockOf(product)).isEqualTo(0);
+    }
+
+    @Test
+    void expiredKeyIsClaimedAgain() {
+        String key = UUID.randomUUID().toString();
+        insertKey(key, LocalDateTime.now().minusHours(1));
+        LocalDateTime now = LocalDateTime.now();
+
+        // Chave vencida com outro usuário e outro corpo: vale como chave nova
+        SaleIdempotencyService.StoredResponse response = saleIdempotencyService.createSale(key, saleOf(1), seller.getId());
+
+        assertThat(response.isReplayed()).isFalse();
+        assertThat(salesOfGame()).isEqualTo(1L);
+        assertThat(idempotencyKeyRepository.findById(key)).hasValueSatisfying(entry -> {
+            assertThat(entry.getUserId()).isEqualTo(seller.getId());
+            assertThat(entry.getExpiraEm()).isAfter(now);
+            assertThat(entry.getResponseBody()).isEqualTo(response.getBody());
+        });
+    }
+
+    @Test
+    void claimReusesOnlyExpiredKeys() {
+        String expired = UUID.randomUUID().toString();
+        String live = UUID.randomUUID().toString();
+        insertKey(expired, LocalDateTime.now().minusHours(1));
+        insertKey(live, LocalDateTime.now().plusHours(1));
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer expiredClaimed = transactionTemplate.execute(status -> idempotencyKeyRepository.claim(
+                expired, seller.getId(), "outro-hash", now, now.plusHours(1)));
+        Integer liveClaimed = transactionTemplate.execute(status -> idempotencyKeyRepository.claim(
+                live, seller.getId(), "outro-hash", now, now.plusHours(1)));
+
+        assertThat(expiredClaimed).isEqualTo(1);
+        assertThat(liveClaimed).isZero();
+        assertThat(idempotencyKeyRepository.findById(live)).hasValueSatisfying(
+                entry -> assertThat(entry.getRequestHash()).isEqualTo("hash-antigo"));
+    }
+
+    @Test
+    void evictExpiredDeletesInBatches() {
+        saleIdempotencyService.evictExpired(); // sobras vencidas de outros testes
+        for (int i = 0; i < 5; i++) {
+            insertKey(UUID.randomUUID().toString(), LocalDateTime.now().minusMinutes(1));
+        }
+        String live = UUID.randomUUID().toString();
+        insertKey(live, LocalDateTime.now().plusHours(1));
+        SaleIdempotencyService batchesOfTwo = new SaleIdempotencyService(
+                idempotencyKeyRepository, saleService, objectMapper, 24, 2);
+
+        long statements = StatementCounter.count(batchesOfTwo::evictExpired);
+
+        // 5 vencidas em lotes de 2: três DELETEs (2, 2 e 1)
+        assertThat(statements).isEqualTo(3L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_idempotency_key WHERE expira_em <= now()", Long.class)).isZero();
+        assertThat(idempotencyKeyRepository.existsById(live)).isTrue();
+    }
+
+    private SaleRequest saleOf(int quantity) {
+        return new SaleRequest(game.getId(), null, Collections.singletonList(
+                new SaleRequest.SaleItemRequest(product.getId(), quantity, new BigDecimal("10.00"))));
+    }
+
+    private Authentication authenticationOf(User user) {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), 0L, false);
+        return new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
+    }
+
+    private void insertKey(String key, LocalDateTime expiresAt) {
+        jdbcTemplate.update("INSERT INTO tb_idempotency_key (idempotency_key, user_id, request_hash, criado_em, expira_em) " +
+                        "VALUES (?, ?, 'hash-antigo', ?, ?)",
+                key, createUser().getId(), Timestamp.valueOf(expiresAt.minusHours(24)), Timestamp.valueOf(expiresAt));
+    }
+
+    private long salesOfGame() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_sale WHERE game_event_id = ?", Long.class, game.getId());
+    }
+
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStock();
+    }
+}
@@ -0,0 +1,122 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.StatementCounter;
+import com.soldiers.dto.request.SaleRequest;
+import com.soldiers.dto.response.SaleResponse;
+import com.soldiers.entity.GameEvent;
+import com.soldiers.entity.Product;
+import com.soldiers.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * As listagens de vendas carregam jogo, itens e produtos pelo entity graph: o número de instruções SQL
+ * não pode crescer com o número de vendas (N+1). Na criação, não pode crescer com o número de itens.
+ */
+class SaleQueryCountTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleQueryCountTest.class);
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User seller;
+    private GameEvent game;
+    private Product firstProduct;
+    private Product secondProduct;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        seller = createUser();
+        game = createGameEvent();
+        firstProduct = createProduct(1000);
+        secondProduct = createProduct(1000);
+    }
+
+    @Test
+    void salesByGameEventUseFixedQueryCount() {
+        assertFixedQueryCount(() -> saleService.getSalesByGameEvent(game.getId()));
+    }
+
+    @Test
+    void salesBySellerUseFixedQueryCount() {
+        assertFixedQueryCount(() -> saleService.getSalesBySeller(seller.getId()));
+    }
+
+    @Test
+    void allSalesUseFixedQueryCount() {
+        assertFixedQueryCount(() -> saleService.getAllSales());
+    }
+
+    @Test
+    void createSaleUsesFixedStatementCountForAnyItemCount() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            products.add(createProduct(1000));
+        }
+        saleService.createSale(saleOf(products.subList(0, 2)), seller.getId()); // aquece caches
+
+        long twoItems = StatementCounter.count(() -> saleService.createSale(saleOf(products.subList(0, 2)), seller.getId()));
+        long tenItems = StatementCounter.count(() -> saleService.createSale(saleOf(products), seller.getId()));
+        logger.info("Instruções JDBC por venda: {} com 2 itens, {} com 10 itens", twoItems, tenItems);
+
+        assertThat(tenItems).isEqualTo(twoItems);
+    }
+
+    private SaleRequest saleOf(List<Product> products) {
+        List<SaleRequest.SaleItemRequest> items = new ArrayList<>();
+        for (Product product : products) {
+            items.add(new SaleRequest.SaleItemRequest(product.getId(), 1, new BigDecimal("10.00")));
+        }
+        return new SaleRequest(game.getId(), null, items);
+    }
+
+    private void assertFixedQueryCount(Supplier<List<SaleResponse>> listing) {
+        createSales(2);
+        listing.get(); // aquece caches de usuários e permissões, que não fazem parte da contagem
+        long fewSales = countStatements(listing);
+
+        createSales(20);
+        long manySales = countStatements(listing);
+
+        assertThat(manySales).isEqualTo(fewSales);
+    }
+
+    private long countStatements(Supplier<List<SaleResponse>> listing) {
+        statistics.clear();
+        List<SaleResponse> sales = listing.get();
+        // Toca nos dados carregados para que qualquer lazy load apareça na contagem
+        sales.forEach(sale -> assertThat(sale.getItems()).isNotEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createSales(int count) {
+        SaleRequest request = new SaleRequest(game.getId(), null, Arrays.asList(
+                new SaleRequest.SaleItemRequest(firstProduct.getId(), 1, new BigDecimal("10.00")),
+                new SaleRequest.SaleItemRequest(secondProduct.getId(), 2, new BigDecimal("5.00"))));
+        for (int i = 0; i < count; i++) {
+            saleService.createSale(request, seller.getId());
+        }
+    }
+}
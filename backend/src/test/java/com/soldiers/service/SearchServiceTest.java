@@ -0,0 +1,129 @@
+package com.soldiers.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.dto.response.SearchResultResponse;
+import com.soldiers.entity.Player;
+import com.soldiers.entity.Product;
+import com.soldiers.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Typeahead ranqueado e busca por nome sem acento, comparada ao LIKE anterior
+ * (sensível a maiúsculas e acentos) em volume sintético.
+ */
+class SearchServiceTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchServiceTest.class);
+
+    private static final String NAME_SEARCH = "SELECT id FROM tb_product WHERE deletado_em IS NULL " +
+            "AND lower(f_unaccent(name)) LIKE '%' || lower(f_unaccent('joao silva')) || '%'";
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void prefixMatchOfOneTypeStaysAheadOfMoreSimilarInfixMatchOfAnother() {
+        // Nome longo que começa pelo termo (similaridade baixa) x nome curto que só contém o termo
+        Product product = productRepository.save(new Product("Xavante camiseta oficial temporada de inverno completa",
+                null, new BigDecimal("10.00"), 1));
+        Player player = playerRepository.save(new Player("Zé Xavante", "QB", "12"));
+
+        List<SearchResultResponse> results = searchService.typeahead("xavante", null, 10);
+
+        // Ids de tipos diferentes podem coincidir: compara tipo e id
+        assertThat(results).extracting(r -> r.getType() + ":" + r.getId())
+                .containsSubsequence(SearchService.TYPE_PRODUCT + ":" + product.getId(),
+                        SearchService.TYPE_PLAYER + ":" + player.getId());
+        SearchResultResponse first = results.get(0);
+        SearchResultResponse playerResult = results.stream()
+                .filter(r -> SearchService.TYPE_PLAYER.equals(r.getType()) && r.getId().equals(player.getId()))
+                .findFirst().orElseThrow();
+        assertThat(first.getType()).isEqualTo(SearchService.TYPE_PRODUCT);
+        assertThat(first.isPrefix()).isTrue();
+        assertThat(playerResult.isPrefix()).isFalse();
+        assertThat(playerResult.getScore()).isGreaterThan(first.getScore());
+    }
+
+    // Volume reduzido (100 mil linhas, desfeitas no fim): a comparação é de páginas lidas, não de tempo
+    @Test
+    void nameSearchFindsEveryCaseAndAccentVariantReadingFarFewerPagesThanASeqScan() {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.execute("INSERT INTO tb_product (name, price, stock) " +
+                    "SELECT 'Produto ' || md5(g::text), 10, 10 FROM generate_series(1, 100000) g");
+            jdbcTemplate.execute("INSERT INTO tb_product (name, price, stock) VALUES " +
+                    "('Camisa João Silva', 10, 1), ('CAMISA JOÃO SILVA', 10, 1), ('camisa joao silva', 10, 1), " +
+                    "('Boné Joao Silva', 10, 1), ('Caneca João Silveira', 10, 1), ('Camisa Maria Silva', 10, 1)");
+            jdbcTemplate.queryForList("SELECT gin_clean_pending_list(CAST('idx_product_name_trgm' AS regclass))");
+            jdbcTemplate.execute("ANALYZE tb_product");
+
+            Set<String> found = names(productRepository.findByNameContaining("joão silva"));
+            // LIKE anterior: '%' || termo || '%' sensível a maiúsculas e acentos
+            Set<String> oldLike = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT name FROM tb_product WHERE name LIKE '%joão silva%' AND deletado_em IS NULL", String.class));
+
+            assertThat(found).containsExactlyInAnyOrder("Camisa João Silva", "CAMISA JOÃO SILVA",
+                    "camisa joao silva", "Boné Joao Silva");
+            assertThat(found).containsAll(oldLike);
+            assertThat(oldLike).isEmpty();
+
+            JsonNode indexed = explain(NAME_SEARCH);
+            jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+            jdbcTemplate.execute("SET LOCAL enable_indexscan = off");
+            JsonNode sequential = explain(NAME_SEARCH);
+            logger.info("Busca por nome em 100 mil produtos: {} páginas e {} ms pelo índice, {} páginas e {} ms em seq scan",
+                    pages(indexed), indexed.get("Actual Total Time"), pages(sequential), sequential.get("Actual Total Time"));
+
+            assertThat(indexed.toString()).contains("idx_product_name_trgm");
+            assertThat(pages(indexed) * 10).isLessThan(pages(sequential));
+        });
+    }
+
+    private Set<String> names(List<Product> products) {
+        return products.stream()
+                .map(Product::getName)
+                .collect(Collectors.toSet());
+    }
+
+    private JsonNode explain(String query) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + query, String.class);
+        try {
+            return objectMapper.readTree(plan).get(0).get("Plan");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long pages(JsonNode plan) {
+        return plan.get("Shared Hit Blocks").asLong() + plan.get("Shared Read Blocks").asLong();
+    }
+}
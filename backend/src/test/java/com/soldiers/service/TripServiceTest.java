@@ -0,0 +1,146 @@
+package com.soldiers.service;
+
+import com.soldiers.PostgresIntegrationTest;
+import com.soldiers.StatementCounter;
+import com.soldiers.dto.request.TripBudgetRequest;
+import com.soldiers.dto.request.TripExpenseRequest;
+import com.soldiers.dto.request.TripRequest;
+import com.soldiers.dto.response.BudgetResponse;
+import com.soldiers.entity.TripBudget;
+import com.soldiers.entity.User;
+import com.soldiers.repository.BudgetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exclusão das entradas do orçamento geral de uma viagem pelo vínculo trip_id, comparada ao
+ * caminho anterior (orçamento inteiro filtrado em memória pelas notas e pela descrição).
+ */
+class TripServiceTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TripServiceTest.class);
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private TripBudgetService tripBudgetService;
+
+    @Autowired
+    private TripExpenseService tripExpenseService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private BudgetOutboxService budgetOutboxService;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser();
+    }
+
+    @Test
+    void deleteTripRemovesEveryEntryTheOldFilterFoundAndOnlyThisTrips() {
+        Long tripId = trip();
+        movement(tripId, TripBudget.BudgetType.INCOME, "300.00");
+        movement(tripId, TripBudget.BudgetType.EXPENSE, "120.00");
+        tripExpenseService.createExpense(new TripExpenseRequest("Pedágio", new BigDecimal("45.00"), tripId, null), user.getId());
+        Long otherTripId = trip();
+        movement(otherTripId, TripBudget.BudgetType.EXPENSE, "80.00");
+        budgetOutboxService.postDueBatch(LocalDateTime.now(), 200);
+
+        Set<Long> tripEntries = entryIds(tripId);
+        Set<Long> otherTripEntries = entryIds(otherTripId);
+        Set<Long> oldPath = oldPathEntryIds(tripId, tripDestination(tripId));
+        assertThat(tripEntries).hasSize(3);
+        // O filtro por notas não reconhecia os gastos da viagem ("Gasto ID: ... - Viagem: ...")
+        assertThat(tripEntries).containsAll(oldPath).hasSize(oldPath.size() + 1);
+
+        tripService.deleteTrip(tripId);
+
+        assertThat(budgetRepository.findAllById(tripEntries)).isEmpty();
+        assertThat(budgetRepository.findAllById(otherTripEntries)).hasSize(1);
+    }
+
+    @Test
+    void deleteTripUsesFixedStatementCountForAnyLedgerSize() {
+        Long smallLedgerTrip = trip();
+        movement(smallLedgerTrip, TripBudget.BudgetType.EXPENSE, "10.00");
+        budgetOutboxService.postDueBatch(LocalDateTime.now(), 200);
+        int smallLedger = budgetService.getAllBudgets().size();
+        long smallLedgerStatements = StatementCounter.count(() -> tripService.deleteTrip(smallLedgerTrip));
+
+        List<Object[]> unrelated = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            unrelated.add(new Object[]{"Viagem para outro lugar " + i, Timestamp.valueOf(LocalDateTime.now()), user.getId()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO budgets (description, amount, type, date, user_id, notes) " +
+                "VALUES (?, 1.00, 'EXPENSE', ?, ?, 'Sem vínculo com viagem')", unrelated);
+        Long largeLedgerTrip = trip();
+        movement(largeLedgerTrip, TripBudget.BudgetType.EXPENSE, "10.00");
+        budgetOutboxService.postDueBatch(LocalDateTime.now(), 200);
+        int largeLedger = budgetService.getAllBudgets().size();
+        long largeLedgerStatements = StatementCounter.count(() -> tripService.deleteTrip(largeLedgerTrip));
+        logger.info("Exclusão de viagem: {} instruções com {} entradas no orçamento, {} com {} (o caminho anterior lia todas)",
+                smallLedgerStatements, smallLedger, largeLedgerStatements, largeLedger);
+
+        assertThat(largeLedgerStatements).isEqualTo(smallLedgerStatements);
+        assertThat(entryIds(largeLedgerTrip)).isEmpty();
+    }
+
+    // Caminho anterior: todas as entradas do orçamento, filtradas pelas notas e pela descrição
+    private Set<Long> oldPathEntryIds(Long tripId, String destination) {
+        return budgetService.getAllBudgets().stream()
+                .filter(response -> {
+                    String notes = response.getNotes();
+                    String description = response.getDescription();
+                    return (notes != null && notes.contains("viagem ID: " + tripId)) ||
+                           (description != null && description.contains("Viagem para " + destination));
+                })
+                .map(BudgetResponse::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<Long> entryIds(Long tripId) {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM budgets WHERE trip_id = ?", Long.class, tripId));
+    }
+
+    private String tripDestination(Long tripId) {
+        return jdbcTemplate.queryForObject("SELECT destination FROM trips WHERE id = ?", String.class, tripId);
+    }
+
+    private Long trip() {
+        TripRequest request = new TripRequest("Destino " + UUID.randomUUID(), "Viagem de teste",
+                LocalDateTime.now().plusDays(7), LocalDateTime.now().plusDays(9), null);
+        return tripService.createTrip(request, user.getId()).getId();
+    }
+
+    private void movement(Long tripId, TripBudget.BudgetType type, String amount) {
+        tripBudgetService.createBudget(new TripBudgetRequest("Movimentação", new BigDecimal(amount), tripId, type, null), user.getId());
+    }
+}
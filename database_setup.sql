@@ -2,6 +2,10 @@
 -- SCRIPT DE CRIAÇÃO E POPULAÇÃO DO BANCO DE DADOS
 -- Sistema Soldiers - Gestão de Vendas para Futebol Americano
 -- =====================================================
+-- O esquema e os índices são versionados pelo Flyway em
+-- backend/src/main/resources/db/migration e aplicados na inicialização.
+-- Este script fica apenas como carga de dados de exemplo para ambientes locais.
+-- =====================================================
 
 -- Habilitar extensões necessárias
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
@@ -126,6 +130,17 @@ CREATE TABLE IF NOT EXISTS tb_sale_item (
     price DECIMAL(10,2) NOT NULL
 );
 
+-- Tabela de totais consolidados de vendas (jogo, vendedor e dia)
+CREATE TABLE IF NOT EXISTS tb_sale_aggregate (
+    id BIGSERIAL PRIMARY KEY,
+    game_event_id BIGINT NOT NULL,
+    seller_id BIGINT NOT NULL,
+    sale_date DATE NOT NULL,
+    sale_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_sale_aggregate_key UNIQUE (game_event_id, seller_id, sale_date)
+);
+
 -- Tabela de orçamentos
 CREATE TABLE IF NOT EXISTS budgets (
     id BIGSERIAL PRIMARY KEY,
@@ -134,7 +149,10 @@ CREATE TABLE IF NOT EXISTS budgets (
     type VARCHAR(50) NOT NULL,
     date TIMESTAMP NOT NULL,
     user_id BIGINT REFERENCES tb_user(id),
-    notes TEXT
+    notes TEXT,
+    source_type VARCHAR(30),
+    source_id BIGINT,
+    trip_id BIGINT
 );
 
 -- Tabela de viagens
@@ -405,6 +423,8 @@ CREATE INDEX idx_sale_user ON tb_sale(user_id);
 CREATE INDEX idx_sale_game ON tb_sale(game_event_id);
 CREATE INDEX idx_budget_date ON budgets(date);
 CREATE INDEX idx_budget_type ON budgets(type);
+CREATE INDEX idx_budget_source ON budgets(source_type, source_id);
+CREATE INDEX idx_budget_trip ON budgets(trip_id);
 CREATE INDEX idx_trip_status ON trips(status);
 CREATE INDEX idx_trip_dates ON trips(departure_date, return_date);
 
@@ -20,9 +20,10 @@ export function AuthProvider({ children }) {
   const signIn = async (email, password) => {
     try {
       const response = await api.post('/auth/login', { email, password });
-      const { status, user } = response.data;
+      const { status, user, token } = response.data;
       
       if (status === 'SUCCESS') {
+        localStorage.setItem('token', token);
         localStorage.setItem('user', JSON.stringify(user));
         setUser(user);
         return { success: true };
@@ -41,6 +42,7 @@ export function AuthProvider({ children }) {
   };
 
   const signOut = () => {
+    localStorage.removeItem('token');
     localStorage.removeItem('user');
     setUser(null);
   };
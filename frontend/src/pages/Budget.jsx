@@ -40,6 +40,7 @@ export function Budget() {
   const [currentBalance, setCurrentBalance] = useState(0);
   const [totalIncome, setTotalIncome] = useState(0);
   const [totalExpenses, setTotalExpenses] = useState(0);
+  const [monthlyData, setMonthlyData] = useState([]);
   const [error, setError] = useState(null);
 
   // Estados para paginação
@@ -106,15 +107,22 @@ export function Budget() {
 
   const loadBalance = async () => {
     try {
-      const [balanceRes, incomeRes, expensesRes] = await Promise.all([
+      const [balanceRes, incomeRes, expensesRes, reportRes] = await Promise.all([
         api.get('/budgets/balance'),
         api.get('/budgets/income'),
-        api.get('/budgets/expenses')
+        api.get('/budgets/expenses'),
+        // Últimos 12 meses agrupados no servidor
+        api.get('/budgets/report', { params: { granularity: 'MONTH' } })
       ]);
       
       setCurrentBalance(balanceRes.data || 0);
       setTotalIncome(incomeRes.data || 0);
       setTotalExpenses(expensesRes.data || 0);
+      setMonthlyData((reportRes.data?.buckets || []).map(bucket => ({
+        month: new Date(`${bucket.periodStart}T00:00:00`).toLocaleDateString('pt-BR', { month: 'short', year: '2-digit' }),
+        income: parseFloat(bucket.income),
+        expenses: parseFloat(bucket.expense)
+      })));
     } catch (error) {
       console.error('Erro ao carregar saldo:', error);
     }
@@ -326,26 +334,6 @@ export function Budget() {
     { name: 'Gastos', value: totalExpenses, color: '#FF8042' }
   ];
 
-  const monthlyData = budgets.reduce((acc, budget) => {
-    const month = new Date(budget.date).toLocaleDateString('pt-BR', { month: 'short' });
-    const existing = acc.find(item => item.month === month);
-    
-    if (existing) {
-      if (budget.type === 'INCOME') {
-        existing.income += parseFloat(budget.amount);
-      } else {
-        existing.expenses += parseFloat(budget.amount);
-      }
-    } else {
-      acc.push({
-        month,
-        income: budget.type === 'INCOME' ? parseFloat(budget.amount) : 0,
-        expenses: budget.type === 'EXPENSE' ? parseFloat(budget.amount) : 0
-      });
-    }
-    
-    return acc;
-  }, []);
 
   const getStatusText = (status) => {
     switch (status) {
@@ -1,10 +1,27 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { api } from '../services/api';
 import { Plus, Minus, Trash2, ShoppingCart, Calendar, Clock, ArrowLeft } from 'lucide-react';
 import toast from 'react-hot-toast';
 import { useAuth } from '../context/AuthContext';
 import { useParams, useNavigate } from 'react-router-dom';
 
+// crypto.randomUUID só existe em contexto seguro (HTTPS ou localhost); acessando pelo IP da rede
+// local cai no UUID v4 montado com getRandomValues, e em último caso em horário + aleatório
+function newIdempotencyKey() {
+  const cryptoApi = window.crypto;
+  if (cryptoApi?.randomUUID) {
+    return cryptoApi.randomUUID();
+  }
+  if (cryptoApi?.getRandomValues) {
+    const bytes = cryptoApi.getRandomValues(new Uint8Array(16));
+    bytes[6] = (bytes[6] & 0x0f) | 0x40; // versão 4
+    bytes[8] = (bytes[8] & 0x3f) | 0x80; // variante RFC 4122
+    const hex = Array.from(bytes, b => b.toString(16).padStart(2, '0')).join('');
+    return `${hex.slice(0, 8)}-${hex.slice(8, 12)}-${hex.slice(12, 16)}-${hex.slice(16, 20)}-${hex.slice(20)}`;
+  }
+  return `${Date.now().toString(16)}-${Math.random().toString(16).slice(2)}${Math.random().toString(16).slice(2)}`;
+}
+
 export function NewSale() {
   const { gameId } = useParams();
   const navigate = useNavigate();
@@ -15,11 +32,18 @@ export function NewSale() {
   const [loading, setLoading] = useState(true);
   const [cartItems, setCartItems] = useState([]);
   const [searchTerm, setSearchTerm] = useState('');
+  // Mantida entre tentativas da mesma venda para que o servidor não a registre duas vezes
+  const saleKey = useRef(null);
 
   useEffect(() => {
     loadData();
   }, []);
 
+  // Carrinho ou jogo alterado é outra venda: o próximo envio gera uma chave nova
+  useEffect(() => {
+    saleKey.current = null;
+  }, [cartItems, selectedGame]);
+
   useEffect(() => {
     if (gameId) {
       const game = games.find(g => g.id === parseInt(gameId));
@@ -129,10 +153,18 @@ export function NewSale() {
         }))
       };
 
-      await api.post('/sales', saleData);
+      if (!saleKey.current) {
+        saleKey.current = newIdempotencyKey();
+      }
+      await api.post('/sales', saleData, { headers: { 'Idempotency-Key': saleKey.current } });
+      saleKey.current = null;
       toast.success('Venda realizada com sucesso!');
       setCartItems([]);
     } catch (error) {
+      // Sem resposta (timeout, rede) a venda pode ter sido gravada: o reenvio usa a mesma chave
+      if (error.response) {
+        saleKey.current = null;
+      }
       toast.error('Erro ao realizar venda');
       console.error('Erro:', error);
     }